@@ -0,0 +1,80 @@
+package com.heureca.wppgateway.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.model.ClientSource;
+import com.heureca.wppgateway.service.ApiAuthenticationFilter;
+import com.heureca.wppgateway.service.ApiClientService;
+import com.heureca.wppgateway.service.GatewayMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link ApiAuthenticationFilter} per request, with the client repository
+ * stubbed in memory: header parsing, client resolution, the rate-limit
+ * decision and the rejection paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+    private static final String API_KEY = "0f1e2d3c4b5a69788796a5b4c3d2e1f0";
+
+    private ApiAuthenticationFilter filter;
+    private ApiClientService clientService;
+    private ApiClient limitedClient;
+
+    @Setup
+    public void setup() {
+        ApiClient client = Stubs.client(API_KEY, ClientSource.INTERNAL, null);
+        clientService = new ApiClientService(
+                Stubs.apiClientRepository(client), Stubs.apiClientLookup(client), Stubs.quotaLeaseService());
+        filter = new ApiAuthenticationFilter(clientService, new GatewayMetrics(new SimpleMeterRegistry()));
+
+        limitedClient = Stubs.client(API_KEY, ClientSource.INTERNAL, 1_000L);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse internalKeyAccepted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/messages/send");
+        request.addHeader("X-Api-Key", API_KEY);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse missingCredentialsRejected() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/messages/send");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public ApiClient rateLimitDecision() {
+        clientService.validateRateLimit(limitedClient);
+        return limitedClient;
+    }
+}
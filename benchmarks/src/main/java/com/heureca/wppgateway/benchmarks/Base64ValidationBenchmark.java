@@ -0,0 +1,54 @@
+package com.heureca.wppgateway.benchmarks;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.heureca.wppgateway.service.MediaValidationService;
+
+/**
+ * Base64 checks on media payloads (data URL form, as clients send them).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64ValidationBenchmark {
+
+    @Param({ "16384", "1048576" })
+    public int payloadBytes;
+
+    private final MediaValidationService validation = new MediaValidationService();
+    private String dataUrl;
+
+    @Setup
+    public void setup() {
+        byte[] raw = new byte[payloadBytes];
+        new Random(42).nextBytes(raw);
+        dataUrl = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(raw);
+    }
+
+    @Benchmark
+    public boolean isValidBase64() {
+        return validation.isValidBase64(dataUrl);
+    }
+
+    @Benchmark
+    public boolean validateMediaSize() {
+        return validation.validateMediaSize(dataUrl, validation.getMaxSizeForType("image"));
+    }
+}
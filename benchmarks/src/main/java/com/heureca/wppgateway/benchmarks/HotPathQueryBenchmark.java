@@ -0,0 +1,193 @@
+package com.heureca.wppgateway.benchmarks;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.model.ClientSource;
+import com.heureca.wppgateway.model.MessageUsage;
+import com.heureca.wppgateway.model.QuotaKind;
+import com.heureca.wppgateway.model.SessionEntity;
+import com.heureca.wppgateway.model.SessionRoute;
+import com.heureca.wppgateway.repository.ApiClientJdbcRepository;
+import com.heureca.wppgateway.repository.ApiClientRepository;
+import com.heureca.wppgateway.repository.SessionRepository;
+import com.heureca.wppgateway.repository.SessionRouteJdbcRepository;
+import com.heureca.wppgateway.repository.UsageCounterJdbcRepository;
+import com.heureca.wppgateway.service.QuotaLedger;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+
+/**
+ * The per-request queries through Spring Data JPA ({@code *Jpa}) and
+ * through the JDBC repositories ({@code *Jdbc}), on one Hikari pool over
+ * H2 in MySQL mode: the auth lookup, the session route and a quota block
+ * lease ({@code SELECT ... FOR UPDATE} + update in one transaction).
+ *
+ * H2 runs in-process, so the time includes the database's own work on
+ * both sides; the difference is the ORM. Run with {@code -prof gc} for
+ * bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotPathQueryBenchmark {
+
+    private static final String API_KEY = "0f1e2d3c4b5a69788796a5b4c3d2e1f0";
+    private static final String SESSION = "wpp_bench_00001";
+    private static final String LEASE_KEY = "lease0000000000000000000000000000";
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory emf;
+    private EntityManager sharedEm;
+    private TransactionTemplate tx;
+    private TransactionTemplate readOnlyTx;
+
+    private ApiClientRepository clientRepository;
+    private SessionRepository sessionRepository;
+    private ApiClientJdbcRepository clientLookup;
+    private SessionRouteJdbcRepository sessionRoutes;
+    private QuotaLedger ledger;
+    private LocalDate today;
+
+    @Setup
+    public void setup() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:hotpath;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;"
+                + "NON_KEYWORDS=DATE,COUNT,VALUE");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(2);
+
+        // 🔹 Mesmas estratégias de nome que o Spring Boot aplica no gateway
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.heureca.wppgateway.model");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy",
+                "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                "hibernate.implicit_naming_strategy",
+                "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy"));
+        factory.afterPropertiesSet();
+        emf = factory.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(emf);
+        transactionManager.setDataSource(dataSource);
+        tx = new TransactionTemplate(transactionManager);
+        // 🔹 O que o proxy do Spring Data faz nas consultas derivadas (SimpleJpaRepository é readOnly)
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        sharedEm = SharedEntityManagerCreator.createSharedEntityManager(emf);
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(sharedEm);
+        clientRepository = repositories.getRepository(ApiClientRepository.class);
+        sessionRepository = repositories.getRepository(SessionRepository.class);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        clientLookup = new ApiClientJdbcRepository(jdbc);
+        sessionRoutes = new SessionRouteJdbcRepository(jdbc);
+        ledger = new QuotaLedger(clientLookup, new UsageCounterJdbcRepository(jdbc));
+        today = LocalDate.now();
+
+        seed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        emf.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Optional<ApiClient> clientByKeyJpa() {
+        return readOnlyTx.execute(status -> clientRepository.findByApiKey(API_KEY));
+    }
+
+    @Benchmark
+    public Optional<ApiClient> clientByKeyJdbc() {
+        return clientLookup.findByApiKey(API_KEY);
+    }
+
+    @Benchmark
+    public Optional<SessionEntity> sessionJpa() {
+        return readOnlyTx.execute(status -> sessionRepository.findBySessionName(SESSION));
+    }
+
+    @Benchmark
+    public Optional<SessionRoute> sessionJdbc() {
+        return sessionRoutes.findBySessionName(SESSION);
+    }
+
+    /**
+     * What the ledger did before: locked entity, counter changed through
+     * dirty checking at commit.
+     */
+    @Benchmark
+    public Long leaseBlockJpa() {
+        return tx.execute(status -> {
+            MessageUsage usage = sharedEm.createQuery(
+                            "SELECT mu FROM MessageUsage mu WHERE mu.clientApiKey = :key AND mu.date = :date",
+                            MessageUsage.class)
+                    .setParameter("key", LEASE_KEY)
+                    .setParameter("date", today)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getSingleResult();
+            usage.setCount(usage.getCount() + 20);
+            return 20L;
+        });
+    }
+
+    @Benchmark
+    public Long leaseBlockJdbc() {
+        return tx.execute(status -> ledger.lease(QuotaKind.CLIENT_MESSAGES, LEASE_KEY, today, 20, null));
+    }
+
+    private void seed() {
+        ApiClient client = Stubs.client(API_KEY, ClientSource.INTERNAL, null);
+        client.setId(null);
+        tx.executeWithoutResult(status -> clientRepository.save(client));
+
+        SessionEntity session = new SessionEntity();
+        session.setSessionName(SESSION);
+        session.setClientApiKey(API_KEY);
+        session.setPhone("5511900000001");
+        session.setStatus("CONNECTED");
+        session.setWppToken("bench-token");
+        session.setBackend("default");
+        tx.executeWithoutResult(status -> sessionRepository.save(session));
+
+        MessageUsage usage = new MessageUsage();
+        usage.setClientApiKey(LEASE_KEY);
+        usage.setDate(today);
+        usage.setCount(0);
+        tx.executeWithoutResult(status -> sharedEm.persist(usage));
+    }
+}
@@ -0,0 +1,77 @@
+package com.heureca.wppgateway.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson round-trips of the untyped {@code Map<String, Object>} bodies the
+ * controllers accept and forward to WPPConnect.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBodyBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Map<String, Object> sendBody;
+    private byte[] sendBodyJson;
+    private byte[] providerResponseJson;
+
+    @Setup
+    public void setup() throws Exception {
+        sendBody = Map.of(
+                "session", "wpp_1a2b3c4d_5511999999999_9f8e7d6c",
+                "phone", "5511988887777",
+                "message", "Olá! Seu pedido #48213 foi enviado e chega amanhã entre 8h e 12h.",
+                "isGroup", false);
+        sendBodyJson = mapper.writeValueAsBytes(sendBody);
+
+        providerResponseJson = mapper.writeValueAsBytes(Map.of(
+                "status", "success",
+                "response", List.of(Map.of(
+                        "id", "true_5511988887777@c.us_3EB0C0FFEE0123456789",
+                        "ack", 1,
+                        "from", "5511999999999@c.us",
+                        "to", "5511988887777@c.us",
+                        "body", "Olá! Seu pedido #48213 foi enviado e chega amanhã entre 8h e 12h.",
+                        "t", 1760000000)),
+                "mapper", "return"));
+    }
+
+    @Benchmark
+    public Map<String, Object> readSendBody() throws Exception {
+        return mapper.readValue(sendBodyJson, MAP);
+    }
+
+    @Benchmark
+    public byte[] writeSendBody() throws Exception {
+        return mapper.writeValueAsBytes(sendBody);
+    }
+
+    @Benchmark
+    public Map<String, Object> readProviderResponse() throws Exception {
+        return mapper.readValue(providerResponseJson, MAP);
+    }
+}
@@ -0,0 +1,43 @@
+package com.heureca.wppgateway.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.heureca.wppgateway.util.PhoneNumbers;
+
+/**
+ * Phone cleanup done by {@code POST /api/sessions/start}. The regex variant
+ * is what the controller used before {@link PhoneNumbers} and is kept as
+ * the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhoneNormalizationBenchmark {
+
+    @Param({ "5511999999999", "+55 (11) 99999-9999" })
+    public String phone;
+
+    @Benchmark
+    public String regexReplaceAll() {
+        return phone.replaceAll("\\D", "");
+    }
+
+    @Benchmark
+    public String digitsOnly() {
+        return PhoneNumbers.digitsOnly(phone);
+    }
+}
@@ -0,0 +1,119 @@
+package com.heureca.wppgateway.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.heureca.wppgateway.dto.SendListRequest;
+import com.heureca.wppgateway.dto.SendMessageRequest;
+import com.heureca.wppgateway.dto.SendRequest;
+
+/**
+ * The send path end to end as far as JSON goes: request bytes → bound body
+ * → provider payload bytes. {@code map} is the old
+ * {@code Map<String, Object>} passthrough (read, drop session, write);
+ * {@code typed*} bind the send DTO, validate it once and write it back as
+ * the payload, with and without Blackbird.
+ *
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}
+ * (bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendBodyBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+
+    @Param({ "send-text", "send-list" })
+    public String endpoint;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectMapper blackbird = new ObjectMapper().registerModule(new BlackbirdModule());
+
+    private Class<? extends SendRequest> type;
+    private byte[] requestJson;
+
+    @Setup
+    public void setup() throws Exception {
+        Map<String, Object> body = switch (endpoint) {
+            case "send-text" -> {
+                type = SendMessageRequest.class;
+                yield Map.of(
+                        "session", "wpp_1a2b3c4d_5511999999999_9f8e7d6c",
+                        "phone", "5511988887777",
+                        "isGroup", false,
+                        "message", "Olá! Seu pedido #48213 foi enviado e chega amanhã entre 8h e 12h.");
+            }
+            case "send-list" -> {
+                type = SendListRequest.class;
+                yield Map.of(
+                        "session", "wpp_1a2b3c4d_5511999999999_9f8e7d6c",
+                        "phone", "5511988887777",
+                        "isGroup", false,
+                        "description", "Escolha o horário da entrega",
+                        "buttonText", "Ver horários",
+                        "sections", List.of(
+                                Map.of("title", "Manhã", "rows", List.of(
+                                        Map.of("rowId", "m1", "title", "08h-10h", "description", "Seg a sex"),
+                                        Map.of("rowId", "m2", "title", "10h-12h", "description", "Seg a sáb"))),
+                                Map.of("title", "Tarde", "rows", List.of(
+                                        Map.of("rowId", "t1", "title", "13h-15h", "description", "Seg a sex"),
+                                        Map.of("rowId", "t2", "title", "15h-18h", "description", "Seg a sáb")))));
+            }
+            default -> throw new IllegalArgumentException(endpoint);
+        };
+        requestJson = mapper.writeValueAsBytes(body);
+
+        // 🔹 Os dois caminhos têm que produzir o mesmo payload para o provider
+        Map<String, Object> expected = mapper.readValue(map(), MAP);
+        Map<String, Object> actual = mapper.readValue(typed(blackbird), MAP);
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("payloads differ: " + expected + " vs " + actual);
+        }
+    }
+
+    @Benchmark
+    public byte[] map() throws Exception {
+        Map<String, Object> body = mapper.readValue(requestJson, MAP);
+        if (body.get("session") == null) {
+            throw new IllegalArgumentException("missing session in request body");
+        }
+        body.remove("session");
+        return mapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] typed() throws Exception {
+        return typed(mapper);
+    }
+
+    @Benchmark
+    public byte[] typedBlackbird() throws Exception {
+        return typed(blackbird);
+    }
+
+    private byte[] typed(ObjectMapper om) throws Exception {
+        SendRequest body = om.readValue(requestJson, type);
+        return om.writeValueAsBytes(body);
+    }
+}
@@ -0,0 +1,36 @@
+package com.heureca.wppgateway.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.heureca.wppgateway.util.SessionNames;
+
+/**
+ * Session name generation ({@code UUID.randomUUID()} dominates: it reads
+ * from the shared SecureRandom).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionNameBenchmark {
+
+    private final String apiKey = "0f1e2d3c4b5a69788796a5b4c3d2e1f0";
+    private final String phone = "5511999999999";
+
+    @Benchmark
+    public String build() {
+        return SessionNames.build(apiKey, phone);
+    }
+}
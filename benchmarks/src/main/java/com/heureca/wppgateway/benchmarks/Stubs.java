@@ -0,0 +1,94 @@
+package com.heureca.wppgateway.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.model.ClientSource;
+import com.heureca.wppgateway.model.QuotaKind;
+import com.heureca.wppgateway.repository.ApiClientJdbcRepository;
+import com.heureca.wppgateway.repository.ApiClientRepository;
+import com.heureca.wppgateway.service.QuotaLeaseService;
+import com.heureca.wppgateway.service.QuotaLedger;
+
+/**
+ * In-memory stand-ins for repositories, so benchmarks measure the gateway's
+ * own CPU work and not MySQL.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Repository that knows a single client; {@code save} returns its argument.
+     */
+    static ApiClientRepository apiClientRepository(ApiClient client) {
+        return (ApiClientRepository) Proxy.newProxyInstance(
+                ApiClientRepository.class.getClassLoader(),
+                new Class<?>[] { ApiClientRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByApiKey" -> Optional.of(client).filter(c -> c.getApiKey().equals(args[0]));
+                    case "findByApiKeyAndSource" -> Optional.of(client)
+                            .filter(c -> c.getApiKey().equals(args[0]) && c.getSource() == args[1]);
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "ApiClientRepositoryStub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * The JDBC lookup the auth filter uses, answering for a single client.
+     */
+    static ApiClientJdbcRepository apiClientLookup(ApiClient client) {
+        return new ApiClientJdbcRepository(null) {
+            @Override
+            public Optional<ApiClient> findByApiKey(String apiKey) {
+                return Optional.of(client).filter(c -> c.getApiKey().equals(apiKey));
+            }
+
+            @Override
+            public Optional<ApiClient> findByApiKeyAndSource(String apiKey, ClientSource source) {
+                return Optional.of(client).filter(c -> c.getApiKey().equals(apiKey) && c.getSource() == source);
+            }
+        };
+    }
+
+    /**
+     * Leases against a ledger that always grants the whole block, so only
+     * the in-memory lease path is measured (one ledger call per block).
+     */
+    static QuotaLeaseService quotaLeaseService() {
+        QuotaLedger ledger = new QuotaLedger(null, null) {
+            @Override
+            public long lease(QuotaKind kind, String id, LocalDate day, long want, Long limit) {
+                return want;
+            }
+
+            @Override
+            public void giveBack(QuotaKind kind, String id, LocalDate day, long units) {
+            }
+        };
+
+        QuotaLeaseService service = new QuotaLeaseService(ledger);
+        ReflectionTestUtils.setField(service, "blockSize", 20L);
+        ReflectionTestUtils.setField(service, "exhaustedRecheckMs", 5_000L);
+        return service;
+    }
+
+    static ApiClient client(String apiKey, ClientSource source, Long dailyLimit) {
+        ApiClient client = new ApiClient();
+        client.setId(1L);
+        client.setApiKey(apiKey);
+        client.setName("bench");
+        client.setSource(source);
+        client.setDailyLimit(dailyLimit);
+        client.setDailyUsage(0L);
+        return client;
+    }
+}
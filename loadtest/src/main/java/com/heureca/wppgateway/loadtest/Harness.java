@@ -0,0 +1,205 @@
+package com.heureca.wppgateway.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.heureca.wppgateway.WppGatewayApplication;
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.model.ClientSource;
+import com.heureca.wppgateway.model.SessionEntity;
+import com.heureca.wppgateway.repository.ApiClientRepository;
+import com.heureca.wppgateway.repository.MessageUsageRepository;
+import com.heureca.wppgateway.repository.SessionRepository;
+import com.heureca.wppgateway.repository.SessionUsageRepository;
+import com.heureca.wppgateway.service.QuotaLeaseService;
+
+/**
+ * The gateway under test: either booted in-process on H2 against one or
+ * more {@link WppConnectStub} backends with one seeded client and N
+ * connected sessions (spread round-robin over the backends), or an already
+ * running instance reached through {@code --target}.
+ */
+final class Harness implements AutoCloseable {
+
+    static final String API_KEY = "loadtest0000000000000000000000000";
+
+    private final List<WppConnectStub> stubs;
+    private final ConfigurableApplicationContext ctx;
+    private final String baseUrl;
+    private final String apiKey;
+    private final List<String> sessions;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private Harness(List<WppConnectStub> stubs, ConfigurableApplicationContext ctx,
+            String baseUrl, String apiKey, List<String> sessions) {
+        this.stubs = stubs;
+        this.ctx = ctx;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.sessions = List.copyOf(sessions);
+    }
+
+    static Harness embedded(WppConnectStub.Profile profile, int sessionCount, int backendCount) throws Exception {
+        List<WppConnectStub> stubs = new ArrayList<>();
+        List<String> backends = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < backendCount; i++) {
+                WppConnectStub stub = new WppConnectStub(profile);
+                stub.start();
+                stubs.add(stub);
+                backends.add("stub-" + i + "=" + stub.baseUrl());
+            }
+
+            ConfigurableApplicationContext ctx = new SpringApplicationBuilder(WppGatewayApplication.class)
+                    .profiles("loadtest")
+                    .run("--wpp.base-url=" + stubs.get(0).baseUrl(),
+                            "--wpp.backends=" + String.join(",", backends));
+
+            String baseUrl = "http://127.0.0.1:" + ctx.getEnvironment().getProperty("local.server.port");
+            return new Harness(stubs, ctx, baseUrl, API_KEY, seed(ctx, sessionCount, backendCount));
+        } catch (RuntimeException e) {
+            stubs.forEach(WppConnectStub::close);
+            throw e;
+        }
+    }
+
+    /**
+     * A gateway we did not start: the caller provides a key and sessions
+     * that already exist (and are connected) there.
+     */
+    static Harness remote(String baseUrl, String apiKey, List<String> sessions) {
+        return new Harness(List.of(), null, baseUrl, apiKey, sessions);
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    String apiKey() {
+        return apiKey;
+    }
+
+    List<String> sessions() {
+        return sessions;
+    }
+
+    HttpClient http() {
+        return http;
+    }
+
+    /**
+     * Calls received per provider operation, per stub backend.
+     */
+    Map<String, Map<String, Long>> providerCalls() {
+        Map<String, Map<String, Long>> m = new LinkedHashMap<>();
+        for (int i = 0; i < stubs.size(); i++) {
+            m.put("stub-" + i, stubs.get(i).callCounts());
+        }
+        return m;
+    }
+
+    /**
+     * Daily counters would hit the 450/session anti-block limit within
+     * seconds; each run starts from zero. No-op against a remote target.
+     */
+    void resetUsage() {
+        if (ctx == null) {
+            return;
+        }
+        ctx.getBean(SessionUsageRepository.class).deleteAllInBatch();
+        ctx.getBean(MessageUsageRepository.class).deleteAllInBatch();
+        ctx.getBean(QuotaLeaseService.class).clear();
+    }
+
+    @Override
+    public void close() {
+        if (ctx != null) {
+            ctx.close();
+        }
+        stubs.forEach(WppConnectStub::close);
+    }
+
+    private static List<String> seed(ConfigurableApplicationContext ctx, int count, int backendCount) {
+        ApiClient client = new ApiClient();
+        client.setApiKey(API_KEY);
+        client.setName("loadtest");
+        client.setSource(ClientSource.INTERNAL);
+        client.setDailyLimit(1_000_000_000L);
+        client.setDailyUsage(0L);
+        ctx.getBean(ApiClientRepository.class).save(client);
+
+        List<SessionEntity> entities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SessionEntity s = new SessionEntity();
+            s.setSessionName(String.format("wpp_load_%05d", i));
+            s.setClientApiKey(API_KEY);
+            s.setPhone(String.format("551190000%04d", i));
+            s.setStatus("CONNECTED");
+            s.setWppToken("stub-token-" + s.getSessionName());
+            s.setBackend("stub-" + (i % backendCount));
+            entities.add(s);
+        }
+        ctx.getBean(SessionRepository.class).saveAll(entities);
+
+        return entities.stream().map(SessionEntity::getSessionName).toList();
+    }
+
+    // ================= CLI =================
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> m = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                m.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return m;
+    }
+
+    static WppConnectStub.Profile stubProfile(Map<String, String> opts) {
+        return new WppConnectStub.Profile(
+                Long.parseLong(opts.getOrDefault("stub-median-ms", "80")),
+                Long.parseLong(opts.getOrDefault("stub-p99-ms", "600")),
+                Double.parseDouble(opts.getOrDefault("stub-error-rate", "0.0")),
+                Integer.parseInt(opts.getOrDefault("stub-error-status", "500")),
+                Long.parseLong(opts.getOrDefault("stub-slow-status-ms", "0")),
+                Long.parseLong(opts.getOrDefault("stub-slow-qr-ms", "0")));
+    }
+
+    static Duration duration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+
+    static void print(Map<String, Map<String, Object>> summary) {
+        System.out.printf("%-52s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "requests", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+
+        summary.forEach((endpoint, m) -> System.out.printf("%-52s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+                endpoint, m.get("requests"), m.get("rps"), m.get("p50Ms"), m.get("p90Ms"),
+                m.get("p99Ms"), m.get("p999Ms"), m.get("maxMs"), m.get("statuses")));
+    }
+}
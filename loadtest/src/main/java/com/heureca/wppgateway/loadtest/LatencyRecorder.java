@@ -0,0 +1,77 @@
+package com.heureca.wppgateway.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Raw latency samples per endpoint. Runs are short (minutes), so exact
+ * percentiles from sorted samples are affordable and avoid histogram
+ * bucketing error.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, int status, long elapsedNanos) {
+        series.computeIfAbsent(endpoint, k -> new Series()).add(status, elapsedNanos);
+    }
+
+    /**
+     * Endpoint → {requests, rps, p50/p90/p99/p999/max in ms, status counts}.
+     */
+    public Map<String, Map<String, Object>> summarize(double elapsedSeconds) {
+        Map<String, Map<String, Object>> out = new TreeMap<>();
+        series.forEach((endpoint, s) -> out.put(endpoint, s.summarize(elapsedSeconds)));
+        return out;
+    }
+
+    private static final class Series {
+
+        private long[] samples = new long[1024];
+        private int size;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        synchronized void add(int status, long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+            statuses.merge(status, 1L, Long::sum);
+        }
+
+        synchronized Map<String, Object> summarize(double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("requests", size);
+            m.put("rps", round(size / elapsedSeconds));
+            m.put("p50Ms", millis(percentile(sorted, 0.50)));
+            m.put("p90Ms", millis(percentile(sorted, 0.90)));
+            m.put("p99Ms", millis(percentile(sorted, 0.99)));
+            m.put("p999Ms", millis(percentile(sorted, 0.999)));
+            m.put("maxMs", millis(size == 0 ? 0 : sorted[size - 1]));
+            m.put("statuses", new TreeMap<>(statuses));
+            return m;
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        private static double millis(long nanos) {
+            return round(nanos / 1_000_000.0);
+        }
+
+        private static double round(double v) {
+            return Math.round(v * 10) / 10.0;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.heureca.wppgateway.loadtest;
+
+import java.io.File;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Boots the gateway on H2 against {@link WppConnectStub}, seeds one client
+ * and N connected sessions, then runs each scenario closed-loop (every
+ * worker sends its next request as soon as the previous one returns).
+ *
+ * <pre>
+ * --scenario=all|burst-send|media-upload|polling-storm
+ * --duration=30s  --warmup=5s  --concurrency=64  --sessions=200  --image-kb=256  --backends=1
+ * --stub-median-ms=80  --stub-p99-ms=600  --stub-error-rate=0.0  --stub-error-status=500
+ * --stub-slow-status-ms=0  --stub-slow-qr-ms=0
+ * --report=target/loadtest-report.json
+ * </pre>
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = Harness.parse(args);
+
+        WppConnectStub.Profile profile = Harness.stubProfile(opts);
+        Duration duration = Harness.duration(opts.getOrDefault("duration", "30s"));
+        Duration warmup = Harness.duration(opts.getOrDefault("warmup", "5s"));
+        int concurrency = Integer.parseInt(opts.getOrDefault("concurrency", "64"));
+        int sessionCount = Integer.parseInt(opts.getOrDefault("sessions", "200"));
+        int imageKb = Integer.parseInt(opts.getOrDefault("image-kb", "256"));
+        int backendCount = Integer.parseInt(opts.getOrDefault("backends", "1"));
+        File reportFile = new File(opts.getOrDefault("report", "target/loadtest-report.json"));
+
+        List<Scenario> scenarios = "all".equals(opts.getOrDefault("scenario", "all"))
+                ? List.of(Scenario.values())
+                : List.of(Scenario.valueOf(opts.get("scenario").toUpperCase(Locale.ROOT).replace('-', '_')));
+
+        try (Harness harness = Harness.embedded(profile, sessionCount, backendCount)) {
+            Scenario.Fixture fixture = new Scenario.Fixture(
+                    harness.baseUrl(), harness.apiKey(), harness.sessions(), imageKb * 1024);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("stubProfile", profile);
+            report.put("concurrency", concurrency);
+            report.put("sessions", sessionCount);
+            report.put("backends", backendCount);
+            report.put("durationSeconds", duration.toSeconds());
+
+            Map<String, Object> results = new LinkedHashMap<>();
+
+            for (Scenario scenario : scenarios) {
+                harness.resetUsage();
+
+                System.out.printf("%n▶ %s  warmup=%ss duration=%ss concurrency=%d%n",
+                        scenario, warmup.toSeconds(), duration.toSeconds(), concurrency);
+
+                drive(harness, scenario, fixture, concurrency, warmup, null);
+
+                LatencyRecorder recorder = new LatencyRecorder();
+                long start = System.nanoTime();
+                drive(harness, scenario, fixture, concurrency, duration, recorder);
+                double elapsed = (System.nanoTime() - start) / 1e9;
+
+                Map<String, Map<String, Object>> summary = recorder.summarize(elapsed);
+                Harness.print(summary);
+                results.put(scenario.name(), summary);
+            }
+
+            report.put("scenarios", results);
+            report.put("providerCalls", harness.providerCalls());
+
+            reportFile.getAbsoluteFile().getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+            System.out.printf("%nReport: %s%n", reportFile.getAbsolutePath());
+        }
+    }
+
+    private static void drive(
+            Harness harness,
+            Scenario scenario,
+            Scenario.Fixture fixture,
+            int concurrency,
+            Duration duration,
+            LatencyRecorder recorder) throws InterruptedException {
+
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                    while (System.nanoTime() < deadline) {
+                        Scenario.Call call = scenario.next(fixture, random);
+                        long start = System.nanoTime();
+                        int status;
+
+                        try {
+                            status = harness.http().send(call.request(), HttpResponse.BodyHandlers.discarding())
+                                    .statusCode();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            status = -1; // erro de I/O no cliente
+                        }
+
+                        if (recorder != null) {
+                            recorder.record(call.endpoint(), status, System.nanoTime() - start);
+                        }
+                    }
+                });
+            }
+
+            workers.shutdown();
+            workers.awaitTermination(duration.toMillis() + 180_000, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.heureca.wppgateway.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Smoke test of a packaged gateway, meant for the native executable
+ * ({@code mvn -Pnative package}) where reflection or resources missing
+ * from the image only show up at runtime.
+ *
+ * Starts the executable against a {@link WppConnectStub} and a real MySQL
+ * (the image carries no H2 driver), seeds an ADMIN and an INTERNAL key
+ * over JDBC, then walks the main endpoints: docs, auth, client creation,
+ * session lifecycle, a send, QR code and the admin views. Reports time to
+ * ready and resident memory; exits 1 when any check fails.
+ *
+ * <pre>
+ * --binary=../target/wppgateway          or --command="java -jar ../target/wppgateway-1.0.12.jar"
+ * --jdbc-url=jdbc:mysql://localhost:3306/wppgateway?allowPublicKeyRetrieval=true&amp;useSSL=false
+ * --db-user=wppuser --db-password=wpp123  (docker-compose defaults)
+ * --ready-timeout=60s
+ * --log=target/native-smoke.log  --report=target/native-smoke-report.json
+ * </pre>
+ */
+public class NativeSmoke {
+
+    private record Check(String name, int status, boolean ok, long ms, String detail) {
+    }
+
+    private record Reply(int status, String body, long ms) {
+    }
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper json = new ObjectMapper();
+    private final List<Check> checks = new ArrayList<>();
+    private final String baseUrl;
+
+    private NativeSmoke(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = Harness.parse(args);
+
+        List<String> command = opts.containsKey("command")
+                ? new ArrayList<>(Arrays.asList(opts.get("command").trim().split("\\s+")))
+                : new ArrayList<>(List.of(opts.getOrDefault("binary", "../target/wppgateway")));
+        String jdbcUrl = opts.getOrDefault("jdbc-url",
+                "jdbc:mysql://localhost:3306/wppgateway?allowPublicKeyRetrieval=true&useSSL=false");
+        String dbUser = opts.getOrDefault("db-user", "wppuser");
+        String dbPassword = opts.getOrDefault("db-password", "wpp123");
+        Duration readyTimeout = Harness.duration(opts.getOrDefault("ready-timeout", "60s"));
+        File logFile = new File(opts.getOrDefault("log", "target/native-smoke.log"));
+        File reportFile = new File(opts.getOrDefault("report", "target/native-smoke-report.json"));
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        try (WppConnectStub stub = new WppConnectStub(new WppConnectStub.Profile(5, 20, 0, 500, 0, 0))) {
+            stub.start();
+
+            command.addAll(List.of(
+                    "--server.port=" + port,
+                    "--wpp.base-url=" + stub.baseUrl(),
+                    "--wpp.backends=stub-0=" + stub.baseUrl(),
+                    "--spring.datasource.url=" + jdbcUrl,
+                    "--spring.datasource.username=" + dbUser,
+                    "--spring.datasource.password=" + dbPassword,
+                    "--spring.jpa.show-sql=false",
+                    "--gateway.cluster.enabled=false"));
+
+            logFile.getAbsoluteFile().getParentFile().mkdirs();
+            long launched = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(logFile)
+                    .start();
+
+            try {
+                NativeSmoke smoke = new NativeSmoke("http://127.0.0.1:" + port);
+
+                long readyMs = smoke.awaitReady(process, launched, readyTimeout);
+                String rss = residentMemory(process.pid());
+                System.out.printf("ready in %d ms, RSS %s (pid %d)%n", readyMs, rss, process.pid());
+
+                smoke.run(
+                        seedClient(jdbcUrl, dbUser, dbPassword, "ADMIN"),
+                        seedClient(jdbcUrl, dbUser, dbPassword, "INTERNAL"));
+
+                Map<String, Object> report = new LinkedHashMap<>();
+                report.put("command", command.get(0));
+                report.put("readyMs", readyMs);
+                report.put("rssAfterReady", rss);
+                report.put("rssAfterChecks", residentMemory(process.pid()));
+                report.put("checks", smoke.checks);
+                report.put("providerCalls", stub.callCounts());
+
+                reportFile.getAbsoluteFile().getParentFile().mkdirs();
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+
+                long failed = smoke.checks.stream().filter(c -> !c.ok()).count();
+                System.out.printf("%n%d/%d checks passed. Report: %s  Log: %s%n",
+                        smoke.checks.size() - failed, smoke.checks.size(),
+                        reportFile.getAbsolutePath(), logFile.getAbsolutePath());
+
+                if (failed > 0) {
+                    System.exit(1);
+                }
+            } finally {
+                process.destroy();
+                if (!process.waitFor(20, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+    }
+
+    private long awaitReady(Process process, long launched, Duration timeout) throws Exception {
+        long deadline = launched + timeout.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("gateway exited with " + process.exitValue() + " before ready");
+            }
+            try {
+                if (get("/actuator/health", null).status() == 200) {
+                    return (System.nanoTime() - launched) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // ainda subindo
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("gateway not ready after " + timeout.toSeconds() + "s");
+    }
+
+    private void run(String adminKey, String apiKey) throws Exception {
+        check("health", get("/actuator/health", null), 200, b -> b.contains("\"UP\""));
+        check("prometheus", get("/actuator/prometheus", null), 200, b -> b.contains("jvm_"));
+
+        // 🔹 Documento gerado no build (recurso do executável); a UI vem do webjar
+        check("api-docs", get("/v3/api-docs", null), 200,
+                b -> b.contains("/api/start-session") && b.contains("/api/messages/send-text"));
+        check("swagger-ui", get("/swagger-ui.html", null), 200, b -> b.contains("SwaggerUIBundle"));
+
+        check("no api key -> 401", get("/api/smoke/status-session", null), 401, b -> true);
+
+        check("create-client", send("POST", "/admin/create-client?name=native-smoke", adminKey, null),
+                201, b -> b.contains("X-Api-Key"));
+
+        // 🔹 start-session aninha o ResponseEntity do provider no corpo
+        Reply started = send("POST", "/api/start-session", apiKey,
+                "{\"phone\":\"5511" + (900000000 + (System.nanoTime() % 99999999)) + "\"}");
+        check("start-session", started, 200, b -> b.contains("\"session\"") && b.contains("\"provider\""));
+        String session = String.valueOf(read(started).get("session"));
+
+        check("status-session", get("/api/" + session + "/status-session?refresh=true", apiKey), 200,
+                b -> b.contains("CONNECTED"));
+        check("send-text", send("POST", "/api/messages/send-text", apiKey,
+                        "{\"session\":\"" + session + "\",\"phone\":\"5511988887777\",\"message\":\"native smoke\"}"),
+                200, b -> true);
+        check("qrcode/base64", get("/api/" + session + "/qrcode/base64", apiKey), 200,
+                b -> b.contains("\"base64\""));
+
+        check("admin/backends", get("/admin/backends", adminKey), 200, b -> b.contains("stub-0"));
+        check("admin/cluster", get("/admin/cluster", adminKey), 200, b -> true);
+
+        check("delete session", send("DELETE", "/api/session/" + session, apiKey, null), 200, b -> true);
+    }
+
+    /**
+     * {@code expected} 200 accepts any 2xx (send-text answers 201 on some
+     * providers).
+     */
+    private void check(String name, Reply reply, int expected, Predicate<String> body) {
+        boolean statusOk = expected == 200 ? reply.status() / 100 == 2 : reply.status() == expected;
+        boolean ok = statusOk && body.test(reply.body());
+
+        String detail = ok ? null : truncate(reply.body());
+        checks.add(new Check(name, reply.status(), ok, reply.ms(), detail));
+        System.out.printf("%-4s %-20s %3d %6d ms%s%n",
+                ok ? "OK" : "FAIL", name, reply.status(), reply.ms(), ok ? "" : "  " + detail);
+    }
+
+    private Reply get(String path, String apiKey) throws Exception {
+        return send("GET", path, apiKey, null);
+    }
+
+    private Reply send(String method, String path, String apiKey, String body) throws Exception {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body != null
+                        ? HttpRequest.BodyPublishers.ofString(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        if (body != null) {
+            b.header("Content-Type", "application/json");
+        }
+        if (apiKey != null) {
+            b.header("X-Api-Key", apiKey);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<String> resp = http.send(b.build(), HttpResponse.BodyHandlers.ofString());
+        return new Reply(resp.statusCode(), resp.body(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Map<?, ?> read(Reply reply) {
+        try {
+            return json.readValue(reply.body(), Map.class);
+        } catch (IOException e) {
+            return Map.of();
+        }
+    }
+
+    /**
+     * A fresh key of the given source; the table exists once the gateway is
+     * up (Flyway migrations).
+     */
+    private static String seedClient(String jdbcUrl, String user, String password, String source)
+            throws Exception {
+        String key = UUID.randomUUID().toString().replace("-", "");
+
+        try (Connection c = DriverManager.getConnection(jdbcUrl, user, password);
+                PreparedStatement ps = c.prepareStatement(
+                        "INSERT INTO api_client (api_key, name, daily_limit, daily_usage, source, created_at, last_reset) "
+                                + "VALUES (?, ?, NULL, 0, ?, CURRENT_TIMESTAMP, CURRENT_DATE)")) {
+            ps.setString(1, key);
+            ps.setString(2, "native-smoke-" + source.toLowerCase());
+            ps.setString(3, source);
+            ps.executeUpdate();
+        }
+        return key;
+    }
+
+    // 🔹 Linux: VmRSS de /proc; em outros sistemas o relatório traz "n/a"
+    private static String residentMemory(long pid) {
+        try {
+            return Files.readAllLines(Path.of("/proc", Long.toString(pid), "status")).stream()
+                    .filter(l -> l.startsWith("VmRSS:"))
+                    .map(l -> l.substring("VmRSS:".length()).trim())
+                    .findFirst()
+                    .orElse("n/a");
+        } catch (IOException e) {
+            return "n/a";
+        }
+    }
+
+    private static String truncate(String s) {
+        return s == null ? "" : s.length() > 300 ? s.substring(0, 300) + "…" : s;
+    }
+}
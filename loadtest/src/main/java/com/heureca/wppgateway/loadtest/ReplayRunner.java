@@ -0,0 +1,328 @@
+package com.heureca.wppgateway.loadtest;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Replays a traffic capture ({@code gateway.capture.*}) open-loop: each
+ * request is sent at its original offset divided by {@code --speed},
+ * whether or not earlier ones have returned, and latency is measured from
+ * that scheduled instant so a stalled gateway cannot hide its own backlog.
+ *
+ * Captures hold shapes only, so bodies are synthesized per route and padded
+ * to the captured size; session pseudonyms are mapped onto the seeded (or
+ * given) sessions in order of first appearance, keeping hot sessions hot.
+ * Admin, webhook and session lifecycle routes are skipped unless
+ * {@code --include-lifecycle=true}.
+ *
+ * <pre>
+ * --capture=./capture          file or directory of capture-*.jsonl
+ * --speed=1                    10 replays ten minutes of traffic in one
+ * --from=epochMillis --to=epochMillis   window inside the capture
+ * --sessions=200 --backends=1   seeded sessions and stub backends (embedded gateway)
+ * --target=http://host:8080 --api-key=... --session-names=a,b,c   replay against a running gateway
+ * --stub-*                     same stub options as LoadTestRunner
+ * --report=target/replay-report.json
+ * </pre>
+ */
+public class ReplayRunner {
+
+    private static final Pattern TEMPLATE_VAR = Pattern.compile("\\{([^}/]+)}");
+
+    /**
+     * One line of a capture file; unknown fields are ignored.
+     */
+    record Captured(
+            long ts,
+            String method,
+            String route,
+            String session,
+            List<String> query,
+            long requestBytes,
+            String contentType,
+            boolean idempotencyKey,
+            boolean ifNoneMatch,
+            int status,
+            double durationMs) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = Harness.parse(args);
+
+        double speed = Double.parseDouble(opts.getOrDefault("speed", "1"));
+        boolean includeLifecycle = Boolean.parseBoolean(opts.getOrDefault("include-lifecycle", "false"));
+        File reportFile = new File(opts.getOrDefault("report", "target/replay-report.json"));
+
+        List<Captured> capture = load(Path.of(opts.getOrDefault("capture", "./capture")),
+                Long.parseLong(opts.getOrDefault("from", "0")),
+                Long.parseLong(opts.getOrDefault("to", String.valueOf(Long.MAX_VALUE))));
+
+        List<Captured> replayable = capture.stream()
+                .filter(c -> includeLifecycle || replayable(c))
+                .toList();
+
+        if (replayable.isEmpty()) {
+            System.out.println("Nothing to replay (" + capture.size() + " captured, all filtered out)");
+            return;
+        }
+
+        long spanMs = replayable.get(replayable.size() - 1).ts() - replayable.get(0).ts();
+        System.out.printf("Replaying %d of %d captured requests, %.1fs of traffic at %.1fx%n",
+                replayable.size(), capture.size(), spanMs / 1000.0, speed);
+
+        try (Harness harness = opts.containsKey("target")
+                ? Harness.remote(opts.get("target"), opts.get("api-key"),
+                        Arrays.asList(opts.getOrDefault("session-names", "").split(",")))
+                : Harness.embedded(Harness.stubProfile(opts),
+                        Integer.parseInt(opts.getOrDefault("sessions", "200")),
+                        Integer.parseInt(opts.getOrDefault("backends", "1")))) {
+
+            harness.resetUsage();
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            AtomicLong lateDispatches = new AtomicLong();
+
+            long start = System.nanoTime();
+            replay(harness, replayable, speed, recorder, lateDispatches);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            Map<String, Map<String, Object>> summary = recorder.summarize(elapsed);
+            Harness.print(summary);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("capture", opts.getOrDefault("capture", "./capture"));
+            report.put("speed", speed);
+            report.put("captured", capture.size());
+            report.put("replayed", replayable.size());
+            report.put("capturedSpanSeconds", spanMs / 1000.0);
+            report.put("elapsedSeconds", elapsed);
+            report.put("lateDispatches", lateDispatches.get());
+            report.put("capturedStatuses", capturedStatuses(replayable));
+            report.put("endpoints", summary);
+            report.put("providerCalls", harness.providerCalls());
+
+            reportFile.getAbsoluteFile().getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+            System.out.printf("%nReport: %s%n", reportFile.getAbsolutePath());
+        }
+    }
+
+    private static void replay(
+            Harness harness,
+            List<Captured> capture,
+            double speed,
+            LatencyRecorder recorder,
+            AtomicLong lateDispatches) throws InterruptedException {
+
+        Map<String, String> sessionMap = new HashMap<>();
+        long firstTs = capture.get(0).ts();
+        long origin = System.nanoTime();
+
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Captured c : capture) {
+                long scheduled = origin + (long) ((c.ts() - firstTs) * 1_000_000 / speed);
+                long wait = scheduled - System.nanoTime();
+
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } else if (wait < -10_000_000) {
+                    lateDispatches.incrementAndGet(); // o próprio driver atrasou mais de 10 ms
+                }
+
+                String session = sessionMap.computeIfAbsent(
+                        c.session() != null ? c.session() : "",
+                        k -> harness.sessions().get(sessionMap.size() % harness.sessions().size()));
+
+                HttpRequest request = build(harness, c, session);
+                String endpoint = c.method() + " " + c.route();
+
+                senders.submit(() -> {
+                    int status;
+                    try {
+                        status = harness.http().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        status = -1; // erro de I/O no cliente
+                    }
+                    recorder.record(endpoint, status, System.nanoTime() - scheduled);
+                });
+            }
+
+            senders.shutdown();
+            senders.awaitTermination(5, TimeUnit.MINUTES);
+        }
+    }
+
+    private static HttpRequest build(Harness harness, Captured c, String session) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // 🔹 /api/{session}/... → sessão mapeada; demais variáveis (ex.: {phone}) → valor sintético
+        Matcher m = TEMPLATE_VAR.matcher(c.route());
+        StringBuilder path = new StringBuilder();
+        while (m.find()) {
+            String value = "session".equals(m.group(1)) ? session : phone(random);
+            m.appendReplacement(path, Matcher.quoteReplacement(value));
+        }
+        m.appendTail(path);
+
+        if (c.query() != null && !c.query().isEmpty()) {
+            path.append('?').append(String.join("&", c.query().stream().map(k -> k + "=true").toList()));
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(harness.baseUrl() + path))
+                .timeout(Duration.ofSeconds(120))
+                .header("X-Api-Key", harness.apiKey());
+
+        if (c.idempotencyKey()) {
+            builder.header("Idempotency-Key", "replay-" + Long.toHexString(random.nextLong()));
+        }
+        if (c.ifNoneMatch()) {
+            builder.header("If-None-Match", "\"replay\"");
+        }
+
+        if ("GET".equals(c.method()) || "DELETE".equals(c.method())) {
+            return builder.method(c.method(), HttpRequest.BodyPublishers.noBody()).build();
+        }
+
+        return builder
+                .header("Content-Type", c.contentType() != null ? c.contentType() : "application/json")
+                .method(c.method(), HttpRequest.BodyPublishers.ofString(body(c, session, random)))
+                .build();
+    }
+
+    /**
+     * A body the route accepts, padded to roughly the captured size.
+     */
+    static String body(Captured c, String session, ThreadLocalRandom random) {
+        String head = "{\"session\":\"" + session + "\",\"phone\":\"" + phone(random) + "\",\"isGroup\":false";
+
+        String fixed;
+        String padField;
+        String padPrefix = "";
+
+        switch (c.route()) {
+            case "/api/messages/send-seen" -> {
+                return head + "}";
+            }
+            case "/api/media/send-image" -> {
+                fixed = ",\"filename\":\"replay.jpg\",\"caption\":\"replay\"";
+                padField = "base64";
+                padPrefix = "data:image/jpeg;base64,";
+            }
+            case "/api/media/send-file" -> {
+                fixed = ",\"filename\":\"replay.pdf\"";
+                padField = "base64";
+                padPrefix = "data:application/pdf;base64,";
+            }
+            case "/api/media/send-sticker-gif" -> {
+                return head + ",\"path\":\"https://example.com/replay.gif\"}";
+            }
+            case "/api/interactive/send-list" -> {
+                fixed = ",\"buttonText\":\"Options\",\"sections\":[{\"title\":\"S\",\"rows\":"
+                        + "[{\"rowId\":\"1\",\"title\":\"One\"}]}]";
+                padField = "description";
+            }
+            case "/api/interactive/send-poll" -> {
+                fixed = ",\"choices\":[\"a\",\"b\"],\"options\":{\"selectableCount\":1}";
+                padField = "name";
+            }
+            default -> {
+                fixed = "";
+                padField = "message";
+            }
+        }
+
+        String skeleton = head + fixed + ",\"" + padField + "\":\"" + padPrefix + "\"}";
+        int pad = (int) Math.max(4, c.requestBytes() - skeleton.length());
+
+        // 🔹 'A' é base64 válido; múltiplo de 4 para o decoder aceitar
+        return head + fixed + ",\"" + padField + "\":\"" + padPrefix + "A".repeat(pad - pad % 4) + "\"}";
+    }
+
+    /**
+     * Lifecycle and admin calls change state the replay depends on (or need
+     * credentials it does not have); the streaming QR endpoint holds a
+     * connection open for minutes.
+     */
+    static boolean replayable(Captured c) {
+        String route = c.route();
+        return route.startsWith("/api/")
+                && !route.equals("/api/start-session")
+                && !route.startsWith("/api/session/")
+                && !route.endsWith("/qrcode/stream");
+    }
+
+    static List<Captured> load(Path source, long from, long to) throws IOException {
+        ObjectMapper mapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        List<Path> files;
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> s = Files.list(source)) {
+                files = s.filter(p -> p.getFileName().toString().startsWith("capture-")).sorted().toList();
+            }
+        } else {
+            files = List.of(source);
+        }
+
+        List<Captured> records = new ArrayList<>();
+        for (Path file : files) {
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    Captured c = mapper.readValue(line, Captured.class);
+                    if (c.ts() >= from && c.ts() <= to && c.route() != null && c.method() != null) {
+                        records.add(c);
+                    }
+                }
+            }
+        }
+
+        records.sort(Comparator.comparingLong(Captured::ts));
+        return records;
+    }
+
+    private static Map<String, Map<Integer, Long>> capturedStatuses(List<Captured> capture) {
+        Map<String, Map<Integer, Long>> m = new TreeMap<>();
+        for (Captured c : capture) {
+            m.computeIfAbsent(c.method() + " " + c.route(), k -> new TreeMap<>()).merge(c.status(), 1L, Long::sum);
+        }
+        return m;
+    }
+
+    private static String phone(ThreadLocalRandom random) {
+        return String.format("55119%08d", random.nextInt(100_000_000));
+    }
+}
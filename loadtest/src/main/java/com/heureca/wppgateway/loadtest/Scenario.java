@@ -0,0 +1,118 @@
+package com.heureca.wppgateway.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traffic shapes driven against the gateway. Each worker repeatedly asks
+ * its scenario for the next request; the label groups results per endpoint.
+ */
+public enum Scenario {
+
+    /** Text sends spread over every seeded session. */
+    BURST_SEND {
+        @Override
+        Call next(Fixture f, ThreadLocalRandom random) {
+            String session = f.randomSession(random);
+            String body = """
+                    {"session":"%s","phone":"55119%08d","isGroup":false,"message":"load test %d"}
+                    """.formatted(session, random.nextInt(100_000_000), random.nextLong());
+
+            return new Call("POST /api/messages/send-text", f.post("/api/messages/send-text", body));
+        }
+    },
+
+    /** Image sends with a ~256 KB base64 payload. */
+    MEDIA_UPLOAD {
+        @Override
+        Call next(Fixture f, ThreadLocalRandom random) {
+            String session = f.randomSession(random);
+            String body = """
+                    {"session":"%s","phone":"55119%08d","isGroup":false,"filename":"load.jpg","caption":"load","base64":"%s"}
+                    """.formatted(session, random.nextInt(100_000_000), f.imageDataUrl());
+
+            return new Call("POST /api/media/send-image", f.post("/api/media/send-image", body));
+        }
+    },
+
+    /**
+     * Dashboards and pairing UIs polling status and QR code; one in ten
+     * status polls forces a provider round-trip with {@code refresh=true}.
+     */
+    POLLING_STORM {
+        @Override
+        Call next(Fixture f, ThreadLocalRandom random) {
+            String session = f.randomSession(random);
+            int pick = random.nextInt(10);
+
+            if (pick < 5) {
+                return new Call("GET /api/{session}/status-session",
+                        f.get("/api/" + session + "/status-session"));
+            }
+            if (pick < 6) {
+                return new Call("GET /api/{session}/status-session?refresh=true",
+                        f.get("/api/" + session + "/status-session?refresh=true"));
+            }
+            return new Call("GET /api/{session}/qrcode", f.get("/api/" + session + "/qrcode"));
+        }
+    };
+
+    abstract Call next(Fixture f, ThreadLocalRandom random);
+
+    public record Call(String endpoint, HttpRequest request) {
+    }
+
+    /**
+     * What scenarios need to build requests: gateway URL, credentials and
+     * the seeded sessions.
+     */
+    public static final class Fixture {
+
+        private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(120);
+
+        private final String baseUrl;
+        private final String apiKey;
+        private final List<String> sessions;
+        private final String imageDataUrl;
+
+        public Fixture(String baseUrl, String apiKey, List<String> sessions, int imageBytes) {
+            this.baseUrl = baseUrl;
+            this.apiKey = apiKey;
+            this.sessions = List.copyOf(sessions);
+
+            byte[] image = new byte[imageBytes];
+            new Random(11).nextBytes(image);
+            this.imageDataUrl = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(image);
+        }
+
+        String randomSession(ThreadLocalRandom random) {
+            return sessions.get(random.nextInt(sessions.size()));
+        }
+
+        String imageDataUrl() {
+            return imageDataUrl;
+        }
+
+        HttpRequest post(String path, String json) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("X-Api-Key", apiKey)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+
+        HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("X-Api-Key", apiKey)
+                    .GET()
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.heureca.wppgateway.loadtest;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.imageio.ImageIO;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Loopback stand-in for WPPConnect, enough of its REST surface for the
+ * gateway's hot paths.
+ *
+ * Every call sleeps for a log-normal latency sample (median / p99 from the
+ * {@link Profile}), status and QR calls add a fixed extra delay, and a
+ * fraction of non-token calls fail with the configured HTTP status. Sends
+ * carrying a token other than the one generate-token hands out get 401.
+ * {@code /healthz} and {@code show-all-sessions} answer immediately, as the
+ * gateway's backend health checks expect.
+ */
+public class WppConnectStub implements AutoCloseable {
+
+    /**
+     * @param medianLatencyMs typical provider latency
+     * @param p99LatencyMs    tail latency; 0 or ≤ median disables the spread
+     * @param errorRate       0..1, fraction of calls answered with {@code errorStatus}
+     * @param errorStatus     e.g. 500 (session failure) or 503 (backend failure)
+     * @param slowStatusMs    extra delay on {@code status-session} / {@code check-connection-session}
+     * @param slowQrMs        extra delay on {@code qrcode-session}
+     */
+    public record Profile(
+            long medianLatencyMs,
+            long p99LatencyMs,
+            double errorRate,
+            int errorStatus,
+            long slowStatusMs,
+            long slowQrMs) {
+    }
+
+    // z-score of the 99th percentile of a standard normal
+    private static final double Z_99 = 2.326;
+
+    private final Profile profile;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final Set<String> started = ConcurrentHashMap.newKeySet();
+    private final byte[] qrPng;
+    private final double mu;
+    private final double sigma;
+
+    public WppConnectStub(Profile profile) throws IOException {
+        this.profile = profile;
+        this.qrPng = renderQr();
+
+        this.mu = Math.log(Math.max(1, profile.medianLatencyMs()));
+        this.sigma = profile.p99LatencyMs() > profile.medianLatencyMs()
+                ? Math.log((double) profile.p99LatencyMs() / Math.max(1, profile.medianLatencyMs())) / Z_99
+                : 0;
+
+        // 🔹 Sem TCP_NODELAY o Nagle + delayed ACK soma ~40 ms por resposta
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.createContext("/healthz", exchange -> {
+            try (exchange) {
+                json(exchange, 200, "{\"message\":\"OK\"}");
+            }
+        });
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Calls received per provider operation.
+     */
+    public Map<String, Long> callCounts() {
+        Map<String, Long> m = new TreeMap<>();
+        calls.forEach((op, n) -> m.put(op, n.sum()));
+        return m;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+
+            // /api/{session}/{op}[/...]  ou  /api/{session}/{secret}/generate-token
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            String session = parts.length > 2 ? parts[2] : "";
+            String op = parts.length > 4 && "generate-token".equals(parts[4]) ? "generate-token"
+                    : parts.length > 3 ? parts[3] : "";
+
+            calls.computeIfAbsent(op, k -> new LongAdder()).increment();
+
+            // /api/{secret}/show-all-sessions
+            if ("show-all-sessions".equals(op)) {
+                json(exchange, 200, "{\"response\":[" + started.stream()
+                        .map(name -> "\"" + name + "\"")
+                        .collect(Collectors.joining(",")) + "]}");
+                return;
+            }
+
+            sleep(sampleLatency() + extraDelay(op));
+
+            if (!"generate-token".equals(op) && ThreadLocalRandom.current().nextDouble() < profile.errorRate()) {
+                json(exchange, profile.errorStatus(),
+                        "{\"status\":\"error\",\"message\":\"stub injected failure\"}");
+                return;
+            }
+
+            if (op.startsWith("send-")
+                    && !("Bearer stub-token-" + session).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                json(exchange, 401, "{\"message\":\"Unauthorized: token is invalid\"}");
+                return;
+            }
+
+            switch (op) {
+                case "generate-token" -> json(exchange, 201,
+                        "{\"status\":\"success\",\"session\":\"" + session + "\",\"token\":\"stub-token-" + session + "\"}");
+                case "start-session", "status-session" -> {
+                    started.add(session);
+                    json(exchange, 200, "{\"status\":\"CONNECTED\",\"qrcode\":null,\"version\":\"stub\"}");
+                }
+                case "check-connection-session" -> json(exchange, 200,
+                        "{\"status\":true,\"message\":\"Connected\"}");
+                case "qrcode-session" -> {
+                    exchange.getResponseHeaders().set("Content-Type", "image/png");
+                    exchange.sendResponseHeaders(200, qrPng.length);
+                    exchange.getResponseBody().write(qrPng);
+                }
+                case "logout-session", "close-session" -> {
+                    started.remove(session);
+                    json(exchange, 200, "{\"status\":true,\"message\":\"Session successfully closed\"}");
+                }
+                case "all-unread-messages", "all-messages-in-chat" -> json(exchange, 200,
+                        "{\"status\":\"success\",\"response\":[]}");
+                default -> {
+                    if (op.startsWith("send-")) {
+                        json(exchange, 201, "{\"status\":\"success\",\"response\":[{\"id\":\"true_stub@c.us_"
+                                + Long.toHexString(ThreadLocalRandom.current().nextLong())
+                                + "\",\"ack\":1}],\"mapper\":\"return\"}");
+                    } else {
+                        json(exchange, 404, "{\"status\":\"error\",\"message\":\"unknown route\"}");
+                    }
+                }
+            }
+        }
+    }
+
+    private long sampleLatency() {
+        if (profile.medianLatencyMs() <= 0) {
+            return 0;
+        }
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Math.round(Math.exp(mu + sigma * gaussian));
+    }
+
+    private long extraDelay(String op) {
+        return switch (op) {
+            case "status-session", "check-connection-session" -> profile.slowStatusMs();
+            case "qrcode-session" -> profile.slowQrMs();
+            default -> 0;
+        };
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void json(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Noise PNG about the size of a real WhatsApp QR code.
+     */
+    private static byte[] renderQr() throws IOException {
+        BufferedImage image = new BufferedImage(264, 264, BufferedImage.TYPE_BYTE_BINARY);
+        Random random = new Random(7);
+
+        for (int y = 0; y < 264; y += 8) {
+            for (int x = 0; x < 264; x += 8) {
+                int rgb = random.nextBoolean() ? 0x000000 : 0xFFFFFF;
+                for (int dy = 0; dy < 8; dy++) {
+                    for (int dx = 0; dx < 8; dx++) {
+                        image.setRGB(x + dx, y + dy, rgb);
+                    }
+                }
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -2,8 +2,12 @@ package com.heureca.wppgateway;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.heureca.wppgateway.config.NativeRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class WppGatewayApplication {
     public static void main(String[] args) {
         SpringApplication.run(WppGatewayApplication.class, args);
@@ -0,0 +1,128 @@
+package com.heureca.wppgateway.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.heureca.wppgateway.util.Workload;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Connection pools, one per {@link Workload} on the primary database plus
+ * an optional read replica, and the application DataSource that routes
+ * between them ({@link WorkloadRoutingDataSource}):
+ *
+ * <ul>
+ * <li>{@code primary} — API requests; {@code spring.datasource.hikari}, as Spring Boot would build it</li>
+ * <li>{@code background} — schedulers, reconciler, drains ({@code gateway.datasource.background})</li>
+ * <li>{@code admin} — {@code /admin/**} requests ({@code gateway.datasource.admin})</li>
+ * <li>{@code replica} — read-only transactions, when {@code gateway.datasource.replica.url} is set</li>
+ * </ul>
+ *
+ * The replica is switched on by its URL at runtime, not by a bean
+ * condition, so it also works on an AOT build. Flyway always migrates the
+ * primary.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    public HikariDataSource backgroundDataSource(
+            DataSourceProperties properties,
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Value("${gateway.datasource.background.maximum-pool-size:2}") int maximumPoolSize) {
+        return workloadPool(properties, primaryDataSource, "background", maximumPoolSize);
+    }
+
+    @Bean
+    public HikariDataSource adminDataSource(
+            DataSourceProperties properties,
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Value("${gateway.datasource.admin.maximum-pool-size:2}") int maximumPoolSize) {
+        return workloadPool(properties, primaryDataSource, "admin", maximumPoolSize);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("backgroundDataSource") HikariDataSource backgroundDataSource,
+            MeterRegistry registry,
+            @Value("${gateway.datasource.replica.url:}") String url,
+            @Value("${gateway.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${gateway.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${gateway.datasource.replica.maximum-pool-size:5}") int maximumPoolSize,
+            @Value("${gateway.datasource.replica.connection-timeout-ms:1000}") long connectionTimeoutMs,
+            @Value("${gateway.datasource.replica.max-lag-ms:2000}") long maxLagMs) {
+
+        HikariDataSource replica = null;
+        if (!url.isBlank()) {
+            replica = new HikariDataSource();
+            replica.setPoolName("replica");
+            replica.setJdbcUrl(url);
+            replica.setUsername(username);
+            replica.setPassword(password);
+            if (primaryDataSource.getDriverClassName() != null) {
+                replica.setDriverClassName(primaryDataSource.getDriverClassName());
+            }
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setMinimumIdle(Math.min(2, maximumPoolSize));
+            // 🔹 Réplica fora do ar: a leitura falha rápido e o próximo check volta para o primário
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        // 🔹 O heartbeat é trabalho de fundo: usa o pool background
+        return new ReplicaLagMonitor(backgroundDataSource, replica, maxLagMs, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("backgroundDataSource") HikariDataSource backgroundDataSource,
+            @Qualifier("adminDataSource") HikariDataSource adminDataSource,
+            ReplicaLagMonitor replicaLagMonitor) {
+        Map<Workload, DataSource> pools = Map.of(
+                Workload.REQUEST, primaryDataSource,
+                Workload.BACKGROUND, backgroundDataSource,
+                Workload.ADMIN, adminDataSource);
+        return new LazyConnectionDataSourceProxy(new WorkloadRoutingDataSource(
+                pools, replicaLagMonitor.replica(), replicaLagMonitor::usable));
+    }
+
+    // 🔹 Mesmo banco e timeouts do primário; só o tamanho e o nome (tag pool das métricas) mudam
+    private static HikariDataSource workloadPool(
+            DataSourceProperties properties, HikariDataSource primary, String name, int maximumPoolSize) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(Math.max(1, maximumPoolSize));
+        pool.setMinimumIdle(1);
+        pool.setConnectionTimeout(primary.getConnectionTimeout());
+        pool.setIdleTimeout(primary.getIdleTimeout());
+        pool.setMaxLifetime(primary.getMaxLifetime());
+        return pool;
+    }
+}
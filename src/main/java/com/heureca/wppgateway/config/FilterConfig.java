@@ -4,17 +4,81 @@ import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.heureca.wppgateway.service.AdminConcurrencyFilter;
+import com.heureca.wppgateway.service.AdminWorkloadFilter;
 import com.heureca.wppgateway.service.ApiAuthenticationFilter;
+import com.heureca.wppgateway.service.IdempotencyFilter;
+import com.heureca.wppgateway.service.RequestTraceFilter;
+import com.heureca.wppgateway.service.SessionAffinityFilter;
+import com.heureca.wppgateway.service.TrafficCaptureFilter;
 
 @Configuration
 public class FilterConfig {
 
+    @Bean
+    public FilterRegistrationBean<RequestTraceFilter> traceFilter(RequestTraceFilter filter) {
+        FilterRegistrationBean<RequestTraceFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(filter);
+        registration.addUrlPatterns("/*");
+        registration.setOrder(0);
+        return registration;
+    }
+
+    // 🔹 Antes da captura e da autenticação: só a réplica dona da sessão conta o request
+    @Bean
+    public FilterRegistrationBean<SessionAffinityFilter> affinityFilter(SessionAffinityFilter filter) {
+        FilterRegistrationBean<SessionAffinityFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(filter);
+        registration.addUrlPatterns("/api/*", "/webhooks/*");
+        registration.setOrder(1);
+        return registration;
+    }
+
+    // 🔹 Antes da autenticação, para capturar também 401/429
+    @Bean
+    public FilterRegistrationBean<TrafficCaptureFilter> captureFilter(TrafficCaptureFilter filter) {
+        FilterRegistrationBean<TrafficCaptureFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(filter);
+        registration.addUrlPatterns("/*");
+        registration.setOrder(2);
+        return registration;
+    }
+
+    // 🔹 Antes da autenticação: a consulta da chave ADMIN já usa o pool admin
+    @Bean
+    public FilterRegistrationBean<AdminWorkloadFilter> adminFilter(AdminWorkloadFilter filter) {
+        FilterRegistrationBean<AdminWorkloadFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(filter);
+        registration.addUrlPatterns("/admin/*");
+        registration.setOrder(3);
+        return registration;
+    }
+
     @Bean
     public FilterRegistrationBean<ApiAuthenticationFilter> apiFilter(ApiAuthenticationFilter filter) {
         FilterRegistrationBean<ApiAuthenticationFilter> registration = new FilterRegistrationBean<>();
         registration.setFilter(filter);
         registration.addUrlPatterns("/*");
-        registration.setOrder(1);
+        registration.setOrder(4);
+        return registration;
+    }
+
+    // 🔹 Depois da autenticação: sem chave ADMIN válida o request não ocupa permit
+    @Bean
+    public FilterRegistrationBean<AdminConcurrencyFilter> adminLimitFilter(AdminConcurrencyFilter filter) {
+        FilterRegistrationBean<AdminConcurrencyFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(filter);
+        registration.addUrlPatterns("/admin/*");
+        registration.setOrder(5);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyKeyFilter(IdempotencyFilter filter) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(filter);
+        registration.addUrlPatterns("/api/messages/*", "/api/media/*", "/api/interactive/*");
+        registration.setOrder(6);
         return registration;
     }
 }
@@ -0,0 +1,42 @@
+package com.heureca.wppgateway.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schema migrations: SQL in {@code db/migration}, plus the Java ones
+ * registered here (listed rather than scanned, so the native image finds
+ * them too).
+ *
+ * {@code gateway.schema.migrate-on-startup=false} skips {@code migrate} for
+ * starts without a database (OpenAPI generation, CDS training run) and for
+ * environments that run migrations out of band. It is read at runtime, not
+ * as a bean condition, so it also works on an AOT build.
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    public FlywayConfigurationCustomizer javaMigrations() {
+        return configuration -> configuration.javaMigrations(new V2__HotPathIndexes(), new V4__UsagePartitioning());
+    }
+
+    @Bean
+    public FlywayMigrationStrategy migrationStrategy(
+            @Value("${gateway.schema.migrate-on-startup:true}") boolean migrateOnStartup) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            } else {
+                logger.warn("gateway.schema.migrate-on-startup=false: schema migrations not applied");
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.heureca.wppgateway.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+@Configuration
+public class JacksonConfig {
+
+    // 🔹 Blackbird troca a reflection dos DTOs de envio por lambdas geradas (leitura do
+    //    corpo e escrita para o WPPConnect, via RestTemplate). No native image não há
+    //    geração de classes em runtime: fica o acesso por reflection.
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer blackbirdCustomizer() {
+        return builder -> {
+            if (!NativeDetector.inNativeImage()) {
+                builder.postConfigurer(mapper -> mapper.registerModule(new BlackbirdModule()));
+            }
+        };
+    }
+}
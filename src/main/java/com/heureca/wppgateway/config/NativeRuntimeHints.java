@@ -0,0 +1,55 @@
+package com.heureca.wppgateway.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.model.ClientSource;
+import com.heureca.wppgateway.model.GatewayNode;
+import com.heureca.wppgateway.model.IdempotencyRecord;
+import com.heureca.wppgateway.model.MessageUsage;
+import com.heureca.wppgateway.model.ProviderSessionState;
+import com.heureca.wppgateway.model.QrCodeImage;
+import com.heureca.wppgateway.model.QuotaKind;
+import com.heureca.wppgateway.model.SessionEntity;
+import com.heureca.wppgateway.model.SessionStatusSnapshot;
+import com.heureca.wppgateway.model.SessionUsage;
+import com.heureca.wppgateway.model.WppBackend;
+
+/**
+ * Reflection and resource metadata for the native image ({@code -Pnative}).
+ *
+ * Spring AOT already covers beans, repositories, the JPA managed types and
+ * the {@code @RequestBody} parameters it can see. What it cannot see is
+ * what ends up inside the {@code Map<String, Object>} bodies the
+ * controllers return (entities, records, and the provider
+ * {@link ResponseEntity} that start-session nests in its answer), the
+ * build-time OpenAPI document and the swagger-ui webjar files. No-op on the JVM.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] MODEL = {
+            ApiClient.class, SessionEntity.class, SessionUsage.class, MessageUsage.class,
+            IdempotencyRecord.class, GatewayNode.class,
+            SessionStatusSnapshot.class, QrCodeImage.class, WppBackend.class,
+            ClientSource.class, ProviderSessionState.class, QuotaKind.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+        // 🔹 Serialização Jackson de valores Object dentro dos Map de resposta
+        bindings.registerReflectionHints(hints.reflection(), MODEL);
+        bindings.registerReflectionHints(hints.reflection(), ResponseEntity.class, HttpStatus.class);
+
+        // 🔹 OpenAPI gerado no build (ApiDocsController) e arquivos do Swagger UI
+        hints.resources()
+                .registerPattern("openapi/*")
+                .registerPattern("META-INF/resources/webjars/swagger-ui/*/*")
+                .registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+    }
+}
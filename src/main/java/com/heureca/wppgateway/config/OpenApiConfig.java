@@ -1,5 +1,7 @@
 package com.heureca.wppgateway.config;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
+import io.swagger.v3.oas.models.servers.Server;
 
 @Configuration
 public class OpenApiConfig {
@@ -20,8 +23,10 @@ public class OpenApiConfig {
         @Bean
         public OpenAPI wppGatewayOpenAPI() {
 
+                // 🔹 Servidor relativo: o documento é gerado no build (localhost) e servido em qualquer host
                 return new OpenAPI()
-                                .info(apiInfo());
+                                .info(apiInfo())
+                                .servers(List.of(new Server().url("/")));
                                 // .components(
                                 //                 new Components()
                                 //                                 .addSecuritySchemes(SECURITY_SCHEME_NAME,
@@ -46,6 +51,11 @@ public class OpenApiConfig {
                                                  - RapidAPI and internal keys are supported
                                                 ```
 
+                                                ### 🔁 Idempotency
+                                                Send endpoints accept an optional `Idempotency-Key` header.
+                                                Repeating a request with the same key returns the original
+                                                response (header `Idempotent-Replayed: true`) without sending twice.
+
                                                 ### 📦 Features
                                                 - WhatsApp session management
                                                 - Send text and interactive messages
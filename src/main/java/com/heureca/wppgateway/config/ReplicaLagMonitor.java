@@ -0,0 +1,141 @@
+package com.heureca.wppgateway.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Whether the read replica may serve reads, measured with a heartbeat row
+ * rather than the server's replication status (no REPLICATION CLIENT
+ * grant needed, and it works on any database).
+ *
+ * Every check writes the current time to {@code replica_heartbeat} on the
+ * primary and reads the row from the replica. A replica that already shows
+ * the previous check's write is current; one that does not counts as
+ * {@code now - beat} behind (the upper bound). Above {@code gateway.datasource.replica.max-lag-ms},
+ * or when the read fails, reads go to the primary until a check passes.
+ *
+ * With several gateway replicas the row holds the latest write of any of
+ * them (clocks in sync, as for the cluster heartbeats).
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String WRITE_BEAT = "UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String READ_BEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final HikariDataSource replica;
+    private final JdbcTemplate replicaJdbc;
+    private final long maxLagMs;
+
+    private volatile boolean usable;
+    private volatile long lagMs = -1;
+    private long lastWrittenAt;
+    private boolean checked;
+
+    /**
+     * @param replica null when no replica is configured
+     */
+    public ReplicaLagMonitor(DataSource primary, HikariDataSource replica, long maxLagMs, MeterRegistry registry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = replica;
+        this.replicaJdbc = replica != null ? new JdbcTemplate(replica) : null;
+        this.maxLagMs = maxLagMs;
+
+        if (replicaJdbc != null) {
+            replicaJdbc.setQueryTimeout(1);
+        }
+
+        Gauge.builder("gateway.datasource.replica.lag", this, m -> m.lagMs)
+                .description("Read replica lag in ms measured by the heartbeat row (-1 = unknown)")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("gateway.datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+                .description("1 while read-only transactions go to the read replica")
+                .register(registry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${gateway.datasource.replica.initial-delay-ms:0}",
+            fixedDelayString = "${gateway.datasource.replica.lag-check-ms:1000}")
+    public void check() {
+        if (replica == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long previousWrite = lastWrittenAt;
+        try {
+            primary.update(WRITE_BEAT, now);
+            lastWrittenAt = now;
+        } catch (DataAccessException e) {
+            logger.warn("Replica heartbeat write failed: {}", e.getMessage());
+        }
+        // 🔹 Primeiro tick: ainda não há escrita nossa para comparar
+        if (previousWrite == 0) {
+            return;
+        }
+
+        long lag;
+        String cause = "behind the primary";
+        try {
+            Long beat = replicaJdbc.queryForObject(READ_BEAT, Long.class);
+            if (beat == null || beat == 0) {
+                lag = -1;
+                cause = "no heartbeat on the replica";
+            } else {
+                // 🔹 Já mostra a escrita anterior: em dia até onde a medida alcança
+                lag = beat >= previousWrite ? 0 : now - beat;
+            }
+        } catch (DataAccessException e) {
+            lag = -1;
+            cause = e.getMessage();
+        }
+
+        boolean nowUsable = lag >= 0 && lag <= maxLagMs;
+        lagMs = lag;
+        if (nowUsable != usable || !checked) {
+            if (nowUsable) {
+                logger.info("READ REPLICA IN USE | lagMs={}", lag);
+            } else {
+                logger.warn("READ REPLICA BYPASSED | lagMs={} maxLagMs={} cause={}", lag, maxLagMs, cause);
+            }
+        }
+        usable = nowUsable;
+        checked = true;
+    }
+
+    public boolean usable() {
+        return usable;
+    }
+
+    public long lagMs() {
+        return lagMs;
+    }
+
+    /**
+     * The replica pool, or null when {@code gateway.datasource.replica.url}
+     * is empty.
+     */
+    public HikariDataSource replica() {
+        return replica;
+    }
+
+    @Override
+    public void close() {
+        if (replica != null) {
+            replica.close();
+        }
+    }
+}
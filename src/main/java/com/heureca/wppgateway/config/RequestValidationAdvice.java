@@ -0,0 +1,34 @@
+package com.heureca.wppgateway.config;
+
+import java.util.Map;
+
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.heureca.wppgateway.exception.InvalidRequestException;
+
+/**
+ * 400 bodies for request bodies that do not bind, in the same
+ * {@code {"error": ...}} shape the controllers use. The send DTOs check
+ * themselves while Jackson builds them, so their {@link InvalidRequestException}
+ * arrives wrapped in the converter's exception.
+ */
+@RestControllerAdvice
+public class RequestValidationAdvice {
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<?> unreadable(HttpMessageNotReadableException e) {
+        if (NestedExceptionUtils.getMostSpecificCause(e) instanceof InvalidRequestException invalid) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", invalid.getMessage(),
+                    "field", invalid.getField()));
+        }
+
+        // 🔹 JSON malformado ou tipo errado; a mensagem do Jackson ecoa trechos do corpo
+        return ResponseEntity.badRequest().body(Map.of(
+                "error", "invalid request body"));
+    }
+}
@@ -1,13 +1,36 @@
 package com.heureca.wppgateway.config;
 
+import java.time.Duration;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import com.heureca.wppgateway.util.RequestTrace;
+
 @Configuration
 public class RestTemplateConfig {
+
+    // 🔹 Sem timeout, um WPPConnect travado prende as threads para sempre
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            RestTemplateBuilder builder,
+            @Value("${wpp.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${wpp.read-timeout-ms:60000}") long readTimeoutMs) {
+        return builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .additionalInterceptors((request, body, execution) -> {
+                    // 🔹 Correlaciona o log do WPPConnect com o do gateway
+                    String requestId = MDC.get(RequestTrace.MDC_KEY);
+                    if (requestId != null) {
+                        request.getHeaders().set(RequestTrace.HEADER, requestId);
+                    }
+                    return execution.execute(request, body);
+                })
+                .build();
     }
 }
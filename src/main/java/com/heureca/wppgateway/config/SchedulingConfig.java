@@ -0,0 +1,19 @@
+package com.heureca.wppgateway.config;
+
+import org.springframework.boot.task.TaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.heureca.wppgateway.util.Workload;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    // 🔹 @Scheduled roda como BACKGROUND: pool de conexões próprio, longe dos envios
+    @Bean
+    public TaskSchedulerCustomizer backgroundScheduler() {
+        return scheduler -> scheduler.setThreadFactory(Workload.BACKGROUND.threadFactory("scheduling"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.heureca.wppgateway.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.heureca.wppgateway.config.SchemaIndexes.Index;
+
+/**
+ * Fails startup when an index from {@link SchemaIndexes} is missing, so an
+ * environment whose schema was not migrated does not quietly serve every
+ * lookup with a full table scan.
+ *
+ * Runs after Flyway (Spring Boot makes {@link JdbcTemplate} wait for the
+ * migration). {@code gateway.schema.verify-indexes=false} turns it off for
+ * starts without a database.
+ */
+@Component
+public class SchemaIndexVerifier implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    private final JdbcTemplate jdbc;
+
+    @Value("${gateway.schema.verify-indexes:true}")
+    private boolean enabled;
+
+    public SchemaIndexVerifier(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            logger.warn("gateway.schema.verify-indexes=false: schema indexes not checked");
+            return;
+        }
+
+        List<Index> missing = jdbc.execute((ConnectionCallback<List<Index>>) SchemaIndexes::missing);
+
+        if (missing != null && !missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes " + missing
+                    + "; run the migrations (gateway.schema.migrate-on-startup=true) or create them");
+        }
+        logger.info("Schema indexes verified ({})", SchemaIndexes.EXPECTED.size());
+    }
+}
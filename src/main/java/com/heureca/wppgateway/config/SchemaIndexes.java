@@ -0,0 +1,184 @@
+package com.heureca.wppgateway.config;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The indexes the request path and the background jobs rely on, one per
+ * query shape. {@link V2__HotPathIndexes} creates the missing ones and
+ * {@link SchemaIndexVerifier} refuses to start without them.
+ *
+ * An existing index counts when it starts with the same columns; a unique
+ * one must be unique on exactly those columns. Names only matter when
+ * creating, so keys made by Hibernate or by hand are accepted.
+ */
+public final class SchemaIndexes {
+
+    /**
+     * {@code mergeColumn}: for a unique key over a daily counter, the
+     * column summed into one row when duplicates already exist.
+     */
+    public record Index(String table, String name, boolean unique, List<String> columns, String mergeColumn) {
+
+        static Index unique(String table, String name, String... columns) {
+            return new Index(table, name, true, List.of(columns), null);
+        }
+
+        static Index counter(String table, String name, String... columns) {
+            return new Index(table, name, true, List.of(columns), "count");
+        }
+
+        static Index plain(String table, String name, String... columns) {
+            return new Index(table, name, false, List.of(columns), null);
+        }
+
+        @Override
+        public String toString() {
+            return table + "." + name + (unique ? " UNIQUE" : "") + " " + columns;
+        }
+    }
+
+    public static final List<Index> EXPECTED = List.of(
+            // filtro de autenticação: findByApiKey / findByApiKeyAndSource (source filtrado na linha única)
+            Index.unique("api_client", "UK_api_client_api_key", "api_key"),
+            // SessionDirectory, controllers: findBySessionName
+            Index.unique("sessions", "UK_sessions_session_name", "session_name"),
+            // findByClientApiKeyAndPhone / findActiveByClientApiKeyAndPhone
+            Index.unique("sessions", "UK_client_phone", "client_api_key", "phone"),
+            Index.plain("sessions", "IX_sessions_phone", "phone"),
+            // countByBackend (placement): GROUP BY sem ler a tabela
+            Index.plain("sessions", "IX_sessions_backend_status", "wpp_backend", "status"),
+            // QuotaLedger: uma linha por dia
+            Index.counter("message_usage", "UK_message_usage_client_date", "client_api_key", "date"),
+            Index.counter("session_usage", "UK_session_usage_session_date", "session_name", "date"),
+            Index.unique("idempotency_record", "UK_idempotency_client_key", "client_api_key", "idempotency_key"),
+            Index.plain("idempotency_record", "IX_idempotency_created_at", "created_at"),
+            Index.plain("gateway_node", "IX_gateway_node_heartbeat", "heartbeat_at"));
+
+    private SchemaIndexes() {
+    }
+
+    public static List<Index> missing(Connection connection) throws SQLException {
+        Map<String, List<ExistingIndex>> byTable = new LinkedHashMap<>();
+        List<Index> missing = new ArrayList<>();
+
+        for (Index expected : EXPECTED) {
+            List<ExistingIndex> existing = byTable.get(expected.table());
+            if (existing == null) {
+                existing = existingIndexes(connection.getMetaData(), connection, expected.table());
+                byTable.put(expected.table(), existing);
+            }
+            if (existing.stream().noneMatch(e -> e.satisfies(expected))) {
+                missing.add(expected);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * CREATE [UNIQUE] INDEX; a unique key over a daily counter first folds
+     * duplicate rows of the same day into one.
+     */
+    public static void create(Connection connection, Index index) throws SQLException {
+        if (index.mergeColumn() != null) {
+            mergeDuplicates(connection, index);
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE " + (index.unique() ? "UNIQUE " : "") + "INDEX " + index.name()
+                    + " ON " + index.table() + " (" + String.join(", ", index.columns()) + ")");
+        }
+    }
+
+    public static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        try (ResultSet rs = meta.getColumns(connection.getCatalog(), connection.getSchema(), table, null)) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private record ExistingIndex(boolean unique, List<String> columns) {
+
+        boolean satisfies(Index expected) {
+            if (columns.size() < expected.columns().size()) {
+                return false;
+            }
+            for (int i = 0; i < expected.columns().size(); i++) {
+                if (!columns.get(i).equalsIgnoreCase(expected.columns().get(i))) {
+                    return false;
+                }
+            }
+            return !expected.unique() || (unique && columns.size() == expected.columns().size());
+        }
+    }
+
+    private static List<ExistingIndex> existingIndexes(DatabaseMetaData meta, Connection connection, String table)
+            throws SQLException {
+        Map<String, Boolean> unique = new LinkedHashMap<>();
+        Map<String, TreeMap<Short, String>> columns = new LinkedHashMap<>();
+
+        try (ResultSet rs = meta.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, false)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (name == null || column == null) {
+                    continue;
+                }
+                unique.put(name, !rs.getBoolean("NON_UNIQUE"));
+                columns.computeIfAbsent(name, n -> new TreeMap<>())
+                        .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<ExistingIndex> indexes = new ArrayList<>();
+        columns.forEach((name, cols) -> indexes.add(new ExistingIndex(unique.get(name), List.copyOf(cols.values()))));
+        return indexes;
+    }
+
+    // 🔹 Soma o contador do dia na linha de menor id e apaga as demais
+    private static void mergeDuplicates(Connection connection, Index index) throws SQLException {
+        String key = index.columns().get(0);
+        String day = index.columns().get(1);
+        String table = index.table();
+        String count = index.mergeColumn();
+
+        List<Object[]> duplicates = new ArrayList<>();
+        try (Statement st = connection.createStatement();
+                ResultSet rs = st.executeQuery("SELECT " + key + ", " + day + ", MIN(id), SUM(" + count + ")"
+                        + " FROM " + table + " GROUP BY " + key + ", " + day + " HAVING COUNT(*) > 1")) {
+            while (rs.next()) {
+                duplicates.add(new Object[] { rs.getObject(1), rs.getObject(2), rs.getLong(3), rs.getLong(4) });
+            }
+        }
+
+        try (PreparedStatement keep = connection.prepareStatement(
+                        "UPDATE " + table + " SET " + count + " = ? WHERE id = ?");
+                PreparedStatement drop = connection.prepareStatement(
+                        "DELETE FROM " + table + " WHERE " + key + " = ? AND " + day + " = ? AND id <> ?")) {
+            for (Object[] d : duplicates) {
+                keep.setLong(1, (Long) d[3]);
+                keep.setLong(2, (Long) d[2]);
+                keep.executeUpdate();
+
+                drop.setObject(1, d[0]);
+                drop.setObject(2, d[1]);
+                drop.setLong(3, (Long) d[2]);
+                drop.executeUpdate();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.heureca.wppgateway.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.heureca.wppgateway.service.RequestTraceFilter;
+import com.heureca.wppgateway.util.RequestTrace;
+
+/**
+ * Writes the {@code Server-Timing} header just before the body, when every
+ * phase of the request (auth, session lookup, provider, usage) is known.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(
+            MethodParameter returnType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+
+        RequestTrace.current().ifPresent(trace ->
+                response.getHeaders().set(RequestTraceFilter.SERVER_TIMING, trace.serverTiming()));
+
+        return body;
+    }
+}
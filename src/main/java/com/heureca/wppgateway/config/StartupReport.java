@@ -0,0 +1,67 @@
+package com.heureca.wppgateway.config;
+
+import java.lang.management.ManagementFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NativeDetector;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * Logs how long startup took and with which accelerations (AOT-generated
+ * bean definitions, CDS archive, native image), so image changes can be
+ * compared from the pod logs. {@code application.started.time} /
+ * {@code application.ready.time} carry the same numbers in Prometheus.
+ *
+ * With {@code gateway.startup.exit-on-ready=true} the JVM exits right
+ * after startup: the Docker build uses it as the CDS training run.
+ */
+@Component
+public class StartupReport implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+
+    @Value("${gateway.startup.exit-on-ready:false}")
+    private boolean exitOnReady;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long jvmToReadyMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        long contextMs = event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1;
+
+        logger.info("STARTUP | jvmToReadyMs={} springMs={} aot={} native={} cds={} classes={} cpus={}",
+                jvmToReadyMs,
+                contextMs,
+                AotDetector.useGeneratedArtifacts(),
+                NativeDetector.inNativeImage(),
+                cdsArchive(),
+                ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount(),
+                Runtime.getRuntime().availableProcessors());
+
+        if (exitOnReady) {
+            // 🔹 Fecha o contexto antes: o arquivo CDS é gravado na saída da JVM
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    // 🔹 "sharing" em java.vm.info = CDS mapeado; o arquivo é o dinâmico (-XX:SharedArchiveFile) ou o base do JDK
+    private static String cdsArchive() {
+        if (NativeDetector.inNativeImage() || !System.getProperty("java.vm.info", "").contains("sharing")) {
+            return "off";
+        }
+        try {
+            String file = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+                    .getVMOption("SharedArchiveFile").getValue();
+            return file.isBlank() ? "jdk-default" : file;
+        } catch (RuntimeException e) {
+            return "on";
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.heureca.wppgateway.config;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.heureca.wppgateway.config.SchemaIndexes.Index;
+
+/**
+ * Brings a database created before migrations existed up to V1 and adds
+ * the {@link SchemaIndexes}. Java and not SQL because MySQL has no
+ * {@code ADD COLUMN / CREATE INDEX IF NOT EXISTS}: what is already there
+ * (the README's manual {@code ALTER TABLE}, keys Hibernate created) is
+ * left alone. Registered in {@link FlywayConfig}.
+ */
+public class V2__HotPathIndexes extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V2__HotPathIndexes.class);
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        // 🔹 Coluna do placement entre backends, antes só por ALTER TABLE manual (README)
+        if (!SchemaIndexes.hasColumn(connection, "sessions", "wpp_backend")) {
+            try (Statement st = connection.createStatement()) {
+                st.execute("ALTER TABLE sessions ADD COLUMN wpp_backend VARCHAR(64) NULL");
+            }
+            logger.info("Added column sessions.wpp_backend");
+        }
+
+        for (Index index : SchemaIndexes.missing(connection)) {
+            SchemaIndexes.create(connection, index);
+            logger.info("Created index {}", index);
+        }
+    }
+}
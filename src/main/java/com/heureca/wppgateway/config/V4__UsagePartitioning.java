@@ -0,0 +1,84 @@
+package com.heureca.wppgateway.config;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.YearMonth;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.heureca.wppgateway.repository.UsageCounterJdbcRepository.Counter;
+import com.heureca.wppgateway.repository.UsageHistoryJdbcRepository;
+
+/**
+ * Range-partitions the daily counter tables by month (MySQL only; other
+ * databases keep plain tables and retention deletes rows).
+ *
+ * MySQL wants the partition column in every unique key, so the primary
+ * key becomes (id, date) and {@code message_usage.date} turns NOT NULL
+ * (rows without a date were never counted by any query and are removed).
+ * One partition per month from the oldest row to
+ * {@value #MONTHS_AHEAD} months ahead, then {@code pmax};
+ * UsageHistoryService keeps adding months after that.
+ */
+public class V4__UsagePartitioning extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V4__UsagePartitioning.class);
+
+    static final int MONTHS_AHEAD = 3;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        if (!UsageHistoryJdbcRepository.isMySql(connection)) {
+            logger.info("Usage tables not partitioned on {}", connection.getMetaData().getDatabaseProductName());
+            return;
+        }
+
+        for (Counter counter : Counter.values()) {
+            String table = counter.table();
+            if (isPartitioned(connection, table)) {
+                continue;
+            }
+
+            try (Statement st = connection.createStatement()) {
+                int undated = st.executeUpdate("DELETE FROM " + table + " WHERE date IS NULL");
+                if (undated > 0) {
+                    logger.info("Removed {} {} rows without date", undated, table);
+                }
+                st.execute("ALTER TABLE " + table + " MODIFY date DATE NOT NULL, "
+                        + "DROP PRIMARY KEY, ADD PRIMARY KEY (id, date)");
+
+                YearMonth current = YearMonth.now();
+                YearMonth first = oldestMonth(connection, table, current);
+                st.execute("ALTER TABLE " + table + " "
+                        + UsageHistoryJdbcRepository.partitionClause(first, current.plusMonths(MONTHS_AHEAD)));
+            }
+            logger.info("Partitioned {} by month", table);
+        }
+    }
+
+    private static boolean isPartitioned(Connection connection, String table) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT COUNT(*) FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getLong(1) > 0;
+            }
+        }
+    }
+
+    private static YearMonth oldestMonth(Connection connection, String table, YearMonth fallback) throws Exception {
+        try (Statement st = connection.createStatement();
+                ResultSet rs = st.executeQuery("SELECT MIN(date) FROM " + table)) {
+            Date oldest = rs.next() ? rs.getDate(1) : null;
+            return oldest != null ? YearMonth.from(oldest.toLocalDate()) : fallback;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.heureca.wppgateway.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.heureca.wppgateway.util.Workload;
+
+/**
+ * Picks the pool for each connection.
+ *
+ * Read-only transactions ({@code @Transactional(readOnly = true)}, and the
+ * CRUD reads Spring Data inherits from {@code SimpleJpaRepository} unless
+ * the repository redeclares them) go to the replica pool while it is
+ * usable. Everything else goes to the pool of the thread's
+ * {@link Workload}: API requests, background jobs and admin requests each
+ * have their own pool on the primary, so a slow report or a sweep never
+ * holds a connection a send is waiting for.
+ *
+ * Must sit behind a {@link LazyConnectionDataSourceProxy}: the transaction
+ * manager asks for the connection before the read-only flag is bound, the
+ * proxy only fetches it at the first statement.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String REPLICA = "replica";
+
+    private final BooleanSupplier replicaUsable;
+
+    /**
+     * @param pools   primary pool per workload
+     * @param replica null when no replica is configured
+     */
+    public WorkloadRoutingDataSource(Map<Workload, DataSource> pools, DataSource replica, BooleanSupplier replicaUsable) {
+        Map<Object, Object> targets = new HashMap<>(pools);
+        if (replica != null) {
+            targets.put(REPLICA, replica);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(pools.get(Workload.REQUEST));
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        this.replicaUsable = replica != null ? replicaUsable : () -> false;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaUsable.getAsBoolean()
+                ? REPLICA
+                : Workload.current();
+    }
+}
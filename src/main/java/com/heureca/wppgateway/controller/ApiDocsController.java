@@ -0,0 +1,108 @@
+package com.heureca.wppgateway.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+/**
+ * Serves the OpenAPI document generated at build time ({@code mvn package},
+ * see the openapi-* executions in pom.xml) instead of having springdoc
+ * scan the controllers at runtime.
+ *
+ * Both the JSON and its gzip are read once at startup; clients that accept
+ * gzip get the pre-compressed bytes, and the ETag (content hash) lets
+ * Swagger UI revalidate with a 304.
+ */
+@Hidden
+@RestController
+public class ApiDocsController {
+
+        private static final Logger logger = LoggerFactory.getLogger(ApiDocsController.class);
+
+        private static final String DOCUMENT = "openapi/wppgateway.json";
+
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+
+        public ApiDocsController() {
+                this.json = read(DOCUMENT);
+                this.gzip = read(DOCUMENT + ".gz");
+                this.etag = json != null ? etagOf(json) : null;
+
+                if (json == null) {
+                        logger.warn("OpenAPI document {} not on the classpath (built by mvn package); /v3/api-docs answers 404",
+                                        DOCUMENT);
+                }
+        }
+
+        @GetMapping("/v3/api-docs")
+        public ResponseEntity<?> apiDocs(
+                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+                if (json == null) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                                        "error", "api_docs_not_built",
+                                        "message", "OpenAPI document is generated by mvn package"));
+                }
+
+                if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                        .eTag(etag)
+                                        .cacheControl(CacheControl.noCache())
+                                        .build();
+                }
+
+                ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .eTag(etag)
+                                .cacheControl(CacheControl.noCache())
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+                // 🔹 Já comprimido no build: o Tomcat não recomprime respostas com Content-Encoding
+                if (gzip != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                        return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+                }
+                return ok.body(json);
+        }
+
+        private static byte[] read(String path) {
+                ClassPathResource resource = new ClassPathResource(path);
+                if (!resource.exists()) {
+                        return null;
+                }
+                try (InputStream in = resource.getInputStream()) {
+                        return in.readAllBytes();
+                } catch (IOException e) {
+                        logger.warn("Failed to read {}: {}", path, e.getMessage());
+                        return null;
+                }
+        }
+
+        private static String etagOf(byte[] content) {
+                try {
+                        byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+                        return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+                } catch (NoSuchAlgorithmException e) {
+                        throw new IllegalStateException(e);
+                }
+        }
+}
@@ -0,0 +1,101 @@
+package com.heureca.wppgateway.controller;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.heureca.wppgateway.config.OpenApiConfig;
+import com.heureca.wppgateway.model.WppBackend;
+import com.heureca.wppgateway.service.WppBackendDrainService;
+import com.heureca.wppgateway.service.WppBackendHealth;
+import com.heureca.wppgateway.service.WppBackendRegistry;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/admin/backends")
+@Tag(name = "Admin", description = "Administrative and bootstrap endpoints")
+@SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME)
+public class BackendAdminController {
+
+        private final WppBackendRegistry registry;
+        private final WppBackendHealth health;
+        private final WppBackendDrainService drainService;
+
+        public BackendAdminController(
+                        WppBackendRegistry registry,
+                        WppBackendHealth health,
+                        WppBackendDrainService drainService) {
+                this.registry = registry;
+                this.health = health;
+                this.drainService = drainService;
+        }
+
+        @Operation(summary = "WPPConnect backends", description = "Health, probe results, session counts and placement state of every backend.")
+        @GetMapping
+        public ResponseEntity<?> backends() {
+                return ResponseEntity.ok(health.snapshot());
+        }
+
+        @Operation(summary = "Drain a backend", description = """
+                        Stops placing new sessions on the backend and moves its sessions to the others,
+                        `batchSize` at a time (close here, start there, wait until CONNECTED).
+                        """)
+        @PostMapping("/{id}/drain")
+        public ResponseEntity<?> drain(
+                        @PathVariable String id,
+                        @RequestParam(defaultValue = "5") int batchSize) {
+
+                Optional<WppBackend> backend = registry.get(id);
+                if (backend.isEmpty()) {
+                        return notFound(id);
+                }
+
+                if (registry.all().size() < 2) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                                        "error", "no other backend to drain to",
+                                        "backend", id));
+                }
+
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                                .body(drainService.start(backend.get(), batchSize).snapshot());
+        }
+
+        @Operation(summary = "Drain progress", description = "Progress of the last drain of the backend.")
+        @GetMapping("/{id}/drain")
+        public ResponseEntity<?> drainStatus(@PathVariable String id) {
+                return drainService.get(id)
+                                .<ResponseEntity<?>>map(d -> ResponseEntity.ok(d.snapshot()))
+                                .orElseGet(() -> notFound(id));
+        }
+
+        @Operation(summary = "Stop draining", description = "Cancels a running drain after its current batch and lets the backend take new sessions again.")
+        @DeleteMapping("/{id}/drain")
+        public ResponseEntity<?> cancelDrain(@PathVariable String id) {
+
+                if (registry.get(id).isEmpty()) {
+                        return notFound(id);
+                }
+
+                return ResponseEntity.ok(drainService.cancel(id)
+                                .map(WppBackendDrainService.Drain::snapshot)
+                                .orElse(Map.of("backend", id, "phase", "NONE")));
+        }
+
+        private static ResponseEntity<?> notFound(String id) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                                "error", "backend not found",
+                                "backend", id));
+        }
+}
@@ -0,0 +1,46 @@
+package com.heureca.wppgateway.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.heureca.wppgateway.config.OpenApiConfig;
+import com.heureca.wppgateway.service.GatewayMembership;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/admin/cluster")
+@Tag(name = "Admin", description = "Administrative and bootstrap endpoints")
+@SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME)
+public class ClusterAdminController {
+
+        private final GatewayMembership membership;
+
+        public ClusterAdminController(GatewayMembership membership) {
+                this.membership = membership;
+        }
+
+        @Operation(summary = "Gateway replicas", description = "This replica, the live members of the ring and whether requests are being handed over.")
+        @GetMapping
+        public ResponseEntity<?> cluster() {
+                return ResponseEntity.ok(membership.snapshot());
+        }
+
+        @Operation(summary = "Session owner", description = "Replica that owns the session (keeps its in-memory state and polls its status).")
+        @GetMapping("/sessions/{session}/owner")
+        public ResponseEntity<?> owner(@PathVariable String session) {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("session", session);
+                body.put("owner", membership.ownerOf(session));
+                body.put("self", membership.nodeId());
+                return ResponseEntity.ok(body);
+        }
+}
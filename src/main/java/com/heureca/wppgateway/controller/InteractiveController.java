@@ -1,7 +1,5 @@
 package com.heureca.wppgateway.controller;
 
-import java.util.Map;
-
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -9,11 +7,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.heureca.wppgateway.config.OpenApiConfig;
+import com.heureca.wppgateway.dto.SendListRequest;
+import com.heureca.wppgateway.dto.SendPollRequest;
 import com.heureca.wppgateway.model.ApiClient;
-import com.heureca.wppgateway.model.SessionEntity;
-import com.heureca.wppgateway.repository.SessionRepository;
-import com.heureca.wppgateway.service.SessionUsageService;
-import com.heureca.wppgateway.service.UsageService;
+import com.heureca.wppgateway.service.SendPipeline;
 import com.heureca.wppgateway.service.WppService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -34,19 +31,11 @@ import jakarta.servlet.http.HttpServletRequest;
 @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME)
 public class InteractiveController {
 
-    private final UsageService usageService;
-    private final SessionUsageService sessionUsageService;
-    private final SessionRepository sessionRepository;
+    private final SendPipeline sendPipeline;
     private final WppService wppService;
 
-    public InteractiveController(
-            UsageService usageService,
-            SessionUsageService sessionUsageService,
-            SessionRepository sessionRepository,
-            WppService wppService) {
-        this.usageService = usageService;
-        this.sessionUsageService = sessionUsageService;
-        this.sessionRepository = sessionRepository;
+    public InteractiveController(SendPipeline sendPipeline, WppService wppService) {
+        this.sendPipeline = sendPipeline;
         this.wppService = wppService;
     }
 
@@ -102,10 +91,14 @@ public class InteractiveController {
                         }
                       ]
                     }
-                    """))) @RequestBody Map<String, Object> body,
+                    """))) @RequestBody SendListRequest body,
             HttpServletRequest request) {
 
-        return proxy(body, request, ProxyType.LIST);
+        ApiClient client = (ApiClient) request.getAttribute("apiClient");
+
+        // 🔹 Resposta do provider embrulhada em 200, como sempre foi neste controller
+        return sendPipeline.send(client, body,
+                ctx -> ResponseEntity.ok(wppService.sendListMessage(ctx.session(), ctx.token(), ctx.body())));
     }
 
     // =========================================================
@@ -146,89 +139,12 @@ public class InteractiveController {
                         "selectableCount": 1
                       }
                     }
-                    """))) @RequestBody Map<String, Object> body,
+                    """))) @RequestBody SendPollRequest body,
             HttpServletRequest request) {
 
-        return proxy(body, request, ProxyType.POLL);
-    }
-
-    // =========================================================
-    // CORE PROXY
-    // =========================================================
-
-    private ResponseEntity<?> proxy(
-            Map<String, Object> body,
-            HttpServletRequest request,
-            ProxyType type) {
-
         ApiClient client = (ApiClient) request.getAttribute("apiClient");
 
-        Object sessionObj = body.get("session");
-        if (sessionObj == null) {
-            return ResponseEntity.badRequest().body(Map.of(
-                    "error", "missing session in request body"));
-        }
-
-        String sessionName = sessionObj.toString();
-
-        ResponseEntity<?> validation = validateSession(sessionName, client);
-        if (!validation.getStatusCode().is2xxSuccessful()) {
-            return validation;
-        }
-
-        String token = (String) ((Map<?, ?>) validation.getBody()).get("token");
-
-        // 🔥 remove session before forwarding
-        body.remove("session");
-
-        ResponseEntity<?> response = switch (type) {
-            case LIST -> wppService.sendListMessage(sessionName, token, body);
-            case POLL -> wppService.sendPollMessage(sessionName, token, body);
-        };
-
-        usageService.increment(client.getApiKey(), 1);
-        sessionUsageService.recordUsage(sessionName);
-
-        return ResponseEntity.ok(response);
-    }
-
-    // =========================================================
-    // VALIDATION
-    // =========================================================
-
-    private ResponseEntity<?> validateSession(String sessionName, ApiClient client) {
-
-        var sessionOpt = sessionRepository.findBySessionName(sessionName);
-        if (sessionOpt.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of(
-                    "error", "session not found",
-                    "session", sessionName));
-        }
-
-        SessionEntity session = sessionOpt.get();
-
-        if (!session.getClientApiKey().equals(client.getApiKey())) {
-            return ResponseEntity.status(403).body(Map.of(
-                    "error", "session does not belong to client",
-                    "session", sessionName));
-        }
-
-        if (session.getWppToken() == null) {
-            return ResponseEntity.badRequest().body(Map.of(
-                    "error", "wpp token missing",
-                    "session", sessionName));
-        }
-
-        return ResponseEntity.ok(Map.of(
-                "token", session.getWppToken()));
-    }
-
-    // =========================================================
-    // INTERNAL
-    // =========================================================
-
-    private enum ProxyType {
-        LIST,
-        POLL
+        return sendPipeline.send(client, body,
+                ctx -> ResponseEntity.ok(wppService.sendPollMessage(ctx.session(), ctx.token(), ctx.body())));
     }
 }
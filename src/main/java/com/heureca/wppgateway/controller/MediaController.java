@@ -1,23 +1,14 @@
 package com.heureca.wppgateway.controller;
 
-import java.util.Base64;
-import java.util.Map;
-import java.util.Optional;
-
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.heureca.wppgateway.config.OpenApiConfig;
 import com.heureca.wppgateway.model.ApiClient;
-import com.heureca.wppgateway.model.SessionEntity;
-import com.heureca.wppgateway.repository.SessionRepository;
-import com.heureca.wppgateway.service.SessionUsageService;
-import com.heureca.wppgateway.service.UsageService;
+import com.heureca.wppgateway.service.SendPipeline;
 import com.heureca.wppgateway.service.WppService;
 import com.heureca.wppgateway.dto.*;
 
@@ -35,77 +26,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME)
 public class MediaController {
 
-    private static final Logger logger = LoggerFactory.getLogger(MediaController.class);
-
-    private final UsageService usageService;
-    private final SessionUsageService sessionUsageService;
-    private final SessionRepository sessionRepository;
+    private final SendPipeline sendPipeline;
     private final WppService wppService;
 
-    public MediaController(
-            UsageService usageService,
-            SessionUsageService sessionUsageService,
-            SessionRepository sessionRepository,
-            WppService wppService) {
-        this.usageService = usageService;
-        this.sessionUsageService = sessionUsageService;
-        this.sessionRepository = sessionRepository;
+    public MediaController(SendPipeline sendPipeline, WppService wppService) {
+        this.sendPipeline = sendPipeline;
         this.wppService = wppService;
     }
 
-    /*
-     * ==========================
-     * Common validations
-     * ==========================
-     */
-    private ResponseEntity<?> validateRequest(ApiClient client, String sessionName) {
-
-        Optional<SessionEntity> sessionOpt = sessionRepository.findBySessionName(sessionName);
-        if (sessionOpt.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of("error", "session not found"));
-        }
-
-        SessionEntity session = sessionOpt.get();
-
-        if (!client.getApiKey().equals(session.getClientApiKey())) {
-            return ResponseEntity.status(403).body(Map.of(
-                    "error", "session does not belong to client"));
-        }
-
-        int clientUsed = usageService.getUsageToday(client.getApiKey());
-        if (clientUsed + 1 > client.getDailyLimit()) {
-            return ResponseEntity.status(429).body(Map.of(
-                    "error", "client daily limit exceeded",
-                    "limit", client.getDailyLimit(),
-                    "used", clientUsed));
-        }
-
-        if (!sessionUsageService.canSendMessage(sessionName)) {
-            int sessionUsed = sessionUsageService.getUsageToday(sessionName);
-            return ResponseEntity.status(429).body(Map.of(
-                    "error", "session daily limit exceeded (anti-block protection)",
-                    "limit", 450,
-                    "used", sessionUsed,
-                    "session", sessionName));
-        }
-
-        if (session.getWppToken() == null) {
-            return ResponseEntity.badRequest().body(Map.of(
-                    "error", "wpp token missing for session"));
-        }
-
-        return ResponseEntity.ok(Map.of(
-                "token", session.getWppToken()));
-    }
-
-    private String extractSession(Map<String, Object> body) {
-        Object sessionObj = body.get("session");
-        if (sessionObj == null) {
-            throw new IllegalArgumentException("missing session in request body");
-        }
-        return sessionObj.toString();
-    }
-
     /*
      * ==========================
      * Send Image base64
@@ -140,26 +68,14 @@ public class MediaController {
                         "caption": "Hello",
                         "base64": "data:image/jpeg;base64,/9j/4AAQSkZJRgABAQAAAQABAAD/2wB"
                     }
-                    """))) @RequestBody Map<String, Object> body,
+                    """))) @RequestBody SendImageRequest body,
             HttpServletRequest request) {
 
         ApiClient client = (ApiClient) request.getAttribute("apiClient");
 
-        String session = extractSession(body);
-        ResponseEntity<?> validation = validateRequest(client, session);
-        if (!validation.getStatusCode().is2xxSuccessful()) {
-            return validation;
-        }
-
-        String token = (String) ((Map<?, ?>) validation.getBody()).get("token");
-        body.remove("session");
-
-        ResponseEntity<?> resp = wppService.sendImageBase64(session, token, body);
-
-        usageService.increment(client.getApiKey(), 1);
-        sessionUsageService.recordUsage(session);
-
-        return ResponseEntity.ok(resp);
+        // 🔹 Resposta do provider embrulhada em 200, como sempre foi neste controller
+        return sendPipeline.send(client, body,
+                ctx -> ResponseEntity.ok(wppService.sendImageBase64(ctx.session(), ctx.token(), ctx.body())));
     }
 
     /*
@@ -198,26 +114,13 @@ public class MediaController {
                         "caption": "caption for my file",
                         "base64": "data:application/pdf;base64,T2dnUwACAAAAAAAAAABdwLNHAAAAANYQEy..."
                     }
-                    """))) @RequestBody Map<String, Object> body,
+                    """))) @RequestBody SendFileRequest body,
             HttpServletRequest request) {
 
         ApiClient client = (ApiClient) request.getAttribute("apiClient");
 
-        String session = extractSession(body);
-        ResponseEntity<?> validation = validateRequest(client, session);
-        if (!validation.getStatusCode().is2xxSuccessful()) {
-            return validation;
-        }
-
-        String token = (String) ((Map<?, ?>) validation.getBody()).get("token");
-        body.remove("session");
-
-        ResponseEntity<?> resp = wppService.sendFileBase64(session, token, body);
-
-        usageService.increment(client.getApiKey(), 1);
-        sessionUsageService.recordUsage(session);
-
-        return ResponseEntity.ok(resp);
+        return sendPipeline.send(client, body,
+                ctx -> ResponseEntity.ok(wppService.sendFileBase64(ctx.session(), ctx.token(), ctx.body())));
     }
 
     /*
@@ -273,7 +176,7 @@ public class MediaController {
 
     //     ResponseEntity<?> resp = wppService.sendFile(session, token, body);
 
-    //     usageService.increment(client.getApiKey(), 1);
+    //     usageService.increment(client, 1);
     //     sessionUsageService.recordUsage(session);
 
     //     return ResponseEntity.ok(resp);
@@ -351,7 +254,7 @@ public class MediaController {
 
     //     ResponseEntity<?> resp = wppService.sendVoice(session, token, body);
 
-    //     usageService.increment(client.getApiKey(), 1);
+    //     usageService.increment(client, 1);
     //     sessionUsageService.recordUsage(session);
 
     //     return ResponseEntity.ok(resp);
@@ -427,7 +330,7 @@ public class MediaController {
 
     //     ResponseEntity<?> resp = wppService.sendVoiceBase64(session, token, body);
 
-    //     usageService.increment(client.getApiKey(), 1);
+    //     usageService.increment(client, 1);
     //     sessionUsageService.recordUsage(session);
 
     //     return ResponseEntity.ok(resp);
@@ -483,7 +386,7 @@ public class MediaController {
 
     //     ResponseEntity<?> resp = wppService.sendSticker(session, token, body);
 
-    //     usageService.increment(client.getApiKey(), 1);
+    //     usageService.increment(client, 1);
     //     sessionUsageService.recordUsage(session);
 
     //     return ResponseEntity.ok(resp);
@@ -525,41 +428,13 @@ public class MediaController {
                         "isGroup": true,
                         "path": "https://media.giphy.com/media/ICOgUNjpvO0PC/giphy.gif"
                     }
-                    """))) @RequestBody Map<String, Object> body,
+                    """))) @RequestBody SendStickerGifRequest body,
             HttpServletRequest request) {
 
         ApiClient client = (ApiClient) request.getAttribute("apiClient");
 
-        String session = extractSession(body);
-        ResponseEntity<?> validation = validateRequest(client, session);
-        if (!validation.getStatusCode().is2xxSuccessful()) {
-            return validation;
-        }
-
-        String token = (String) ((Map<?, ?>) validation.getBody()).get("token");
-        body.remove("session");
-
-        ResponseEntity<?> resp = wppService.sendStickerGif(session, token, body);
-
-        usageService.increment(client.getApiKey(), 1);
-        sessionUsageService.recordUsage(session);
-
-        return ResponseEntity.ok(resp);
+        return sendPipeline.send(client, body,
+                ctx -> ResponseEntity.ok(wppService.sendStickerGif(ctx.session(), ctx.token(), ctx.body())));
     }
 
-
-    /*
-     * ==========================
-     * Utils
-     * ==========================
-     */
-    private boolean isValidBase64(String base64) {
-        try {
-            String clean = base64.contains(",") ? base64.split(",")[1] : base64;
-            Base64.getDecoder().decode(clean);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
 }
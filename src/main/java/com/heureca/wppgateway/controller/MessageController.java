@@ -1,10 +1,5 @@
 package com.heureca.wppgateway.controller;
 
-import java.util.Map;
-import java.util.Optional;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -12,10 +7,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.heureca.wppgateway.config.OpenApiConfig;
+import com.heureca.wppgateway.dto.SendMessageRequest;
+import com.heureca.wppgateway.dto.SendSeenRequest;
 import com.heureca.wppgateway.model.ApiClient;
-import com.heureca.wppgateway.model.SessionEntity;
-import com.heureca.wppgateway.repository.SessionRepository;
-import com.heureca.wppgateway.service.SessionUsageService;
+import com.heureca.wppgateway.service.SendPipeline;
 import com.heureca.wppgateway.service.WppService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -34,18 +29,11 @@ import jakarta.servlet.http.HttpServletRequest;
 @SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME)
 public class MessageController {
 
-        private static final Logger logger = LoggerFactory.getLogger(MessageController.class);
-
-        private final SessionUsageService sessionUsageService;
-        private final SessionRepository sessionRepository;
+        private final SendPipeline sendPipeline;
         private final WppService wppService;
 
-        public MessageController(
-                        SessionUsageService sessionUsageService,
-                        SessionRepository sessionRepository,
-                        WppService wppService) {
-                this.sessionUsageService = sessionUsageService;
-                this.sessionRepository = sessionRepository;
+        public MessageController(SendPipeline sendPipeline, WppService wppService) {
+                this.sendPipeline = sendPipeline;
                 this.wppService = wppService;
         }
 
@@ -62,7 +50,7 @@ public class MessageController {
                         @ApiResponse(responseCode = "400", description = "Invalid request"),
                         @ApiResponse(responseCode = "403", description = "Session does not belong to client"),
                         @ApiResponse(responseCode = "409", description = "Session not ready"),
-                        @ApiResponse(responseCode = "429", description = "Session daily limit exceeded")
+                        @ApiResponse(responseCode = "429", description = "Client or session daily limit exceeded")
         })
         @PostMapping("/send-text")
         public ResponseEntity<?> sendMessage(
@@ -72,70 +60,14 @@ public class MessageController {
                                           "phone": "5521999998888",
                                           "message": "Hello! This message was sent via WPP Gateway 🚀"
                                         }
-                                        """))) @RequestBody Map<String, Object> body,
+                                        """))) @RequestBody SendMessageRequest body,
                         HttpServletRequest request) {
 
                 // 🔐 Client already validated by filter
                 ApiClient client = (ApiClient) request.getAttribute("apiClient");
 
-                // 1️⃣ Extract session (minimum validation we still need)
-                String sessionName = (String) body.get("session");
-                if (sessionName == null || sessionName.isBlank()) {
-                        return ResponseEntity.badRequest().body(Map.of(
-                                        "error", "missing session in request body"));
-                }
-
-                // 2️⃣ Validate session existence
-                Optional<SessionEntity> sessionOpt = sessionRepository.findBySessionName(sessionName);
-
-                if (sessionOpt.isEmpty()) {
-                        return ResponseEntity.badRequest().body(Map.of(
-                                        "error", "session not found",
-                                        "session", sessionName));
-                }
-
-                SessionEntity session = sessionOpt.get();
-
-                // 3️⃣ Validate ownership
-                if (!session.getClientApiKey().equals(client.getApiKey())) {
-                        return ResponseEntity.status(403).body(Map.of(
-                                        "error", "session does not belong to client",
-                                        "session", sessionName));
-                }
-
-                // 4️⃣ Anti-block protection (session-level)
-                if (!sessionUsageService.canSendMessage(sessionName)) {
-                        int used = sessionUsageService.getUsageToday(sessionName);
-                        return ResponseEntity.status(429).body(Map.of(
-                                        "error", "session daily limit exceeded (anti-block protection)",
-                                        "limit", 450,
-                                        "used", used,
-                                        "session", sessionName));
-                }
-
-                // 5️⃣ Validate token presence
-                if (session.getWppToken() == null) {
-                        return ResponseEntity.badRequest().body(Map.of(
-                                        "error", "wpp token missing for session",
-                                        "session", sessionName));
-                }
-
-                // 6️⃣ Forward AS-IS to WPPConnect
-                ResponseEntity<?> response = wppService.sendMessage(
-                                sessionName,
-                                session.getWppToken(),
-                                body);
-
-                // 7️⃣ Register usage (only after provider call)
-                sessionUsageService.recordUsage(sessionName);
-
-                logger.debug(
-                                "MESSAGE_FORWARD | client={} | session={}",
-                                client.getId(),
-                                sessionName);
-
-                // 🔥 Return provider response AS-IS
-                return response;
+                return sendPipeline.send(client, body,
+                                ctx -> wppService.sendMessage(ctx.session(), ctx.token(), ctx.body()));
         }
 
                 @Operation(summary = "Send a WhatsApp seen", description = """
@@ -151,7 +83,7 @@ public class MessageController {
                         @ApiResponse(responseCode = "400", description = "Invalid request"),
                         @ApiResponse(responseCode = "403", description = "Session does not belong to client"),
                         @ApiResponse(responseCode = "409", description = "Session not ready"),
-                        @ApiResponse(responseCode = "429", description = "Session daily limit exceeded")
+                        @ApiResponse(responseCode = "429", description = "Client or session daily limit exceeded")
         })
         @PostMapping("/send-seen")
         public ResponseEntity<?> sendSeen(
@@ -161,69 +93,13 @@ public class MessageController {
                                           "phone": "5521999998888",
                                           "isGroup": false
                                         }
-                                        """))) @RequestBody Map<String, Object> body,
+                                        """))) @RequestBody SendSeenRequest body,
                         HttpServletRequest request) {
 
                 // 🔐 Client already validated by filter
                 ApiClient client = (ApiClient) request.getAttribute("apiClient");
 
-                // 1️⃣ Extract session (minimum validation we still need)
-                String sessionName = (String) body.get("session");
-                if (sessionName == null || sessionName.isBlank()) {
-                        return ResponseEntity.badRequest().body(Map.of(
-                                        "error", "missing session in request body"));
-                }
-
-                // 2️⃣ Validate session existence
-                Optional<SessionEntity> sessionOpt = sessionRepository.findBySessionName(sessionName);
-
-                if (sessionOpt.isEmpty()) {
-                        return ResponseEntity.badRequest().body(Map.of(
-                                        "error", "session not found",
-                                        "session", sessionName));
-                }
-
-                SessionEntity session = sessionOpt.get();
-
-                // 3️⃣ Validate ownership
-                if (!session.getClientApiKey().equals(client.getApiKey())) {
-                        return ResponseEntity.status(403).body(Map.of(
-                                        "error", "session does not belong to client",
-                                        "session", sessionName));
-                }
-
-                // 4️⃣ Anti-block protection (session-level)
-                if (!sessionUsageService.canSendMessage(sessionName)) {
-                        int used = sessionUsageService.getUsageToday(sessionName);
-                        return ResponseEntity.status(429).body(Map.of(
-                                        "error", "session daily limit exceeded (anti-block protection)",
-                                        "limit", 450,
-                                        "used", used,
-                                        "session", sessionName));
-                }
-
-                // 5️⃣ Validate token presence
-                if (session.getWppToken() == null) {
-                        return ResponseEntity.badRequest().body(Map.of(
-                                        "error", "wpp token missing for session",
-                                        "session", sessionName));
-                }
-
-                // 6️⃣ Forward AS-IS to WPPConnect
-                ResponseEntity<?> response = wppService.sendSeen(
-                                sessionName,
-                                session.getWppToken(),
-                                body);
-
-                // 7️⃣ Register usage (only after provider call)
-                sessionUsageService.recordUsage(sessionName);
-
-                logger.debug(
-                                "MESSAGE_FORWARD | client={} | session={}",
-                                client.getId(),
-                                sessionName);
-
-                // 🔥 Return provider response AS-IS
-                return response;
+                return sendPipeline.receipt(client, body,
+                                ctx -> wppService.sendSeen(ctx.session(), ctx.token(), ctx.body()));
         }
 }
@@ -18,6 +18,7 @@ import com.heureca.wppgateway.repository.SessionRepository;
 import com.heureca.wppgateway.service.SessionUsageService;
 import com.heureca.wppgateway.service.UsageService;
 import com.heureca.wppgateway.service.WppService;
+import com.heureca.wppgateway.util.RequestTrace;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -118,7 +119,7 @@ public class MessageReceiveController {
 
                 ApiClient client = (ApiClient) request.getAttribute("apiClient");
 
-                Optional<SessionEntity> sessionOpt = sessionRepository.findBySessionName(sessionName);
+                Optional<SessionEntity> sessionOpt = RequestTrace.time("session", () -> sessionRepository.findBySessionName(sessionName));
                 if (sessionOpt.isEmpty()) {
                         return ResponseEntity.badRequest().body(Map.of(
                                         "error", "session not found",
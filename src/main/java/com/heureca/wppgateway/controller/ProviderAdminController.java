@@ -0,0 +1,52 @@
+package com.heureca.wppgateway.controller;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.heureca.wppgateway.config.OpenApiConfig;
+import com.heureca.wppgateway.service.ProviderResilience;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/admin/provider")
+@Tag(name = "Admin", description = "Administrative and bootstrap endpoints")
+@SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME)
+public class ProviderAdminController {
+
+        private final ProviderResilience resilience;
+
+        public ProviderAdminController(ProviderResilience resilience) {
+                this.resilience = resilience;
+        }
+
+        @Operation(summary = "Provider circuit breakers", description = "State of the per-backend and per-session circuit breakers and bulkheads.")
+        @GetMapping("/circuits")
+        public ResponseEntity<?> circuits() {
+                return ResponseEntity.ok(resilience.snapshot());
+        }
+
+        @Operation(summary = "Reset a circuit breaker", description = "Closes the breaker of a backend (by id) or of a session.")
+        @PostMapping("/circuits/{name}/reset")
+        public ResponseEntity<?> reset(@PathVariable String name) {
+
+                if (!resilience.reset(name)) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                                        "error", "circuit not found",
+                                        "name", name));
+                }
+
+                return ResponseEntity.ok(Map.of(
+                                "action", "circuit_reset",
+                                "name", name));
+        }
+}
@@ -1,14 +1,17 @@
 package com.heureca.wppgateway.controller;
 
+import java.io.IOException;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -17,16 +20,30 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.heureca.wppgateway.config.OpenApiConfig;
 import com.heureca.wppgateway.model.ApiClient;
 import com.heureca.wppgateway.model.ProviderSessionState;
+import com.heureca.wppgateway.model.QrCodeImage;
 import com.heureca.wppgateway.model.SessionEntity;
+import com.heureca.wppgateway.model.SessionStatusSnapshot;
 import com.heureca.wppgateway.repository.SessionRepository;
+import com.heureca.wppgateway.service.ProviderResilience;
+import com.heureca.wppgateway.service.QrCodeCache;
+import com.heureca.wppgateway.service.QrCodePushService;
+import com.heureca.wppgateway.service.SessionDirectory;
+import com.heureca.wppgateway.service.SessionStatusCache;
+import com.heureca.wppgateway.service.SessionStatusReconciler;
+import com.heureca.wppgateway.service.WppBackendRegistry;
 import com.heureca.wppgateway.service.WppService;
+import com.heureca.wppgateway.util.PhoneNumbers;
+import com.heureca.wppgateway.util.SessionNames;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -47,12 +64,33 @@ public class SessionController {
 
         private final WppService wppService;
         private final SessionRepository sessionRepository;
+        private final SessionStatusReconciler statusReconciler;
+        private final SessionStatusCache statusCache;
+        private final QrCodeCache qrCodeCache;
+        private final QrCodePushService qrCodePushService;
+        private final ProviderResilience providerResilience;
+        private final WppBackendRegistry backendRegistry;
+        private final SessionDirectory sessionDirectory;
 
         public SessionController(
                         WppService wppService,
-                        SessionRepository sessionRepository) {
+                        SessionRepository sessionRepository,
+                        SessionStatusReconciler statusReconciler,
+                        SessionStatusCache statusCache,
+                        QrCodeCache qrCodeCache,
+                        QrCodePushService qrCodePushService,
+                        ProviderResilience providerResilience,
+                        WppBackendRegistry backendRegistry,
+                        SessionDirectory sessionDirectory) {
                 this.wppService = wppService;
                 this.sessionRepository = sessionRepository;
+                this.statusReconciler = statusReconciler;
+                this.statusCache = statusCache;
+                this.qrCodeCache = qrCodeCache;
+                this.qrCodePushService = qrCodePushService;
+                this.providerResilience = providerResilience;
+                this.backendRegistry = backendRegistry;
+                this.sessionDirectory = sessionDirectory;
         }
 
         // =========================================================
@@ -78,7 +116,8 @@ public class SessionController {
                                         }
                                         """))),
                         @ApiResponse(responseCode = "400", description = "Invalid phone number"),
-                        @ApiResponse(responseCode = "403", description = "Phone already registered by another client")
+                        @ApiResponse(responseCode = "403", description = "Phone already registered by another client"),
+                        @ApiResponse(responseCode = "503", description = "No provider backend has capacity for a new session")
         })
         @PostMapping("/start-session")
         public ResponseEntity<?> startSession(
@@ -99,7 +138,7 @@ public class SessionController {
                                         "message", "phone is required"));
                 }
 
-                String cleanPhone = phoneObj.toString().replaceAll("\\D", "");
+                String cleanPhone = PhoneNumbers.digitsOnly(phoneObj.toString());
                 if (cleanPhone.length() < 10) {
                         return ResponseEntity.badRequest().body(Map.of(
                                         "error", "invalid_phone",
@@ -117,7 +156,7 @@ public class SessionController {
                         session = opt.get();
                 } else {
                         // 🔹 Criação implícita
-                        String sessionName = buildSessionName(client, cleanPhone);
+                        String sessionName = SessionNames.build(client.getApiKey(), cleanPhone);
 
                         session = new SessionEntity();
                         session.setClientApiKey(client.getApiKey());
@@ -125,7 +164,18 @@ public class SessionController {
                         session.setSessionName(sessionName);
                         session.setStatus("CREATED");
 
-                        sessionRepository.save(session);
+                        // 🔹 Backend WPPConnect com menos sessões ativas
+                        if (backendRegistry.place(session).isEmpty()) {
+                                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                                                "error", "no_backend_capacity",
+                                                "message", "all WhatsApp provider backends are at capacity"));
+                        }
+
+                        try {
+                                sessionRepository.save(session);
+                        } finally {
+                                backendRegistry.placementSaved(sessionName);
+                        }
 
                         Map<?, ?> tokenResp = wppService.generateWppToken(sessionName);
 
@@ -148,9 +198,15 @@ public class SessionController {
                                 session.getWppToken(),
                                 providerBody);
 
-                session.setStatus(
-                                Objects.toString(providerResp.getStatusCode(), "UNKNOWN"));
+                // 🔹 Estado real chega pelo reconciler (intervalo curto enquanto pareia)
+                ProviderSessionState state = providerResp.getStatusCode().is2xxSuccessful()
+                                ? ProviderSessionState.INITIALIZING
+                                : ProviderSessionState.UNKNOWN;
+
+                session.setStatus(state.name());
                 sessionRepository.save(session);
+                statusCache.put(session.getSessionName(), state, null);
+                sessionDirectory.evict(session.getSessionName());
 
                 return ResponseEntity.ok(Map.of(
                                 "session", session.getSessionName(),
@@ -158,28 +214,17 @@ public class SessionController {
                                 "provider", providerResp));
         }
 
-        private String buildSessionName(ApiClient client, String cleanPhone) {
-
-                String clientPrefix = Integer.toHexString(
-                                Math.abs(client.getApiKey().hashCode()));
-
-                // 🔥 sufixo único por sessão
-                String sessionId = UUID.randomUUID()
-                                .toString()
-                                .replace("-", "")
-                                .substring(0, 8);
-
-                return "wpp_" + clientPrefix + "_" + cleanPhone + "_" + sessionId;
-        }
-
         // =========================================================
-        // GET SESSION STATUS (PROXY - SOURCE OF TRUTH: WPPCONNECT)
+        // GET SESSION STATUS (CACHED - RECONCILED FROM WPPCONNECT)
         // =========================================================
 
         @Operation(summary = "Get WhatsApp session status", description = """
-                        Returns the real-time WhatsApp session status directly from the provider (WPPConnect).
+                        Returns the WhatsApp session status last reconciled from the provider (WPPConnect).
 
-                        This endpoint acts as a transparent proxy and does NOT rely on local database state.
+                        The gateway polls the provider in the background, so this endpoint answers from cache.
+                        - `state`: normalized state (INITIALIZING, QRCODE, CONNECTED, DISCONNECTED, NOT_FOUND, UNKNOWN)
+                        - `checkedAt` / `ageMs`: when the provider was last asked
+                        - `refresh=true` forces a live provider check
                         """)
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "Session status retrieved"),
@@ -190,7 +235,8 @@ public class SessionController {
         @GetMapping("/{session}/status-session")
         public ResponseEntity<?> getSessionStatus(
                         HttpServletRequest request,
-                        @PathVariable String session) {
+                        @PathVariable String session,
+                        @RequestParam(defaultValue = "false") boolean refresh) {
 
                 ApiClient client = (ApiClient) request.getAttribute("apiClient");
 
@@ -211,13 +257,17 @@ public class SessionController {
                 }
 
                 try {
-                        // 🔹 SOURCE OF TRUTH: WPPCONNECT
-                        Map<?, ?> providerResp = wppService.getSessionStatus(session, s.getWppToken());
+                        SessionStatusSnapshot snapshot = refresh
+                                        ? statusReconciler.refresh(s)
+                                        : statusReconciler.current(s);
 
-                        logger.debug("WPPCONNECT STATUS RESPONSE: {}", providerResp);
+                        Map<String, Object> body = new LinkedHashMap<>();
+                        snapshot.providerStatus().forEach((k, v) -> body.put(String.valueOf(k), v));
+                        body.put("state", snapshot.state());
+                        body.put("checkedAt", snapshot.checkedAt().toString());
+                        body.put("ageMs", snapshot.ageMillis());
 
-                        // 🔹 Gateway only forwards
-                        return ResponseEntity.ok(providerResp);
+                        return ResponseEntity.ok(body);
 
                 } catch (Exception e) {
                         logger.error("Failed to retrieve session status", e);
@@ -258,6 +308,11 @@ public class SessionController {
                 }
 
                 sessionRepository.delete(s);
+                statusCache.evict(s.getSessionName());
+                qrCodeCache.evict(s.getSessionName());
+                providerResilience.forget(s.getSessionName());
+                backendRegistry.forget(s.getSessionName());
+                sessionDirectory.evict(s.getSessionName());
 
                 return ResponseEntity.ok(Map.of(
                                 "action", "session_deleted",
@@ -335,9 +390,15 @@ public class SessionController {
                                 "session", session));
         }
 
-        @Operation(summary = "Get WhatsApp session QR Code (Base64)", description = "Returns the QR Code as a Base64-encoded PNG image.")
+        @Operation(summary = "Get WhatsApp session QR Code (Base64)", description = """
+                        Returns the QR Code as a Base64-encoded PNG image.
+
+                        The QR Code is cached for the provider rotation interval. Send the returned `ETag`
+                        in `If-None-Match` to get `304 Not Modified` while it has not changed.
+                        """)
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "QR Code Base64"),
+                        @ApiResponse(responseCode = "304", description = "QR Code unchanged since If-None-Match"),
                         @ApiResponse(responseCode = "403", description = "Session does not belong to client"),
                         @ApiResponse(responseCode = "404", description = "Session not found")
         })
@@ -349,7 +410,8 @@ public class SessionController {
         @GetMapping("/{session}/qrcode/base64")
         public ResponseEntity<?> getQrCodeBase64(
                         HttpServletRequest request,
-                        @PathVariable String session) {
+                        @PathVariable String session,
+                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
                 ApiClient client = (ApiClient) request.getAttribute("apiClient");
 
@@ -369,17 +431,25 @@ public class SessionController {
                 }
 
                 try {
-                        byte[] png = wppService.fetchQrCodeImage(
-                                        session,
-                                        s.getWppToken());
-
-                        return ResponseEntity.ok(Map.of(
-                                        "type", "image",
-                                        "format", "png",
-                                        "encoding", "base64",
-                                        "data", Base64.getEncoder().encodeToString(png),
-                                        "size_bytes", png.length,
-                                        "message", "Scan with WhatsApp"));
+                        QrCodeImage qr = qrCodeCache.get(session, s.getWppToken());
+
+                        if (qr.etag().equals(ifNoneMatch)) {
+                                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                                .eTag(qr.etag())
+                                                .cacheControl(CacheControl.noCache())
+                                                .build();
+                        }
+
+                        return ResponseEntity.ok()
+                                        .eTag(qr.etag())
+                                        .cacheControl(CacheControl.noCache())
+                                        .body(Map.of(
+                                                        "type", "image",
+                                                        "format", "png",
+                                                        "encoding", "base64",
+                                                        "data", Base64.getEncoder().encodeToString(qr.png()),
+                                                        "size_bytes", qr.png().length,
+                                                        "message", "Scan with WhatsApp"));
 
                 } catch (Exception e) {
                         logger.error("Failed to retrieve QRCode", e);
@@ -393,9 +463,14 @@ public class SessionController {
         // GET QR CODE (IMAGE)
         // =========================================================
 
-        @Operation(summary = "Get WhatsApp session QR Code (PNG)", description = "Returns the QR Code image for the session. Can be scanned directly.")
+        @Operation(summary = "Get WhatsApp session QR Code (PNG)", description = """
+                        Returns the QR Code image for the session. Can be scanned directly.
+
+                        Supports `If-None-Match` with the returned `ETag` (304 while unchanged).
+                        """)
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "QR Code image", content = @Content(mediaType = "image/png")),
+                        @ApiResponse(responseCode = "304", description = "QR Code unchanged since If-None-Match"),
                         @ApiResponse(responseCode = "403", description = "Session does not belong to client"),
                         @ApiResponse(responseCode = "404", description = "Session not found"),
                         @ApiResponse(responseCode = "424", description = "Failed to fetch QR Code from provider")
@@ -403,7 +478,8 @@ public class SessionController {
         @GetMapping(value = "/{session}/qrcode", produces = MediaType.IMAGE_PNG_VALUE)
         public ResponseEntity<?> getQrCodeImage(
                         HttpServletRequest request,
-                        @PathVariable String session) {
+                        @PathVariable String session,
+                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
                 ApiClient client = (ApiClient) request.getAttribute("apiClient");
 
@@ -423,13 +499,20 @@ public class SessionController {
                 }
 
                 try {
-                        byte[] png = wppService.fetchQrCodeImage(
-                                        session,
-                                        s.getWppToken());
+                        QrCodeImage qr = qrCodeCache.get(session, s.getWppToken());
+
+                        if (qr.etag().equals(ifNoneMatch)) {
+                                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                                .eTag(qr.etag())
+                                                .cacheControl(CacheControl.noCache())
+                                                .build();
+                        }
 
                         return ResponseEntity.ok()
                                         .contentType(MediaType.IMAGE_PNG)
-                                        .body(png);
+                                        .eTag(qr.etag())
+                                        .cacheControl(CacheControl.noCache())
+                                        .body(qr.png());
 
                 } catch (Exception e) {
                         logger.error("Failed to retrieve QRCode", e);
@@ -438,4 +521,63 @@ public class SessionController {
                                         "message", e.getMessage()));
                 }
         }
+
+        // =========================================================
+        // STREAM QR CODE (SSE)
+        // =========================================================
+
+        @Operation(summary = "Stream WhatsApp session QR Code (SSE)", description = """
+                        Server-Sent Events stream for pairing UIs, replacing QR Code polling.
+
+                        ### Events
+                        - `qrcode`: sent on subscribe and whenever the QR Code changes (`id` is the ETag)
+                        - `connected`: the session was paired; the stream then completes
+
+                        The stream times out after a while; EventSource clients reconnect automatically.
+                        """)
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Event stream", content = @Content(mediaType = "text/event-stream")),
+                        @ApiResponse(responseCode = "403", description = "Session does not belong to client"),
+                        @ApiResponse(responseCode = "404", description = "Session not found")
+        })
+        @GetMapping(value = "/{session}/qrcode/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public Object streamQrCode(
+                        HttpServletRequest request,
+                        @PathVariable String session) {
+
+                ApiClient client = (ApiClient) request.getAttribute("apiClient");
+
+                Optional<SessionEntity> opt = sessionRepository.findBySessionName(session);
+
+                if (opt.isEmpty()) {
+                        return sseError(404, Map.of(
+                                        "error", "session not found",
+                                        "session", session));
+                }
+
+                SessionEntity s = opt.get();
+
+                if (!s.getClientApiKey().equals(client.getApiKey())) {
+                        return sseError(403, Map.of(
+                                        "error", "session does not belong to client"));
+                }
+
+                return qrCodePushService.subscribe(session, s.getWppToken());
+        }
+
+        /**
+         * A JSON body cannot be written as text/event-stream: the error goes
+         * out as an {@code error} event, with the status kept so EventSource
+         * stops reconnecting.
+         */
+        private static ResponseEntity<SseEmitter> sseError(int status, Map<String, Object> body) {
+                SseEmitter emitter = new SseEmitter();
+                try {
+                        emitter.send(SseEmitter.event().name("error").data(body, MediaType.APPLICATION_JSON));
+                        emitter.complete();
+                } catch (IOException e) {
+                        emitter.completeWithError(e);
+                }
+                return ResponseEntity.status(status).body(emitter);
+        }
 }
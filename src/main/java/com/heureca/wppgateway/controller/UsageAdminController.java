@@ -0,0 +1,67 @@
+package com.heureca.wppgateway.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.heureca.wppgateway.config.OpenApiConfig;
+import com.heureca.wppgateway.repository.UsageCounterJdbcRepository.Counter;
+import com.heureca.wppgateway.service.SessionUsageService;
+import com.heureca.wppgateway.service.UsageHistoryService;
+import com.heureca.wppgateway.service.UsageService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/admin/usage")
+@Tag(name = "Admin", description = "Administrative and bootstrap endpoints")
+@SecurityRequirement(name = OpenApiConfig.SECURITY_SCHEME_NAME)
+public class UsageAdminController {
+
+        private final UsageHistoryService historyService;
+        private final UsageService usageService;
+        private final SessionUsageService sessionUsageService;
+
+        public UsageAdminController(
+                        UsageHistoryService historyService,
+                        UsageService usageService,
+                        SessionUsageService sessionUsageService) {
+                this.historyService = historyService;
+                this.usageService = usageService;
+                this.sessionUsageService = sessionUsageService;
+        }
+
+        @Operation(summary = "Client message usage", description = "Messages sent by the client today and per month (monthly rollups, current month as of the last rollup).")
+        @GetMapping("/clients/{apiKey}")
+        public ResponseEntity<?> client(
+                        @PathVariable String apiKey,
+                        @RequestParam(defaultValue = "12") int months) {
+
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("apiKey", apiKey);
+                body.put("today", usageService.getUsageToday(apiKey));
+                body.put("months", historyService.monthly(Counter.MESSAGE_USAGE, apiKey, months));
+                return ResponseEntity.ok(body);
+        }
+
+        @Operation(summary = "Session message usage", description = "Messages sent through the session today and per month (monthly rollups, current month as of the last rollup).")
+        @GetMapping("/sessions/{session}")
+        public ResponseEntity<?> session(
+                        @PathVariable String session,
+                        @RequestParam(defaultValue = "12") int months) {
+
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("session", session);
+                body.put("today", sessionUsageService.getUsageToday(session));
+                body.put("months", historyService.monthly(Counter.SESSION_USAGE, session, months));
+                return ResponseEntity.ok(body);
+        }
+}
@@ -0,0 +1,150 @@
+package com.heureca.wppgateway.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.heureca.wppgateway.model.ProviderSessionState;
+import com.heureca.wppgateway.model.SessionStatusSnapshot;
+import com.heureca.wppgateway.repository.SessionRepository;
+import com.heureca.wppgateway.service.QrCodeCache;
+import com.heureca.wppgateway.service.SessionStatusCache;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+/**
+ * Receives WPPConnect webhook events at {@code <gateway>/webhooks/wppconnect}
+ * and uses them to keep the session state and QR code caches fresh between
+ * polls.
+ *
+ * Authenticated by {@code gateway.webhook.secret}, never by the WPPConnect
+ * secret key (that one mints tokens for any session): either in the
+ * {@value #SECRET_HEADER} header or as {@value #SIGNATURE_HEADER}
+ * {@code sha256=<hex HMAC-SHA256 of the body>}. No secret configured = the
+ * endpoint answers 404.
+ */
+@RestController
+@RequestMapping("/webhooks/wppconnect")
+@Hidden
+public class WebhookController {
+
+        public static final String SECRET_HEADER = "X-Webhook-Secret";
+        public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+
+        private static final Logger logger = LoggerFactory.getLogger(WebhookController.class);
+
+        private final SessionStatusCache statusCache;
+        private final SessionRepository sessionRepository;
+        private final QrCodeCache qrCodeCache;
+        private final ObjectMapper objectMapper;
+        private final byte[] webhookSecret;
+
+        public WebhookController(
+                        SessionStatusCache statusCache,
+                        SessionRepository sessionRepository,
+                        QrCodeCache qrCodeCache,
+                        ObjectMapper objectMapper,
+                        @Value("${gateway.webhook.secret:}") String webhookSecret) {
+                this.statusCache = statusCache;
+                this.sessionRepository = sessionRepository;
+                this.qrCodeCache = qrCodeCache;
+                this.objectMapper = objectMapper;
+                this.webhookSecret = webhookSecret.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @PostMapping
+        public ResponseEntity<?> receive(
+                        @RequestHeader(name = SECRET_HEADER, required = false) String secret,
+                        @RequestHeader(name = SIGNATURE_HEADER, required = false) String signature,
+                        @RequestBody byte[] raw) {
+
+                if (webhookSecret.length == 0) {
+                        return ResponseEntity.notFound().build();
+                }
+
+                if (!authenticated(secret, signature, raw)) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+                }
+
+                Map<?, ?> body;
+                try {
+                        body = objectMapper.readValue(raw, Map.class);
+                } catch (Exception e) {
+                        return ResponseEntity.badRequest().body(Map.of("error", "invalid webhook body"));
+                }
+
+                String event = Objects.toString(body.get("event"), "");
+                String sessionName = Objects.toString(body.get("session"), null);
+
+                if (sessionName == null) {
+                        return ResponseEntity.ok(Map.of("received", true));
+                }
+
+                ProviderSessionState state = switch (event) {
+                        case "status-find" -> ProviderSessionState.fromStatusFind(
+                                        Objects.toString(body.get("status"), null));
+                        case "qrcode" -> ProviderSessionState.QRCODE;
+                        default -> ProviderSessionState.UNKNOWN;
+                };
+
+                // 🔹 QR novo chega pronto no webhook: sem ida ao provider
+                if ("qrcode".equals(event)) {
+                        qrCodeCache.putFromProvider(sessionName, Objects.toString(body.get("qrcode"), null));
+                }
+
+                if (state != ProviderSessionState.UNKNOWN) {
+                        ProviderSessionState previous = statusCache.get(sessionName)
+                                        .map(SessionStatusSnapshot::state)
+                                        .orElse(null);
+
+                        statusCache.put(sessionName, state, Map.of("status", state.name(), "event", event));
+
+                        if (previous != state) {
+                                sessionRepository.updateStatus(sessionName, state.name());
+                                logger.debug("SESSION STATE FROM WEBHOOK | session={} | event={} | state={}",
+                                                sessionName, event, state);
+                        }
+                }
+
+                return ResponseEntity.ok(Map.of("received", true));
+        }
+
+        private boolean authenticated(String secret, String signature, byte[] raw) {
+                if (secret != null) {
+                        return MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8), webhookSecret);
+                }
+
+                if (signature == null || !signature.startsWith("sha256=")) {
+                        return false;
+                }
+
+                try {
+                        Mac mac = Mac.getInstance("HmacSHA256");
+                        mac.init(new SecretKeySpec(webhookSecret, "HmacSHA256"));
+                        byte[] expected = HexFormat.of().formatHex(mac.doFinal(raw)).getBytes(StandardCharsets.UTF_8);
+                        byte[] received = signature.substring("sha256=".length()).toLowerCase()
+                                        .getBytes(StandardCharsets.UTF_8);
+                        return MessageDigest.isEqual(received, expected);
+                } catch (GeneralSecurityException e) {
+                        throw new IllegalStateException(e);
+                }
+        }
+}
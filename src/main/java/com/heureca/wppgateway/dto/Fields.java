@@ -0,0 +1,28 @@
+package com.heureca.wppgateway.dto;
+
+import java.util.Collection;
+
+import com.heureca.wppgateway.exception.InvalidRequestException;
+
+/**
+ * Checks the send DTOs run in their compact constructors: the body is
+ * validated once, while Jackson binds it, without a reflective validator
+ * walking the object graph afterwards.
+ */
+final class Fields {
+
+    private Fields() {
+    }
+
+    static void required(String value, String field, String message) {
+        if (value == null || value.isBlank()) {
+            throw new InvalidRequestException(field, message);
+        }
+    }
+
+    static void notEmpty(Collection<?> value, String field, String message) {
+        if (value == null || value.isEmpty()) {
+            throw new InvalidRequestException(field, message);
+        }
+    }
+}
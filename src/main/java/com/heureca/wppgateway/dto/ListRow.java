@@ -1,21 +1,22 @@
 package com.heureca.wppgateway.dto;
 
-import jakarta.validation.constraints.NotBlank;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class ListRow {
+import io.swagger.v3.oas.annotations.media.Schema;
 
-    @NotBlank(message = "Row ID is required")
-    private String rowId;
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ListRow(
 
-    @NotBlank(message = "Row title is required")
-    private String title;
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        String rowId,
 
-    private String description;
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        String title,
 
-}
\ No newline at end of file
+        String description) {
+
+    public ListRow {
+        Fields.required(rowId, "sections.rows.rowId", "Row ID is required");
+        Fields.required(title, "sections.rows.title", "Row title is required");
+    }
+}
@@ -2,23 +2,18 @@ package com.heureca.wppgateway.dto;
 
 import java.util.List;
 
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import io.swagger.v3.oas.annotations.media.Schema;
 
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class ListSection {
+public record ListSection(
 
-    @NotBlank(message = "Section title is required")
-    private String title;
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        String title,
 
-    @NotNull(message = "Rows cannot be null")
-    @Size(min = 1, message = "At least one row is required")
-    private List<ListRow> rows;
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        List<ListRow> rows) {
 
-}
\ No newline at end of file
+    public ListSection {
+        Fields.required(title, "sections.title", "Section title is required");
+        Fields.notEmpty(rows, "sections.rows", "At least one row is required");
+    }
+}
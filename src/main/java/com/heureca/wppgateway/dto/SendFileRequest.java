@@ -1,18 +1,37 @@
 package com.heureca.wppgateway.dto;
 
-import jakarta.validation.constraints.NotBlank;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class SendFileRequest extends SendMediaRequest {
-    @NotBlank(message = "Base64 file is required")
-    private String base64;
+import io.swagger.v3.oas.annotations.media.Schema;
 
-    @NotBlank(message = "Filename is required")
-    private String filename;
+/**
+ * POST /api/media/send-file → WPPConnect send-file-base64.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "SendFileRequest", description = "Document sent as base64 (data URI)")
+public record SendFileRequest(
 
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "my-session")
+        @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+        String session,
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "5521999999999")
+        String phone,
+
+        @JsonProperty("isGroup") Boolean isGroup,
+        @JsonProperty("isNewsletter") Boolean isNewsletter,
+        @JsonProperty("isLid") Boolean isLid,
+
+        String filename,
+        String caption,
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        String base64) implements SendRequest {
+
+    public SendFileRequest {
+        Fields.required(session, "session", "missing session in request body");
+        Fields.required(phone, "phone", "Phone is required");
+        Fields.required(base64, "base64", "Base64 file is required");
+    }
 }
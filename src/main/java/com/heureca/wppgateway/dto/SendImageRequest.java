@@ -1,16 +1,37 @@
 package com.heureca.wppgateway.dto;
 
-import jakarta.validation.constraints.NotBlank;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class SendImageRequest extends SendMediaRequest {
-    @NotBlank(message = "Base64 image is required")
-    private String base64;
-
-    private String filename = "image.jpg";
-}
\ No newline at end of file
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * POST /api/media/send-image → WPPConnect send-image.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "SendImageRequest", description = "Image sent as base64 (data URI)")
+public record SendImageRequest(
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "my-session")
+        @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+        String session,
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "5521999999999")
+        String phone,
+
+        @JsonProperty("isGroup") Boolean isGroup,
+        @JsonProperty("isNewsletter") Boolean isNewsletter,
+        @JsonProperty("isLid") Boolean isLid,
+
+        String filename,
+        String caption,
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        String base64) implements SendRequest {
+
+    public SendImageRequest {
+        Fields.required(session, "session", "missing session in request body");
+        Fields.required(phone, "phone", "Phone is required");
+        Fields.required(base64, "base64", "Base64 image is required");
+    }
+}
@@ -2,33 +2,40 @@ package com.heureca.wppgateway.dto;
 
 import java.util.List;
 
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class SendListRequest {
+import io.swagger.v3.oas.annotations.media.Schema;
 
-    @NotBlank(message = "Session is required")
-    private String session;
+/**
+ * POST /api/interactive/send-list → WPPConnect send-list-message.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "SendListRequest", description = "Interactive list message")
+public record SendListRequest(
 
-    @NotBlank(message = "Phone is required")
-    private String phone;
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "my-session")
+        @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+        String session,
 
-    private boolean isGroup = false;
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "552199999999")
+        String phone,
 
-    @NotBlank(message = "Button text is required")
-    private String buttonText;
+        @JsonProperty("isGroup") Boolean isGroup,
 
-    private String description;
+        String description,
 
-    @NotNull(message = "Sections cannot be null")
-    @Size(min = 1, message = "At least one section is required")
-    private List<ListSection> sections;
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        String buttonText,
 
-}
\ No newline at end of file
+        // 🔹 Seções e linhas se validam no próprio construtor, durante o bind
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        List<ListSection> sections) implements SendRequest {
+
+    public SendListRequest {
+        Fields.required(session, "session", "missing session in request body");
+        Fields.required(phone, "phone", "Phone is required");
+        Fields.required(buttonText, "buttonText", "Button text is required");
+        Fields.notEmpty(sections, "sections", "At least one section is required");
+    }
+}
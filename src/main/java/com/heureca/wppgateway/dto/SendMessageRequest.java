@@ -1,16 +1,39 @@
 package com.heureca.wppgateway.dto;
 
-import jakarta.validation.constraints.NotBlank;
-import lombok.Data;
+import java.util.Map;
 
-@Data
-public class SendMessageRequest {
-    @NotBlank(message = "Session name is required")
-    private String session;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
-    @NotBlank(message = "Recipient phone is required")
-    private String to;
+import io.swagger.v3.oas.annotations.media.Schema;
 
-    @NotBlank(message = "Message is required")
-    private String message;
-}
\ No newline at end of file
+/**
+ * POST /api/messages/send-text → WPPConnect send-message.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "SendMessageRequest", description = "Text message sent through a session")
+public record SendMessageRequest(
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "my-session-01")
+        @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+        String session,
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "5521999998888")
+        String phone,
+
+        @JsonProperty("isGroup") Boolean isGroup,
+        @JsonProperty("isNewsletter") Boolean isNewsletter,
+        @JsonProperty("isLid") Boolean isLid,
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        String message,
+
+        // 🔹 Opções do WPPConnect (quotedMsg, mentionedList, ...), repassadas como vieram
+        Map<String, Object> options) implements SendRequest {
+
+    public SendMessageRequest {
+        Fields.required(session, "session", "missing session in request body");
+        Fields.required(phone, "phone", "Phone is required");
+        Fields.required(message, "message", "Message is required");
+    }
+}
@@ -1,76 +1,59 @@
 package com.heureca.wppgateway.dto;
 
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
 import java.util.List;
-import java.util.Map;
 
-public class SendPollRequest {
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.heureca.wppgateway.exception.InvalidRequestException;
 
-    @NotBlank(message = "Session is required")
-    private String session;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
 
-    @NotBlank(message = "Phone is required")
-    private String phone;
+/**
+ * POST /api/interactive/send-poll → WPPConnect send-poll-message.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "SendPollRequest", description = "Poll message")
+public record SendPollRequest(
 
-    private boolean isGroup = false;
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "my-session")
+        @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+        String session,
 
-    @NotBlank(message = "Poll name is required")
-    private String name;
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "552199999999")
+        String phone,
 
-    @NotNull(message = "Choices cannot be null")
-    @Size(min = 2, max = 12, message = "2-12 choices required") // WhatsApp max 12 options
-    private List<String> choices;
+        @JsonProperty("isGroup") Boolean isGroup,
 
-    private Map<String, Object> options; // ex: {"selectableCount": 1}
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        String name,
 
-    // Getters e Setters
-    public String getSession() {
-        return session;
-    }
-
-    public void setSession(String session) {
-        this.session = session;
-    }
-
-    public String getPhone() {
-        return phone;
-    }
-
-    public void setPhone(String phone) {
-        this.phone = phone;
-    }
-
-    public boolean isGroup() {
-        return isGroup;
-    }
-
-    public void setGroup(boolean group) {
-        isGroup = group;
-    }
-
-    public String getName() {
-        return name;
-    }
+        @ArraySchema(minItems = 2, maxItems = 12, arraySchema = @Schema(requiredMode = Schema.RequiredMode.REQUIRED))
+        List<String> choices,
 
-    public void setName(String name) {
-        this.name = name;
-    }
+        Options options) implements SendRequest {
 
-    public List<String> getChoices() {
-        return choices;
-    }
+    public SendPollRequest {
+        Fields.required(session, "session", "missing session in request body");
+        Fields.required(phone, "phone", "Phone is required");
+        Fields.required(name, "name", "Poll name is required");
 
-    public void setChoices(List<String> choices) {
-        this.choices = choices;
+        // WhatsApp max 12 options
+        if (choices == null || choices.size() < 2 || choices.size() > 12) {
+            throw new InvalidRequestException("choices", "2-12 choices required");
+        }
+        for (String choice : choices) {
+            Fields.required(choice, "choices", "Choices cannot be blank");
+        }
     }
 
-    public Map<String, Object> getOptions() {
-        return options;
-    }
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Options(Integer selectableCount) {
 
-    public void setOptions(Map<String, Object> options) {
-        this.options = options;
+        public Options {
+            if (selectableCount != null && selectableCount < 1) {
+                throw new InvalidRequestException("options.selectableCount", "selectableCount must be positive");
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.heureca.wppgateway.dto;
+
+/**
+ * Body of a send endpoint: the gateway session it goes through plus the
+ * WPPConnect payload. Implementations are records whose JSON form (without
+ * {@code session}, which is write-only) is exactly what gets forwarded.
+ */
+public interface SendRequest {
+
+    String session();
+}
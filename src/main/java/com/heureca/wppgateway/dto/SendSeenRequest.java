@@ -0,0 +1,28 @@
+package com.heureca.wppgateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * POST /api/messages/send-seen → WPPConnect send-seen.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "SendSeenRequest", description = "Marks a chat as seen")
+public record SendSeenRequest(
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "my-session-01")
+        @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+        String session,
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "5521999998888")
+        String phone,
+
+        @JsonProperty("isGroup") Boolean isGroup) implements SendRequest {
+
+    public SendSeenRequest {
+        Fields.required(session, "session", "missing session in request body");
+        Fields.required(phone, "phone", "Phone is required");
+    }
+}
@@ -0,0 +1,32 @@
+package com.heureca.wppgateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * POST /api/media/send-sticker-gif → WPPConnect send-sticker-gif.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "SendStickerGifRequest", description = "Animated sticker from a GIF path or URL")
+public record SendStickerGifRequest(
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "my-session")
+        @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+        String session,
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED, example = "5521999999999")
+        String phone,
+
+        @JsonProperty("isGroup") Boolean isGroup,
+
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        String path) implements SendRequest {
+
+    public SendStickerGifRequest {
+        Fields.required(session, "session", "missing session in request body");
+        Fields.required(phone, "phone", "Phone is required");
+        Fields.required(path, "path", "Path is required");
+    }
+}
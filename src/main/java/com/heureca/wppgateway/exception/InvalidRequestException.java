@@ -0,0 +1,15 @@
+package com.heureca.wppgateway.exception;
+
+public class InvalidRequestException extends RuntimeException {
+
+    private final String field;
+
+    public InvalidRequestException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
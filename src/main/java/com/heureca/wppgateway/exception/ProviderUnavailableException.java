@@ -0,0 +1,21 @@
+package com.heureca.wppgateway.exception;
+
+public class ProviderUnavailableException extends RuntimeException {
+
+    private final String reason;
+    private final long retryAfterMs;
+
+    public ProviderUnavailableException(String reason, String message, long retryAfterMs) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
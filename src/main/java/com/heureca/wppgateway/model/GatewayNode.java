@@ -0,0 +1,32 @@
+package com.heureca.wppgateway.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * A running gateway replica, kept alive by its own heartbeat.
+ */
+@Entity
+@Table(name = "gateway_node")
+@Data
+public class GatewayNode {
+
+    @Id
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    // 🔹 URL pela qual as outras réplicas alcançam esta (ex.: http://10.42.0.17:8081)
+    @Column(name = "address", nullable = false)
+    private String address;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
@@ -0,0 +1,66 @@
+package com.heureca.wppgateway.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Response stored for an {@code Idempotency-Key}, replayed to duplicates.
+ * While the first request is still running the row is a claim with
+ * {@link #PENDING} as status and no body.
+ */
+@Entity
+@Table(
+    name = "idempotency_record",
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "UK_idempotency_client_key",
+            columnNames = { "client_api_key", "idempotency_key" }
+        )
+    }
+)
+@Data
+public class IdempotencyRecord {
+
+    public static final int PENDING = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "client_api_key", nullable = false)
+    private String clientApiKey;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Lob
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Transient
+    public boolean isPending() {
+        return statusCode == PENDING;
+    }
+}
@@ -5,12 +5,19 @@ import java.time.LocalDate;
 import lombok.Data;
 
 @Entity
-@Table(name = "message_usage")
+@Table(
+    name = "message_usage",
+    uniqueConstraints = @UniqueConstraint(
+        name = "UK_message_usage_client_date",
+        columnNames = { "client_api_key", "date" }
+    )
+)
 @Data
 public class MessageUsage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Column(name = "client_api_key")
     private String clientApiKey;
     private LocalDate date;
     private int count;
@@ -1,10 +1,58 @@
 package com.heureca.wppgateway.model;
 
+import java.util.Map;
+import java.util.Objects;
+
 public enum ProviderSessionState {
     INITIALIZING,
     QRCODE,
     CONNECTED,
     DISCONNECTED,
     NOT_FOUND,
-    UNKNOWN
+    UNKNOWN;
+
+    /**
+     * Normalizes the body returned by WPPConnect {@code status-session}
+     * (including the error map built by {@code WppService.getSessionStatus}).
+     */
+    public static ProviderSessionState fromProviderStatus(Map<?, ?> status) {
+        if (status == null) {
+            return UNKNOWN;
+        }
+
+        String s = Objects.toString(status.get("status"), "");
+
+        if ("error".equalsIgnoreCase(s)) {
+            return "404".equals(Objects.toString(status.get("provider_status"), ""))
+                    ? NOT_FOUND
+                    : UNKNOWN;
+        }
+
+        return fromStatus(s);
+    }
+
+    /**
+     * Normalizes the {@code status} of a WPPConnect {@code status-find}
+     * webhook event. Returns UNKNOWN for events that say nothing about the
+     * connection.
+     */
+    public static ProviderSessionState fromStatusFind(String status) {
+        return fromStatus(status);
+    }
+
+    // 🔹 Uma tabela só: webhook e polling precisam concordar sobre o mesmo estado do provider
+    private static ProviderSessionState fromStatus(String status) {
+        return switch (Objects.toString(status, "").toLowerCase()) {
+            case "connected", "inchat", "islogged", "qrreadsuccess", "chatsavailable", "successchat" -> CONNECTED;
+            // notLogged: sem login salvo, o provider espera a leitura do QR
+            case "qrcode", "notlogged" -> QRCODE;
+            case "initializing", "initbrowser", "openbrowser", "initwhatsapp", "successpagewhatsapp",
+                    "waitforlogin", "waitchat" ->
+                INITIALIZING;
+            case "disconnected", "closed", "browserclose", "qrreadfail", "autoclosecalled", "desconnectedmobile",
+                    "deletetoken", "serverclose", "devicenotconnected" ->
+                DISCONNECTED;
+            default -> UNKNOWN;
+        };
+    }
 }
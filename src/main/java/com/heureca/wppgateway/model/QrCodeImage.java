@@ -0,0 +1,18 @@
+package com.heureca.wppgateway.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Latest QR code PNG known for a session, with a content hash used as ETag.
+ */
+public record QrCodeImage(
+        String sessionName,
+        byte[] png,
+        String etag,
+        Instant fetchedAt) {
+
+    public long ageMillis() {
+        return Duration.between(fetchedAt, Instant.now()).toMillis();
+    }
+}
@@ -0,0 +1,11 @@
+package com.heureca.wppgateway.model;
+
+/**
+ * Daily counters leased in blocks by {@code QuotaLeaseService}, and the
+ * row each one lives in.
+ */
+public enum QuotaKind {
+    CLIENT_REQUESTS,   // api_client.daily_usage (daily_limit)
+    CLIENT_MESSAGES,   // message_usage (daily_limit)
+    SESSION_MESSAGES   // session_usage (anti-block, 450/dia)
+}
@@ -73,6 +73,14 @@ public class SessionEntity {
     )
     private String wppToken;
 
+    @Column(name = "wpp_backend", length = 64)
+    @Schema(
+        description = "WPPConnect backend hosting this session (null = default backend)",
+        example = "node-a",
+        accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private String backend;
+
     @Column(name = "created_at")
     @Schema(
         description = "Session creation timestamp",
@@ -0,0 +1,12 @@
+package com.heureca.wppgateway.model;
+
+/**
+ * What the send path needs from a session row, detached from JPA so it can
+ * be cached and read by many request threads at once.
+ */
+public record SessionRoute(
+        String sessionName,
+        String clientApiKey,
+        String wppToken,
+        String backend) {
+}
@@ -0,0 +1,19 @@
+package com.heureca.wppgateway.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Last known provider state of a session, as seen by the reconciler.
+ */
+public record SessionStatusSnapshot(
+        String sessionName,
+        ProviderSessionState state,
+        Map<?, ?> providerStatus,
+        Instant checkedAt) {
+
+    public long ageMillis() {
+        return Duration.between(checkedAt, Instant.now()).toMillis();
+    }
+}
@@ -10,7 +10,13 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
-@Table(name = "session_usage")
+@Table(
+    name = "session_usage",
+    uniqueConstraints = @UniqueConstraint(
+        name = "UK_session_usage_session_date",
+        columnNames = { "session_name", "date" }
+    )
+)
 @Data
 public class SessionUsage {
     @Id
@@ -0,0 +1,14 @@
+package com.heureca.wppgateway.model;
+
+/**
+ * One WPPConnect instance sessions can be placed on ({@code wpp.backends}).
+ */
+public record WppBackend(String id, String baseUrl) {
+
+    /**
+     * {@code <baseUrl>/api/<session>/<path>}
+     */
+    public String url(String sessionName, String path) {
+        return baseUrl + "/api/" + sessionName + "/" + path;
+    }
+}
@@ -0,0 +1,106 @@
+package com.heureca.wppgateway.repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.model.ClientSource;
+
+/**
+ * Per-request reads and quota writes on {@code api_client} as plain
+ * prepared statements: no persistence context, no dirty checking. The
+ * {@link ApiClient} returned is a detached snapshot of the row; admin flows
+ * that change a client keep using {@link ApiClientRepository}.
+ */
+@Repository
+public class ApiClientJdbcRepository {
+
+    private static final String COLUMNS =
+            "id, api_key, name, daily_limit, daily_usage, source, created_at, last_reset";
+
+    private static final RowMapper<ApiClient> CLIENT = ApiClientJdbcRepository::mapClient;
+
+    private final JdbcTemplate jdbc;
+
+    public ApiClientJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Optional<ApiClient> findByApiKey(String apiKey) {
+        return first(jdbc.query("SELECT " + COLUMNS + " FROM api_client WHERE api_key = ?", CLIENT, apiKey));
+    }
+
+    public Optional<ApiClient> findByApiKeyAndSource(String apiKey, ClientSource source) {
+        return first(jdbc.query("SELECT " + COLUMNS + " FROM api_client WHERE api_key = ? AND source = ?",
+                CLIENT, apiKey, source.name()));
+    }
+
+    /**
+     * SELECT ... FOR UPDATE of the client's counter for {@code day}: 0 when
+     * the row was last reset on another day. Empty when the key does not
+     * exist. Must run inside a transaction.
+     */
+    public OptionalLong lockDailyUsage(String apiKey, LocalDate day) {
+        List<Long> usage = jdbc.query(
+                "SELECT daily_usage, last_reset FROM api_client WHERE api_key = ? FOR UPDATE",
+                (rs, i) -> day.equals(localDate(rs, "last_reset")) ? rs.getLong("daily_usage") : 0L,
+                apiKey);
+        return usage.isEmpty() ? OptionalLong.empty() : OptionalLong.of(usage.get(0));
+    }
+
+    /**
+     * Sets the counter and moves {@code last_reset} to {@code day}.
+     */
+    public int setDailyUsage(String apiKey, LocalDate day, long usage) {
+        return jdbc.update("UPDATE api_client SET daily_usage = ?, last_reset = ? WHERE api_key = ?",
+                usage, Date.valueOf(day), apiKey);
+    }
+
+    /**
+     * Adds {@code delta} (negative to give units back, never below 0) when
+     * the counter is still the one of {@code day}.
+     */
+    public int addDailyUsage(String apiKey, LocalDate day, long delta) {
+        return jdbc.update("UPDATE api_client SET daily_usage = GREATEST(COALESCE(daily_usage, 0) + ?, 0) "
+                + "WHERE api_key = ? AND last_reset = ?", delta, apiKey, Date.valueOf(day));
+    }
+
+    public long countDailyUsage(String apiKey, LocalDate day) {
+        List<Long> usage = jdbc.query("SELECT daily_usage FROM api_client WHERE api_key = ? AND last_reset = ?",
+                (rs, i) -> rs.getLong(1), apiKey, Date.valueOf(day));
+        return usage.isEmpty() ? 0 : usage.get(0);
+    }
+
+    private static ApiClient mapClient(ResultSet rs, int row) throws SQLException {
+        ApiClient client = new ApiClient();
+        client.setId(rs.getLong("id"));
+        client.setApiKey(rs.getString("api_key"));
+        client.setName(rs.getString("name"));
+        client.setDailyLimit(rs.getObject("daily_limit", Long.class));
+        client.setDailyUsage(rs.getObject("daily_usage", Long.class));
+        client.setSource(ClientSource.valueOf(rs.getString("source")));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        client.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        client.setLastReset(localDate(rs, "last_reset"));
+        return client;
+    }
+
+    private static LocalDate localDate(ResultSet rs, String column) throws SQLException {
+        Date date = rs.getDate(column);
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private static <T> Optional<T> first(List<T> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+}
@@ -0,0 +1,29 @@
+package com.heureca.wppgateway.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.heureca.wppgateway.model.GatewayNode;
+
+public interface GatewayNodeRepository extends JpaRepository<GatewayNode, String> {
+
+    // Réplicas com heartbeat recente
+    List<GatewayNode> findByHeartbeatAtAfter(LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE GatewayNode n SET n.heartbeatAt = :now, n.address = :address WHERE n.nodeId = :nodeId")
+    int heartbeat(@Param("nodeId") String nodeId, @Param("address") String address, @Param("now") LocalDateTime now);
+
+    // Remove réplicas mortas há muito tempo
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GatewayNode n WHERE n.heartbeatAt < :cutoff")
+    int deleteStale(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,55 @@
+package com.heureca.wppgateway.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.heureca.wppgateway.model.IdempotencyRecord;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByClientApiKeyAndIdempotencyKey(String clientApiKey, String idempotencyKey);
+
+    // Grava a resposta na linha reservada por begin()
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :status, r.contentType = :contentType, "
+            + "r.responseBody = :body WHERE r.clientApiKey = :client AND r.idempotencyKey = :key "
+            + "AND r.statusCode = " + IdempotencyRecord.PENDING)
+    int complete(
+            @Param("client") String clientApiKey,
+            @Param("key") String idempotencyKey,
+            @Param("status") int statusCode,
+            @Param("contentType") String contentType,
+            @Param("body") byte[] responseBody);
+
+    // Solta a reserva de um request que não terminou
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.clientApiKey = :client AND r.idempotencyKey = :key "
+            + "AND r.statusCode = " + IdempotencyRecord.PENDING)
+    int deletePending(@Param("client") String clientApiKey, @Param("key") String idempotencyKey);
+
+    // Libera a chave presa por uma reserva abandonada (réplica caiu) ou por uma resposta expirada
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.clientApiKey = :client AND r.idempotencyKey = :key "
+            + "AND (r.createdAt < :expired OR (r.statusCode = " + IdempotencyRecord.PENDING
+            + " AND r.createdAt < :stalePending))")
+    int deleteStale(
+            @Param("client") String clientApiKey,
+            @Param("key") String idempotencyKey,
+            @Param("expired") LocalDateTime expired,
+            @Param("stalePending") LocalDateTime stalePending);
+
+    // Remove chaves expiradas
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,6 +1,10 @@
 package com.heureca.wppgateway.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.heureca.wppgateway.model.MessageUsage;
 
@@ -9,4 +13,13 @@ import java.util.Optional;
 
 public interface MessageUsageRepository extends JpaRepository<MessageUsage, Long> {
     Optional<MessageUsage> findByClientApiKeyAndDate(String clientApiKey, LocalDate date);
+
+    // Incremento atômico (sem read-modify-write concorrente)
+    @Modifying
+    @Transactional
+    @Query("UPDATE MessageUsage mu SET mu.count = mu.count + :delta WHERE mu.clientApiKey = :clientApiKey AND mu.date = :date")
+    int incrementCount(@Param("clientApiKey") String clientApiKey, @Param("date") LocalDate date, @Param("delta") int delta);
+
+    @Query("SELECT COALESCE(SUM(mu.count), 0) FROM MessageUsage mu WHERE mu.clientApiKey = :clientApiKey AND mu.date = :date")
+    Integer countToday(@Param("clientApiKey") String clientApiKey, @Param("date") LocalDate date);
 }
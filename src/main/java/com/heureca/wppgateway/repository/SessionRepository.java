@@ -1,9 +1,15 @@
 package com.heureca.wppgateway.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.heureca.wppgateway.model.SessionEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface SessionRepository extends JpaRepository<SessionEntity, Long> {
@@ -16,4 +22,25 @@ public interface SessionRepository extends JpaRepository<SessionEntity, Long> {
     Optional<SessionEntity> findActiveByClientApiKeyAndPhone(String apiKey, String from);
 
     Optional<SessionEntity> findByClientApiKeyAndPhone(String apiKey, String cleanPhone);
-}
\ No newline at end of file
+
+    // O findAll herdado é readOnly (iria para a réplica): a varredura do reconciler lê o primário
+    @Override
+    @Transactional
+    List<SessionEntity> findAll();
+
+    // Atualiza apenas o status (sem sobrescrever token em uso)
+    @Modifying
+    @Transactional
+    @Query("UPDATE SessionEntity s SET s.status = :status WHERE s.sessionName = :sessionName")
+    int updateStatus(@Param("sessionName") String sessionName, @Param("status") String status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SessionEntity s SET s.backend = :backend WHERE s.sessionName = :sessionName")
+    int updateBackend(@Param("sessionName") String sessionName, @Param("backend") String backend);
+
+    // Sessões por backend (backend null = default), ignorando estados sem browser ativo
+    @Query("SELECT s.backend, COUNT(s) FROM SessionEntity s "
+            + "WHERE s.status IS NULL OR s.status NOT IN :inactive GROUP BY s.backend")
+    List<Object[]> countByBackend(@Param("inactive") Collection<String> inactive);
+}
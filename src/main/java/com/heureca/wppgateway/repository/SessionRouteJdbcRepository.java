@@ -0,0 +1,45 @@
+package com.heureca.wppgateway.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.heureca.wppgateway.model.SessionRoute;
+
+/**
+ * The columns of {@code sessions} the send path needs, read straight into
+ * a {@link SessionRoute} without loading a {@code SessionEntity}.
+ */
+@Repository
+public class SessionRouteJdbcRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public SessionRouteJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Optional<SessionRoute> findBySessionName(String sessionName) {
+        List<SessionRoute> rows = jdbc.query(
+                "SELECT session_name, client_api_key, wpp_token, wpp_backend FROM sessions WHERE session_name = ?",
+                (rs, i) -> new SessionRoute(
+                        rs.getString("session_name"),
+                        rs.getString("client_api_key"),
+                        rs.getString("wpp_token"),
+                        rs.getString("wpp_backend")),
+                sessionName);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    /**
+     * Replaces the token only if it is still {@code expected}; 0 means another
+     * request or replica already renewed it.
+     */
+    public int updateToken(String sessionName, String expected, String token) {
+        return jdbc.update(
+                "UPDATE sessions SET wpp_token = ? WHERE session_name = ? AND wpp_token = ?",
+                token, sessionName, expected);
+    }
+}
@@ -20,7 +20,7 @@ public interface SessionUsageRepository extends JpaRepository<SessionUsage, Long
     @Modifying
     @Transactional
     @Query("UPDATE SessionUsage su SET su.count = su.count + 1 WHERE su.sessionName = :sessionName AND su.date = :date")
-    void incrementCount(@Param("sessionName") String sessionName, @Param("date") LocalDate date);
+    int incrementCount(@Param("sessionName") String sessionName, @Param("date") LocalDate date);
 
     // Obter contagem do dia
     @Query("SELECT COALESCE(SUM(su.count), 0) FROM SessionUsage su WHERE su.sessionName = :sessionName AND su.date = :date")
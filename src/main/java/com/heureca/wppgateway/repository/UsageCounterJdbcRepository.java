@@ -0,0 +1,86 @@
+package com.heureca.wppgateway.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalInt;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The daily counter rows ({@code message_usage} per client,
+ * {@code session_usage} per session) as plain prepared statements, for
+ * the quota ledger. Both tables are unique on (key, date).
+ */
+@Repository
+public class UsageCounterJdbcRepository {
+
+    public enum Counter {
+        MESSAGE_USAGE("message_usage", "client_api_key"),
+        SESSION_USAGE("session_usage", "session_name");
+
+        private final String table;
+        private final String key;
+        private final String lock;
+        private final String add;
+        private final String ensure;
+        private final String count;
+
+        Counter(String table, String key) {
+            this.table = table;
+            this.key = key;
+            String where = " WHERE " + key + " = ? AND date = ?";
+            this.lock = "SELECT count FROM " + table + where + " FOR UPDATE";
+            this.add = "UPDATE " + table + " SET count = count + ?" + where;
+            this.ensure = "INSERT INTO " + table + " (" + key + ", date, count) VALUES (?, ?, 0)"
+                    + " ON DUPLICATE KEY UPDATE count = count";
+            this.count = "SELECT COALESCE(SUM(count), 0) FROM " + table + where;
+        }
+
+        public String table() {
+            return table;
+        }
+
+        public String keyColumn() {
+            return key;
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+
+    public UsageCounterJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * SELECT ... FOR UPDATE of the day's row; empty when there is none yet.
+     * Must run inside a transaction.
+     */
+    public OptionalInt lock(Counter counter, String key, LocalDate day) {
+        List<Integer> rows = jdbc.query(counter.lock, (rs, i) -> rs.getInt(1), key, Date.valueOf(day));
+        return rows.isEmpty() ? OptionalInt.empty() : OptionalInt.of(rows.get(0));
+    }
+
+    /**
+     * Atomic {@code count = count + delta}; returns the rows changed (0 when
+     * the day's row does not exist).
+     */
+    public int add(Counter counter, String key, LocalDate day, int delta) {
+        return jdbc.update(counter.add, delta, key, Date.valueOf(day));
+    }
+
+    /**
+     * Creates the day's row (count 0) unless it exists. Run before
+     * {@link #lock}: SELECT ... FOR UPDATE on a missing row takes a gap
+     * lock, and two replicas inserting after it deadlock.
+     */
+    public void ensure(Counter counter, String key, LocalDate day) {
+        jdbc.update(counter.ensure, key, Date.valueOf(day));
+    }
+
+    public long count(Counter counter, String key, LocalDate day) {
+        Long count = jdbc.queryForObject(counter.count, Long.class, key, Date.valueOf(day));
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,141 @@
+package com.heureca.wppgateway.repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.heureca.wppgateway.repository.UsageCounterJdbcRepository.Counter;
+
+/**
+ * History side of the daily counters: monthly partitions of
+ * {@code message_usage} / {@code session_usage} (MySQL only; range by
+ * month on {@code date}, plus a {@code pmax} catch-all) and the
+ * {@code *_monthly} rollup tables.
+ */
+@Repository
+public class UsageHistoryJdbcRepository {
+
+    private static final DateTimeFormatter PARTITION = DateTimeFormatter.ofPattern("'p'uuuuMM");
+
+    private final JdbcTemplate jdbc;
+
+    public UsageHistoryJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Monthly partitions exist only on MySQL; elsewhere (H2 in the load
+     * test) retention falls back to DELETE.
+     */
+    public boolean partitioned() {
+        Boolean mysql = jdbc.execute((ConnectionCallback<Boolean>) UsageHistoryJdbcRepository::isMySql);
+        return Boolean.TRUE.equals(mysql);
+    }
+
+    /**
+     * Months that have their own partition, oldest first (pmax excluded).
+     */
+    public List<YearMonth> partitions(Counter counter) {
+        return jdbc.query("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME LIKE 'p______' "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, i) -> YearMonth.parse(rs.getString(1), PARTITION),
+                counter.table());
+    }
+
+    /**
+     * Splits the next month off {@code pmax}; {@code pmax} is empty while
+     * partitions are kept ahead of today, so this moves no rows.
+     */
+    public void addPartition(Counter counter, YearMonth month) {
+        jdbc.execute("ALTER TABLE " + counter.table() + " REORGANIZE PARTITION pmax INTO ("
+                + partitionDefinition(month) + ", PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+    }
+
+    public void dropPartition(Counter counter, YearMonth month) {
+        jdbc.execute("ALTER TABLE " + counter.table() + " DROP PARTITION " + month.format(PARTITION));
+    }
+
+    public int deleteBefore(Counter counter, LocalDate cutoff) {
+        return jdbc.update("DELETE FROM " + counter.table() + " WHERE date < ?", Date.valueOf(cutoff));
+    }
+
+    /**
+     * Recomputes one month of the rollup from the daily rows. Only that
+     * month's partition is read, so the cost does not grow with history.
+     * Delete and insert commit together: readers see the old rows or the
+     * new ones.
+     */
+    @Transactional
+    public int rollupMonth(Counter counter, YearMonth month) {
+        String monthly = monthlyTable(counter);
+        Date start = Date.valueOf(month.atDay(1));
+        Date end = Date.valueOf(month.plusMonths(1).atDay(1));
+
+        jdbc.update("DELETE FROM " + monthly + " WHERE month_start = ?", start);
+        return jdbc.update("INSERT INTO " + monthly + " (" + counter.keyColumn() + ", month_start, count) "
+                + "SELECT " + counter.keyColumn() + ", CAST(? AS DATE), SUM(count) FROM " + counter.table()
+                + " WHERE date >= ? AND date < ? AND " + counter.keyColumn() + " IS NOT NULL"
+                + " GROUP BY " + counter.keyColumn(), start, start, end);
+    }
+
+    public boolean hasRollup(Counter counter, YearMonth month) {
+        Long rows = jdbc.queryForObject("SELECT COUNT(*) FROM " + monthlyTable(counter) + " WHERE month_start = ?",
+                Long.class, Date.valueOf(month.atDay(1)));
+        return rows != null && rows > 0;
+    }
+
+    public Optional<LocalDate> oldestDay(Counter counter) {
+        Date oldest = jdbc.queryForObject("SELECT MIN(date) FROM " + counter.table(), Date.class);
+        return Optional.ofNullable(oldest).map(Date::toLocalDate);
+    }
+
+    /**
+     * Rollup rows of one key from {@code from} on, oldest first.
+     */
+    public List<Map<String, Object>> monthly(Counter counter, String key, YearMonth from) {
+        return jdbc.query("SELECT month_start, count FROM " + monthlyTable(counter)
+                        + " WHERE " + counter.keyColumn() + " = ? AND month_start >= ? ORDER BY month_start",
+                (rs, i) -> Map.<String, Object>of(
+                        "month", YearMonth.from(rs.getDate(1).toLocalDate()).toString(),
+                        "count", rs.getLong(2)),
+                key, Date.valueOf(from.atDay(1)));
+    }
+
+    public static String monthlyTable(Counter counter) {
+        return counter.table() + "_monthly";
+    }
+
+    public static boolean isMySql(Connection connection) throws SQLException {
+        return "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+
+    /**
+     * {@code PARTITION BY} clause covering {@code first} through {@code last}
+     * plus {@code pmax}, for the table's first partitioning.
+     */
+    public static String partitionClause(YearMonth first, YearMonth last) {
+        List<String> parts = new ArrayList<>();
+        for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+            parts.add(partitionDefinition(m));
+        }
+        parts.add("PARTITION pmax VALUES LESS THAN (MAXVALUE)");
+        return "PARTITION BY RANGE COLUMNS(date) (" + String.join(", ", parts) + ")";
+    }
+
+    private static String partitionDefinition(YearMonth month) {
+        return "PARTITION " + month.format(PARTITION) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+}
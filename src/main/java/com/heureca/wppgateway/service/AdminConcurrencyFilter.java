@@ -0,0 +1,77 @@
+package com.heureca.wppgateway.service;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.model.ClientSource;
+
+import io.micrometer.core.instrument.Gauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps how many {@code /admin/**} requests run at once
+ * ({@code gateway.admin.max-concurrent}); above that the request gets 503
+ * right away instead of holding a servlet thread the API traffic needs.
+ *
+ * Runs after {@link ApiAuthenticationFilter} and takes a permit only for an
+ * authenticated ADMIN client, so requests without a valid key cannot hold
+ * the permits.
+ */
+@Component
+public class AdminConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final GatewayMetrics metrics;
+
+    public AdminConcurrencyFilter(
+            GatewayMetrics metrics,
+            @Value("${gateway.admin.max-concurrent:4}") int maxConcurrent) {
+        this.metrics = metrics;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(this.maxConcurrent);
+
+        Gauge.builder("gateway.admin.inflight", permits, p -> this.maxConcurrent - p.availablePermits())
+                .description("Admin requests in progress")
+                .register(metrics.registry());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!(request.getAttribute("apiClient") instanceof ApiClient client)
+                || client.getSource() != ClientSource.ADMIN) {
+            response.sendError(
+                    HttpStatus.UNAUTHORIZED.value(),
+                    "Admin privileges required");
+            return;
+        }
+
+        if (!permits.tryAcquire()) {
+            metrics.rejected("admin_busy");
+            response.sendError(
+                    HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "Too many admin requests in progress");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
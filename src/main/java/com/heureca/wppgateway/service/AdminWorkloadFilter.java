@@ -0,0 +1,37 @@
+package com.heureca.wppgateway.service;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.heureca.wppgateway.util.Workload;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Runs {@code /admin/**} requests as {@link Workload#ADMIN}: their own
+ * connection pool, the ADMIN key lookup included. How many run at once is
+ * capped after authentication, by {@link AdminConcurrencyFilter}.
+ */
+@Component
+public class AdminWorkloadFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Workload.ADMIN.enter();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Workload.clear();
+        }
+    }
+}
@@ -12,6 +12,7 @@ import com.heureca.wppgateway.exception.RateLimitExceededException;
 import com.heureca.wppgateway.exception.UnauthorizedException;
 import com.heureca.wppgateway.model.ApiClient;
 import com.heureca.wppgateway.model.ClientSource;
+import com.heureca.wppgateway.util.RequestTrace;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -30,9 +31,11 @@ public class ApiAuthenticationFilter extends OncePerRequestFilter {
             "7870f700-f5aa-11f0-bae3-231f8dd9ea4d";
 
     private final ApiClientService clientService;
+    private final GatewayMetrics metrics;
 
-    public ApiAuthenticationFilter(ApiClientService clientService) {
+    public ApiAuthenticationFilter(ApiClientService clientService, GatewayMetrics metrics) {
         this.clientService = clientService;
+        this.metrics = metrics;
     }
 
     /**
@@ -45,7 +48,9 @@ public class ApiAuthenticationFilter extends OncePerRequestFilter {
         return path.startsWith("/v3/api-docs")
                 || path.startsWith("/swagger-ui")
                 || path.startsWith("/swagger-ui.html")
-                || path.startsWith("/actuator");
+                || path.startsWith("/webjars/")
+                || path.startsWith("/actuator")
+                || path.startsWith("/webhooks/");
     }
 
     @Override
@@ -68,6 +73,8 @@ public class ApiAuthenticationFilter extends OncePerRequestFilter {
         logger.debug("Rapid headers | user={} | subscription={}",
                 rapidUser, rapidSubscription);
 
+        long start = System.nanoTime();
+
         try {
             ApiClient client;
 
@@ -111,10 +118,17 @@ public class ApiAuthenticationFilter extends OncePerRequestFilter {
                 throw new UnauthorizedException("Admin privileges required");
             }
 
+            long authDone = System.nanoTime();
+            RequestTrace.add("auth", authDone - start);
+
             // ==========================
             // 🚦 Rate limit centralizado
             // ==========================
-            clientService.validateRateLimit(client);
+            try {
+                clientService.validateRateLimit(client);
+            } finally {
+                RequestTrace.add("ratelimit", System.nanoTime() - authDone);
+            }
 
             // ==========================
             // 📌 Disponibiliza o cliente
@@ -124,11 +138,13 @@ public class ApiAuthenticationFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
 
         } catch (RateLimitExceededException ex) {
+            metrics.rejected("client_rate_limit");
             response.sendError(
                     HttpStatus.TOO_MANY_REQUESTS.value(),
                     ex.getMessage());
 
         } catch (UnauthorizedException ex) {
+            metrics.rejected("unauthorized");
             response.sendError(
                     HttpStatus.UNAUTHORIZED.value(),
                     ex.getMessage());
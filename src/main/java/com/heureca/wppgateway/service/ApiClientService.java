@@ -1,13 +1,13 @@
 package com.heureca.wppgateway.service;
 
-import java.time.LocalDate;
-
 import org.springframework.stereotype.Service;
 
 import com.heureca.wppgateway.exception.RateLimitExceededException;
 import com.heureca.wppgateway.exception.UnauthorizedException;
 import com.heureca.wppgateway.model.ApiClient;
 import com.heureca.wppgateway.model.ClientSource;
+import com.heureca.wppgateway.model.QuotaKind;
+import com.heureca.wppgateway.repository.ApiClientJdbcRepository;
 import com.heureca.wppgateway.repository.ApiClientRepository;
 import com.heureca.wppgateway.util.ApiKeyGenerator;
 
@@ -15,13 +15,18 @@ import com.heureca.wppgateway.util.ApiKeyGenerator;
 public class ApiClientService {
 
     private final ApiClientRepository repository;
+    private final ApiClientJdbcRepository lookup;
+    private final QuotaLeaseService quota;
 
-    public ApiClientService(ApiClientRepository repository) {
+    public ApiClientService(ApiClientRepository repository, ApiClientJdbcRepository lookup, QuotaLeaseService quota) {
         this.repository = repository;
+        this.lookup = lookup;
+        this.quota = quota;
     }
 
+    // 🔹 Leitura por request (filtro de autenticação): JDBC, sem entidade gerenciada
     public ApiClient getOrCreateRapidClient(String apiKey) {
-        return repository.findByApiKey(apiKey)
+        return lookup.findByApiKey(apiKey)
                 .orElseGet(() -> createRapidClient(apiKey));
     }
 
@@ -36,27 +41,15 @@ public class ApiClientService {
     }
 
     public ApiClient validateInternalClient(String apiKey, ClientSource rapid) {
-        return repository.findByApiKeyAndSource(apiKey, rapid)
+        return lookup.findByApiKeyAndSource(apiKey, rapid)
                 .orElseThrow(() -> new UnauthorizedException("Invalid API Key"));
     }
 
+    // 🔹 daily_usage é consumido em blocos (QuotaLeaseService), não um UPDATE por request
     public void validateRateLimit(ApiClient client) {
-        resetIfNewDay(client);
-
-        if (client.getDailyLimit() != null &&
-                client.getDailyUsage() >= client.getDailyLimit()) {
+        if (!quota.tryConsume(QuotaKind.CLIENT_REQUESTS, client.getApiKey(), client.getDailyLimit())) {
             throw new RateLimitExceededException("Daily limit exceeded");
         }
-
-        client.setDailyUsage(client.getDailyUsage() + 1);
-        repository.save(client);
-    }
-
-    private void resetIfNewDay(ApiClient client) {
-        if (!LocalDate.now().equals(client.getLastReset())) {
-            client.setDailyUsage(0L);
-            client.setLastReset(LocalDate.now());
-        }
     }
 
     public ApiClient createClient(String name, Long dailyLimit, ClientSource clientSource) {
@@ -0,0 +1,206 @@
+package com.heureca.wppgateway.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.model.GatewayNode;
+import com.heureca.wppgateway.repository.GatewayNodeRepository;
+import com.heureca.wppgateway.util.ConsistentHashRing;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Which gateway replica owns which session.
+ *
+ * Every replica heartbeats a row in {@code gateway_node}; the replicas with
+ * a recent heartbeat form a {@link ConsistentHashRing} and each session name
+ * belongs to exactly one of them. The owner keeps the session's in-memory
+ * state (status and QR caches, breakers, bulkheads) and the others hand
+ * its requests over (see {@link SessionAffinityFilter}).
+ *
+ * When clustering is off, or this replica could not heartbeat for a whole
+ * {@code member-timeout-ms}, it owns everything and serves locally.
+ */
+@Service
+public class GatewayMembership {
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayMembership.class);
+
+    private final GatewayNodeRepository repository;
+    private final Environment environment;
+    private final String nodeId;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    @Value("${gateway.cluster.enabled:false}")
+    private boolean enabled;
+    @Value("${gateway.cluster.advertise-url:}")
+    private String advertiseUrl;
+    @Value("${gateway.cluster.member-timeout-ms:15000}")
+    private long memberTimeoutMs;
+    @Value("${gateway.cluster.virtual-nodes:128}")
+    private int virtualNodes;
+    @Value("${gateway.cluster.forget-after-ms:86400000}")
+    private long forgetAfterMs;
+
+    private volatile ConsistentHashRing ring;
+    private volatile Map<String, GatewayNode> members = Map.of();
+    private volatile long lastHeartbeatMillis;
+
+    public GatewayMembership(
+            GatewayNodeRepository repository,
+            Environment environment,
+            @Value("${gateway.cluster.node-id:}") String nodeId) {
+        this.repository = repository;
+        this.environment = environment;
+
+        // 🔹 No K8s o HOSTNAME é o nome do pod; fora dele, um id aleatório por processo
+        if (nodeId.isBlank()) {
+            nodeId = environment.getProperty("HOSTNAME", "");
+        }
+        this.nodeId = nodeId.isBlank()
+                ? "gw-" + UUID.randomUUID().toString().substring(0, 8)
+                : nodeId;
+        this.ring = new ConsistentHashRing(List.of(this.nodeId), 1);
+    }
+
+    @Scheduled(
+            initialDelayString = "${gateway.cluster.initial-delay-ms:0}",
+            fixedDelayString = "${gateway.cluster.heartbeat-ms:5000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String address = address();
+
+        try {
+            if (repository.heartbeat(nodeId, address, now) == 0) {
+                GatewayNode self = new GatewayNode();
+                self.setNodeId(nodeId);
+                self.setAddress(address);
+                self.setStartedAt(startedAt);
+                self.setHeartbeatAt(now);
+                repository.save(self);
+            }
+
+            Map<String, GatewayNode> live = new TreeMap<>();
+            for (GatewayNode node : repository.findByHeartbeatAtAfter(now.minusNanos(memberTimeoutMs * 1_000_000))) {
+                live.put(node.getNodeId(), node);
+            }
+            lastHeartbeatMillis = System.currentTimeMillis();
+
+            if (!live.keySet().equals(ring.nodes())) {
+                ring = new ConsistentHashRing(live.keySet(), virtualNodes);
+                logger.info("GATEWAY MEMBERSHIP CHANGED | self={} members={}", nodeId, live.keySet());
+                repository.deleteStale(now.minusNanos(forgetAfterMs * 1_000_000));
+            }
+            members = live;
+
+        } catch (Exception e) {
+            logger.warn("Gateway heartbeat failed | node={} cause={}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * True while requests may be handed to other replicas: clustering on,
+     * more than one live member and our own heartbeat still current.
+     */
+    public boolean isClustered() {
+        return enabled
+                && ring.nodes().size() > 1
+                && System.currentTimeMillis() - lastHeartbeatMillis < memberTimeoutMs;
+    }
+
+    /**
+     * Node id of the replica that owns the session (this one when
+     * clustering is not in effect).
+     */
+    public String ownerOf(String sessionName) {
+        return isClustered() ? ring.owner(sessionName) : nodeId;
+    }
+
+    public boolean owns(String sessionName) {
+        return nodeId.equals(ownerOf(sessionName));
+    }
+
+    /**
+     * The other replica that owns the session; empty when it is this one
+     * (or clustering is not in effect).
+     */
+    public Optional<GatewayNode> remoteOwnerOf(String sessionName) {
+        String owner = ownerOf(sessionName);
+        if (nodeId.equals(owner)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(members.get(owner));
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Admin view: this replica, the live members and whether the ring is
+     * in effect.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("self", nodeId);
+        m.put("address", address());
+        m.put("clustered", isClustered());
+        m.put("lastHeartbeatMsAgo", lastHeartbeatMillis > 0 ? System.currentTimeMillis() - lastHeartbeatMillis : null);
+
+        Map<String, Object> nodes = new LinkedHashMap<>();
+        members.values().forEach(n -> nodes.put(n.getNodeId(), Map.of(
+                "address", n.getAddress(),
+                "startedAt", n.getStartedAt().toString(),
+                "heartbeatAt", n.getHeartbeatAt().toString())));
+        m.put("members", nodes);
+        return m;
+    }
+
+    /**
+     * Configured URL, or this host's address and the port actually bound
+     * (known only once the server is up, so resolved on every call).
+     */
+    private String address() {
+        if (!advertiseUrl.isBlank()) {
+            return advertiseUrl;
+        }
+        String port = environment.getProperty("local.server.port", environment.getProperty("server.port", "8080"));
+        try {
+            return "http://" + InetAddress.getLocalHost().getHostAddress() + ":" + port;
+        } catch (UnknownHostException e) {
+            return "http://127.0.0.1:" + port;
+        }
+    }
+
+    // 🔹 Sai do anel na hora: as outras réplicas assumem as sessões sem esperar o timeout
+    @PreDestroy
+    void leave() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            repository.deleteById(nodeId);
+        } catch (Exception e) {
+            logger.warn("Could not remove gateway node {} on shutdown: {}", nodeId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.heureca.wppgateway.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.heureca.wppgateway.util.Workload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Gateway-specific meters (HTTP server and repository timings come from
+ * Spring Boot's auto-configuration).
+ *
+ * <ul>
+ * <li>{@code wpp.provider.requests} — WPPConnect call latency by backend, operation and status</li>
+ * <li>{@code wpp.provider.inflight} — WPPConnect calls currently running</li>
+ * <li>{@code gateway.requests.rejected} — requests refused by the gateway, by reason</li>
+ * <li>{@code gateway.cluster.handoffs} — requests for sessions owned by another replica, by outcome</li>
+ * <li>{@code gateway.provider.token.refreshes} — provider tokens renewed after a 401, by result</li>
+ * <li>{@code executor.*} — pool size, active, queued and task timings of the background executors, by name</li>
+ * </ul>
+ */
+@Component
+public class GatewayMetrics {
+
+    public static final String PROVIDER_REQUESTS = "wpp.provider.requests";
+
+    private final MeterRegistry registry;
+    private final AtomicInteger providerInFlight = new AtomicInteger();
+
+    public GatewayMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        Gauge.builder("wpp.provider.inflight", providerInFlight, AtomicInteger::get)
+                .description("WPPConnect calls in progress")
+                .register(registry);
+    }
+
+    public void providerCallStarted() {
+        providerInFlight.incrementAndGet();
+    }
+
+    public void providerCallFinished(String backend, String operation, String status, long elapsedNanos) {
+        providerInFlight.decrementAndGet();
+
+        Timer.builder(PROVIDER_REQUESTS)
+                .description("WPPConnect call latency")
+                .tag("backend", backend)
+                .tag("operation", operation)
+                .tag("status", status)
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rejected(String reason) {
+        Counter.builder("gateway.requests.rejected")
+                .description("Requests refused by the gateway before reaching the provider")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void sessionAffinity(String outcome) {
+        Counter.builder("gateway.cluster.handoffs")
+                .description("Requests for sessions owned by another gateway replica")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void tokenRefresh(String result) {
+        Counter.builder("gateway.provider.token.refreshes")
+                .description("Provider tokens renewed after WPPConnect rejected one")
+                .tag("result", result)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Fixed number of threads and a bounded queue (full queue =
+     * RejectedExecutionException, never an unbounded backlog); the threads
+     * run in {@code workload}.
+     */
+    public ExecutorService boundedExecutor(String name, Workload workload, int threads, int queueSize) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                workload.threadFactory(name));
+        return ExecutorServiceMetrics.monitor(registry, executor, name);
+    }
+
+    public MeterRegistry registry() {
+        return registry;
+    }
+}
@@ -0,0 +1,191 @@
+package com.heureca.wppgateway.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.model.IdempotencyRecord;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Honors the {@code Idempotency-Key} header on send endpoints.
+ *
+ * The first request with a key claims it and runs normally, and its
+ * response is stored; later requests with the same key and payload get the
+ * stored response without a second provider call, or 409 while the first
+ * one is still running on any replica. Runs after
+ * {@link ApiAuthenticationFilter}, so keys are scoped per client. Temporary rejections are not stored (see
+ * {@link #isFinal(int)}).
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyService idempotencyService;
+
+    @Value("${gateway.idempotency.max-key-length:255}")
+    private int maxKeyLength;
+    @Value("${gateway.idempotency.max-body-bytes:65536}")
+    private int maxStoredBodyBytes;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod())
+                || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        ApiClient client = (ApiClient) request.getAttribute("apiClient");
+        String key = request.getHeader(HEADER).trim();
+
+        if (client == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (key.isEmpty() || key.length() > maxKeyLength) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    "Idempotency-Key must have 1 to " + maxKeyLength + " characters");
+            return;
+        }
+
+        CachedBodyHttpServletRequest cachedRequest = request instanceof CachedBodyHttpServletRequest c
+                ? c
+                : new CachedBodyHttpServletRequest(request);
+        String requestHash = hash(request.getRequestURI(), cachedRequest.getBody());
+
+        // ==========================
+        // 🔁 Duplicata: devolve a resposta gravada
+        // ==========================
+        Optional<IdempotencyRecord> stored = idempotencyService.find(client.getApiKey(), key);
+
+        if (stored.isEmpty()) {
+            if (idempotencyService.begin(client.getApiKey(), key, requestHash)) {
+                dispatch(cachedRequest, response, filterChain, client, key, requestHash);
+                return;
+            }
+            // 🔹 Perdeu a reserva: o outro request pode ter terminado entre find e begin
+            stored = idempotencyService.find(client.getApiKey(), key);
+        }
+
+        if (stored.isPresent() && !stored.get().getRequestHash().equals(requestHash)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    "Idempotency-Key was already used with a different request");
+            return;
+        }
+
+        if (stored.isEmpty() || stored.get().isPending()) {
+            response.sendError(HttpStatus.CONFLICT.value(),
+                    "A request with this Idempotency-Key is still in progress");
+            return;
+        }
+
+        logger.debug("IDEMPOTENT REPLAY | client={} | key={}", client.getId(), key);
+        replay(stored.get(), response);
+    }
+
+    private void dispatch(
+            CachedBodyHttpServletRequest cachedRequest,
+            HttpServletResponse response,
+            FilterChain filterChain,
+            ApiClient client,
+            String key,
+            String requestHash)
+            throws ServletException, IOException {
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+
+        try {
+            filterChain.doFilter(cachedRequest, cachedResponse);
+
+            byte[] body = cachedResponse.getContentAsByteArray();
+            int status = cachedResponse.getStatus();
+
+            if (isFinal(status) && body.length <= maxStoredBodyBytes) {
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setClientApiKey(client.getApiKey());
+                record.setIdempotencyKey(key);
+                record.setRequestHash(requestHash);
+                record.setStatusCode(status);
+                record.setContentType(cachedResponse.getContentType());
+                record.setResponseBody(body);
+
+                idempotencyService.complete(record);
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyService.abandon(client.getApiKey(), key);
+            }
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Only outcomes a retry cannot change are stored. 409 (session not
+     * connected), 429 (daily limits), 401 (provider token) and 5xx release
+     * the key: the same request may succeed later.
+     */
+    private static boolean isFinal(int status) {
+        return (status >= 200 && status < 300)
+                || status == 400
+                || status == 404
+                || status == 422;
+    }
+
+    private void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        response.setStatus(record.getStatusCode());
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentType(record.getContentType() != null
+                ? record.getContentType()
+                : MediaType.APPLICATION_JSON_VALUE);
+
+        byte[] body = record.getResponseBody() != null ? record.getResponseBody() : new byte[0];
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static String hash(String uri, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(uri.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
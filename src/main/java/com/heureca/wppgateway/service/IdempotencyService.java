@@ -0,0 +1,207 @@
+package com.heureca.wppgateway.service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.model.IdempotencyRecord;
+import com.heureca.wppgateway.repository.IdempotencyRecordRepository;
+
+/**
+ * Store of recent {@code Idempotency-Key} → response pairs.
+ *
+ * A bounded in-memory LRU answers repeats on the same replica; the
+ * {@code idempotency_record} table covers restarts and other replicas.
+ *
+ * A key is claimed in the table (a {@link IdempotencyRecord#PENDING} row,
+ * unique per client and key) before the send is dispatched, so a retry
+ * that lands on another replica while the first attempt runs gets 409
+ * instead of a second send. A claim left by a replica that died is taken
+ * over after {@code gateway.idempotency.pending-timeout-ms}.
+ *
+ * Database failures degrade to memory-only instead of failing the send;
+ * the guarantee then holds only within this replica.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final Map<String, IdempotencyRecord> recent;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${gateway.idempotency.ttl-hours:24}")
+    private long ttlHours;
+    @Value("${gateway.idempotency.pending-timeout-ms:120000}")
+    private long pendingTimeoutMs;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository repository,
+            @Value("${gateway.idempotency.max-entries:10000}") int maxEntries) {
+        this.repository = repository;
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * The stored response, or the claim of a request still running
+     * ({@link IdempotencyRecord#isPending()}) on any replica.
+     */
+    public Optional<IdempotencyRecord> find(String clientApiKey, String idempotencyKey) {
+        String k = key(clientApiKey, idempotencyKey);
+
+        IdempotencyRecord cached = recent.get(k);
+        if (cached != null) {
+            return isExpired(cached) ? Optional.empty() : Optional.of(cached);
+        }
+
+        try {
+            Optional<IdempotencyRecord> stored = repository
+                    .findByClientApiKeyAndIdempotencyKey(clientApiKey, idempotencyKey)
+                    .filter(r -> !isExpired(r))
+                    .filter(r -> !r.isPending() || !isStalePending(r));
+
+            stored.filter(r -> !r.isPending()).ifPresent(r -> recent.put(k, r));
+            return stored;
+
+        } catch (DataAccessException e) {
+            logger.warn("Idempotency lookup failed, using memory only: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Claims the key for this request. Returns false when another request
+     * holds it or has already stored its response; the caller looks it up
+     * again with {@link #find}.
+     */
+    public boolean begin(String clientApiKey, String idempotencyKey, String requestHash) {
+        String k = key(clientApiKey, idempotencyKey);
+
+        if (!inFlight.add(k)) {
+            return false;
+        }
+
+        // 🔹 complete() grava em recent antes de soltar a chave: quem chega depois vê a resposta
+        IdempotencyRecord done = recent.get(k);
+        if (done != null && !isExpired(done)) {
+            inFlight.remove(k);
+            return false;
+        }
+
+        try {
+            if (insertClaim(clientApiKey, idempotencyKey, requestHash)) {
+                return true;
+            }
+
+            // 🔹 Chave ocupada: só é tomada de volta se a linha expirou ou é reserva de réplica que caiu
+            LocalDateTime now = LocalDateTime.now();
+            int released = repository.deleteStale(clientApiKey, idempotencyKey,
+                    now.minusHours(ttlHours), now.minusNanos(pendingTimeoutMs * 1_000_000L));
+
+            if (released > 0 && insertClaim(clientApiKey, idempotencyKey, requestHash)) {
+                return true;
+            }
+
+            inFlight.remove(k);
+            return false;
+
+        } catch (DataAccessException e) {
+            logger.warn("Idempotency claim not persisted, guarding this replica only | key={} | {}",
+                    idempotencyKey, e.getMessage());
+            return true;
+        }
+    }
+
+    public void complete(IdempotencyRecord record) {
+        String k = key(record.getClientApiKey(), record.getIdempotencyKey());
+
+        recent.put(k, record);
+        inFlight.remove(k);
+
+        try {
+            int updated = repository.complete(
+                    record.getClientApiKey(), record.getIdempotencyKey(),
+                    record.getStatusCode(), record.getContentType(), record.getResponseBody());
+            if (updated == 0) {
+                // 🔹 A reserva não chegou ao banco (falha em begin): grava a linha inteira
+                repository.save(record);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Idempotency record not persisted | key={} | {}", record.getIdempotencyKey(), e.getMessage());
+        }
+    }
+
+    /**
+     * Releases the key without storing a response, so the client may retry.
+     */
+    public void abandon(String clientApiKey, String idempotencyKey) {
+        inFlight.remove(key(clientApiKey, idempotencyKey));
+
+        try {
+            repository.deletePending(clientApiKey, idempotencyKey);
+        } catch (DataAccessException e) {
+            logger.warn("Idempotency claim not released | key={} | {}", idempotencyKey, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.idempotency.purge-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int removed = repository.deleteOlderThan(LocalDateTime.now().minusHours(ttlHours));
+            if (removed > 0) {
+                logger.debug("IDEMPOTENCY PURGE | removed={}", removed);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Idempotency purge failed: {}", e.getMessage());
+        }
+
+        synchronized (recent) {
+            recent.values().removeIf(this::isExpired);
+        }
+    }
+
+    private boolean isExpired(IdempotencyRecord record) {
+        return record.getCreatedAt().isBefore(LocalDateTime.now().minusHours(ttlHours));
+    }
+
+    private boolean insertClaim(String clientApiKey, String idempotencyKey, String requestHash) {
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setClientApiKey(clientApiKey);
+        claim.setIdempotencyKey(idempotencyKey);
+        claim.setRequestHash(requestHash);
+        claim.setStatusCode(IdempotencyRecord.PENDING);
+
+        try {
+            repository.saveAndFlush(claim);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private boolean isStalePending(IdempotencyRecord record) {
+        return record.getCreatedAt().isBefore(LocalDateTime.now().minusNanos(pendingTimeoutMs * 1_000_000L));
+    }
+
+    private static String key(String clientApiKey, String idempotencyKey) {
+        return clientApiKey + ":" + idempotencyKey;
+    }
+}
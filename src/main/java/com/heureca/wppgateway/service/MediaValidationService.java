@@ -33,6 +33,19 @@ public class MediaValidationService {
         return estimatedBytes <= maxSizeBytes;
     }
 
+    /**
+     * Aceita base64 puro ou data URL ({@code data:image/png;base64,...})
+     */
+    public boolean isValidBase64(String base64) {
+        try {
+            String clean = base64.contains(",") ? base64.split(",")[1] : base64;
+            Base64.getDecoder().decode(clean);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     /**
      * Valida tipos MIME comuns permitidos
      */
@@ -0,0 +1,262 @@
+package com.heureca.wppgateway.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.exception.ProviderUnavailableException;
+import com.heureca.wppgateway.model.WppBackend;
+import com.heureca.wppgateway.util.CircuitBreaker;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Circuit breakers (one per WPPConnect backend, one per session) and a
+ * per-session concurrency bulkhead around provider calls.
+ *
+ * A dead backend or a wedged session is rejected in microseconds instead of
+ * holding request threads, so healthy sessions keep their capacity.
+ *
+ * Metrics: {@code wpp.provider.circuit.state} per backend and
+ * {@code wpp.provider.circuit.sessions}, the number of session breakers per
+ * backend and state. Session names (they embed phone numbers) are never a
+ * tag; per-session state is only on the admin snapshot.
+ */
+@Service
+public class ProviderResilience {
+
+    public enum Outcome {
+        /** Provider answered normally (including 4xx). */
+        SUCCESS,
+        /** Provider answered, but the session failed (HTTP 500). */
+        SESSION_FAILURE,
+        /** No usable answer: I/O error, timeout, 502/503/504. */
+        BACKEND_FAILURE
+    }
+
+    private static final String CIRCUIT_STATE_METRIC = "wpp.provider.circuit.state";
+    private static final String SESSION_CIRCUITS_METRIC = "wpp.provider.circuit.sessions";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> sessionBreakers = new ConcurrentHashMap<>();
+    // 🔹 Backend de cada sessão, visto no acquire: as métricas agregam sem consultar o registry
+    private final Map<String, String> sessionBackends = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> backendBreakers = new ConcurrentHashMap<>();
+
+    @Value("${gateway.provider.circuit.failure-threshold:5}")
+    private int failureThreshold;
+    @Value("${gateway.provider.circuit.open-ms:30000}")
+    private long openDurationMs;
+    @Value("${gateway.provider.circuit.half-open-calls:1}")
+    private int halfOpenCalls;
+    // 🔹 global-failure-threshold: nome antigo, de quando havia um único backend
+    @Value("${gateway.provider.circuit.backend-failure-threshold:${gateway.provider.circuit.global-failure-threshold:20}}")
+    private int backendFailureThreshold;
+    @Value("${gateway.provider.bulkhead.max-concurrent-per-session:4}")
+    private int maxConcurrentPerSession;
+    @Value("${gateway.provider.bulkhead.max-wait-ms:0}")
+    private long maxWaitMs;
+
+    private final WppBackendRegistry backends;
+
+    public ProviderResilience(MeterRegistry meterRegistry, WppBackendRegistry backends) {
+        this.meterRegistry = meterRegistry;
+        this.backends = backends;
+    }
+
+    @PostConstruct
+    void init() {
+        for (WppBackend backend : backends.all()) {
+            CircuitBreaker breaker = new CircuitBreaker(
+                    backend.id(), backendFailureThreshold, openDurationMs, halfOpenCalls);
+            backendBreakers.put(backend.id(), breaker);
+            registerStateGauge(breaker, backend.id());
+
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                Gauge.builder(SESSION_CIRCUITS_METRIC, () -> countSessions(backend.id(), state))
+                        .description("Session circuit breakers by backend and state")
+                        .tag("backend", backend.id())
+                        .tag("state", state.name().toLowerCase())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Admits a provider call for the session on its backend or throws
+     * {@link ProviderUnavailableException}. Every successful acquire must be
+     * paired with {@link #release(String, String, Outcome)}.
+     */
+    public void acquire(String backendId, String sessionName) {
+        CircuitBreaker backendBreaker = backendBreaker(backendId);
+        sessionBackends.put(sessionName, backendBreaker.getName());
+
+        if (!backendBreaker.tryAcquire()) {
+            throw new ProviderUnavailableException(
+                    "WPP_CONNECT_CIRCUIT_OPEN",
+                    "WhatsApp provider is unavailable; requests are short-circuited",
+                    backendBreaker.remainingOpenMillis());
+        }
+
+        CircuitBreaker sessionBreaker = sessionBreaker(sessionName);
+
+        if (!sessionBreaker.tryAcquire()) {
+            backendBreaker.onIgnored();
+            throw new ProviderUnavailableException(
+                    "SESSION_CIRCUIT_OPEN",
+                    "Session is failing repeatedly; requests are short-circuited",
+                    sessionBreaker.remainingOpenMillis());
+        }
+
+        if (!tryEnterBulkhead(sessionName)) {
+            backendBreaker.onIgnored();
+            sessionBreaker.onIgnored();
+            throw new ProviderUnavailableException(
+                    "SESSION_BULKHEAD_FULL",
+                    "Too many concurrent requests for this session",
+                    0);
+        }
+    }
+
+    public void release(String backendId, String sessionName, Outcome outcome) {
+        Semaphore semaphore = bulkheads.get(sessionName);
+        if (semaphore != null) {
+            semaphore.release();
+        }
+
+        CircuitBreaker backendBreaker = backendBreaker(backendId);
+        CircuitBreaker sessionBreaker = sessionBreaker(sessionName);
+
+        switch (outcome) {
+            case SUCCESS -> {
+                backendBreaker.onSuccess();
+                sessionBreaker.onSuccess();
+            }
+            case SESSION_FAILURE -> {
+                // 🔹 Backend respondeu: só a sessão está com problema
+                backendBreaker.onSuccess();
+                sessionBreaker.onFailure();
+            }
+            case BACKEND_FAILURE -> {
+                backendBreaker.onFailure();
+                sessionBreaker.onFailure();
+            }
+        }
+    }
+
+    public static Outcome outcomeOf(int httpStatus) {
+        return switch (httpStatus) {
+            case 502, 503, 504 -> Outcome.BACKEND_FAILURE;
+            case 500 -> Outcome.SESSION_FAILURE;
+            default -> Outcome.SUCCESS;
+        };
+    }
+
+    /**
+     * Admin view: state of every breaker and bulkhead occupancy.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> sessions = new TreeMap<>();
+
+        sessionBreakers.forEach((name, breaker) -> {
+            Map<String, Object> s = breaker.snapshot();
+            s.put("inFlight", maxConcurrentPerSession - bulkhead(name).availablePermits());
+            s.put("maxConcurrent", maxConcurrentPerSession);
+            sessions.put(name, s);
+        });
+
+        Map<String, Object> backendStates = new TreeMap<>();
+        backendBreakers.forEach((id, breaker) -> backendStates.put(id, breaker.snapshot()));
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("backends", backendStates);
+        m.put("sessions", sessions);
+        return m;
+    }
+
+    /**
+     * Closes the named breaker (a backend id or a session name).
+     * Returns false when it does not exist.
+     */
+    public boolean reset(String name) {
+        CircuitBreaker breaker = backendBreakers.containsKey(name)
+                ? backendBreakers.get(name)
+                : sessionBreakers.get(name);
+        if (breaker == null) {
+            return false;
+        }
+        breaker.reset();
+        return true;
+    }
+
+    public void forget(String sessionName) {
+        sessionBreakers.remove(sessionName);
+        sessionBackends.remove(sessionName);
+        bulkheads.remove(sessionName);
+    }
+
+    private CircuitBreaker sessionBreaker(String sessionName) {
+        return sessionBreakers.computeIfAbsent(sessionName,
+                name -> new CircuitBreaker(name, failureThreshold, openDurationMs, halfOpenCalls));
+    }
+
+    private long countSessions(String backendId, CircuitBreaker.State state) {
+        return sessionBreakers.entrySet().stream()
+                .filter(e -> backendId.equals(sessionBackends.get(e.getKey())))
+                .filter(e -> e.getValue().getState() == state)
+                .count();
+    }
+
+    /**
+     * Backends are fixed at startup; an unknown id (backend removed from the
+     * config) shares the default backend's breaker, as the registry routes
+     * those sessions there.
+     */
+    private CircuitBreaker backendBreaker(String backendId) {
+        CircuitBreaker breaker = backendBreakers.get(backendId);
+        return breaker != null ? breaker : backendBreakers.get(backends.defaultBackend().id());
+    }
+
+    /**
+     * 0 = closed, 1 = half-open, 2 = open.
+     */
+    private Gauge registerStateGauge(CircuitBreaker breaker, String backend) {
+        return Gauge.builder(CIRCUIT_STATE_METRIC, breaker, b -> switch (b.getState()) {
+                    case CLOSED -> 0;
+                    case HALF_OPEN -> 1;
+                    case OPEN -> 2;
+                })
+                .description("Circuit breaker state (0 closed, 1 half-open, 2 open)")
+                .tag("scope", "backend")
+                .tag("backend", backend)
+                .register(meterRegistry);
+    }
+
+    private Semaphore bulkhead(String sessionName) {
+        return bulkheads.computeIfAbsent(sessionName, name -> new Semaphore(maxConcurrentPerSession));
+    }
+
+    private boolean tryEnterBulkhead(String sessionName) {
+        Semaphore semaphore = bulkhead(sessionName);
+
+        if (maxWaitMs <= 0) {
+            return semaphore.tryAcquire();
+        }
+
+        try {
+            return semaphore.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
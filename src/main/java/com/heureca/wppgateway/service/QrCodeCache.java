@@ -0,0 +1,121 @@
+package com.heureca.wppgateway.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.model.QrCodeImage;
+
+/**
+ * Caches the latest QR code per session so pairing UIs polling every second
+ * do not turn into one WPPConnect call per poll.
+ *
+ * An entry lives for {@code gateway.qrcode.ttl-ms} (the provider rotation
+ * interval); concurrent misses for the same session share a single fetch.
+ * QR codes pushed by the provider webhook replace the entry immediately.
+ */
+@Service
+public class QrCodeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(QrCodeCache.class);
+
+    private final WppService wppService;
+    private final Map<String, QrCodeImage> images = new ConcurrentHashMap<>();
+    private final Map<String, Object> fetchLocks = new ConcurrentHashMap<>();
+    private final List<Consumer<QrCodeImage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Value("${gateway.qrcode.ttl-ms:20000}")
+    private long ttlMs;
+
+    public QrCodeCache(WppService wppService) {
+        this.wppService = wppService;
+    }
+
+    /**
+     * Returns the cached QR code, fetching it from the provider when missing
+     * or older than the TTL.
+     */
+    public QrCodeImage get(String sessionName, String token) {
+        QrCodeImage cached = images.get(sessionName);
+        if (cached != null && cached.ageMillis() < ttlMs) {
+            return cached;
+        }
+
+        Object lock = fetchLocks.computeIfAbsent(sessionName, k -> new Object());
+
+        synchronized (lock) {
+            // 🔹 Outra thread pode ter buscado enquanto esperávamos
+            cached = images.get(sessionName);
+            if (cached != null && cached.ageMillis() < ttlMs) {
+                return cached;
+            }
+
+            byte[] png = wppService.fetchQrCodeImage(sessionName, token);
+            return store(sessionName, png);
+        }
+    }
+
+    /**
+     * Stores a QR code received from the provider webhook
+     * ({@code data:image/png;base64,...}).
+     */
+    public void putFromProvider(String sessionName, String dataUrl) {
+        if (dataUrl == null || dataUrl.isBlank()) {
+            return;
+        }
+
+        String base64 = dataUrl.contains(",") ? dataUrl.substring(dataUrl.indexOf(',') + 1) : dataUrl;
+
+        try {
+            store(sessionName, Base64.getDecoder().decode(base64));
+        } catch (IllegalArgumentException e) {
+            logger.debug("Ignoring invalid QR code from provider | session={}", sessionName);
+        }
+    }
+
+    public void evict(String sessionName) {
+        images.remove(sessionName);
+        fetchLocks.remove(sessionName);
+    }
+
+    /**
+     * Registers a callback invoked whenever a session gets a QR code with new
+     * content.
+     */
+    public void addListener(Consumer<QrCodeImage> listener) {
+        listeners.add(listener);
+    }
+
+    private QrCodeImage store(String sessionName, byte[] png) {
+        QrCodeImage image = new QrCodeImage(sessionName, png, etagOf(png), Instant.now());
+        QrCodeImage previous = images.put(sessionName, image);
+
+        if (previous == null || !previous.etag().equals(image.etag())) {
+            logger.debug("QR CODE CHANGED | session={} | etag={}", sessionName, image.etag());
+            listeners.forEach(l -> l.accept(image));
+        }
+
+        return image;
+    }
+
+    private static String etagOf(byte[] png) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(png);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.heureca.wppgateway.service;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.heureca.wppgateway.model.ProviderSessionState;
+import com.heureca.wppgateway.model.QrCodeImage;
+import com.heureca.wppgateway.model.SessionStatusSnapshot;
+
+/**
+ * Server-Sent Events delivery of QR codes during pairing.
+ *
+ * Subscribers of a session share one provider fetch per TTL; an event is
+ * pushed only when the QR content changes, and the stream completes with a
+ * {@code connected} event once the session is paired.
+ */
+@Service
+public class QrCodePushService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QrCodePushService.class);
+
+    private final QrCodeCache qrCodeCache;
+    private final SessionStatusCache statusCache;
+
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    @Value("${gateway.qrcode.stream-timeout-ms:120000}")
+    private long streamTimeoutMs;
+
+    public QrCodePushService(QrCodeCache qrCodeCache, SessionStatusCache statusCache) {
+        this.qrCodeCache = qrCodeCache;
+        this.statusCache = statusCache;
+        qrCodeCache.addListener(this::publish);
+    }
+
+    public SseEmitter subscribe(String sessionName, String token) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        tokens.put(sessionName, token);
+        emitters.computeIfAbsent(sessionName, k -> new CopyOnWriteArrayList<>()).add(emitter);
+
+        emitter.onCompletion(() -> remove(sessionName, emitter));
+        emitter.onTimeout(() -> remove(sessionName, emitter));
+        emitter.onError(e -> remove(sessionName, emitter));
+
+        // 🔹 Primeiro evento imediato com o QR atual
+        try {
+            send(emitter, qrCodeCache.get(sessionName, token));
+        } catch (Exception e) {
+            logger.debug("Initial QR code unavailable | session={} | {}", sessionName, e.getMessage());
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Swaps the token the poll uses for a streamed session once
+     * {@link SessionTokenRefresher} renewed it; no-op without subscribers.
+     */
+    public void tokenRefreshed(String sessionName, String token) {
+        tokens.computeIfPresent(sessionName, (k, old) -> token);
+    }
+
+    /**
+     * Refreshes the QR code of every session with subscribers. The cache only
+     * calls the provider once the TTL expired, and {@link #publish} fires only
+     * on content changes.
+     */
+    @Scheduled(fixedDelayString = "${gateway.qrcode.push-poll-ms:2000}")
+    public void poll() {
+        for (String sessionName : emitters.keySet()) {
+
+            boolean connected = statusCache.get(sessionName)
+                    .map(SessionStatusSnapshot::state)
+                    .map(s -> s == ProviderSessionState.CONNECTED)
+                    .orElse(false);
+
+            if (connected) {
+                completeConnected(sessionName);
+                continue;
+            }
+
+            try {
+                qrCodeCache.get(sessionName, tokens.get(sessionName));
+            } catch (Exception e) {
+                logger.debug("QR code refresh failed | session={} | {}", sessionName, e.getMessage());
+            }
+        }
+    }
+
+    private void publish(QrCodeImage image) {
+        List<SseEmitter> subscribers = emitters.get(image.sessionName());
+        if (subscribers == null) {
+            return;
+        }
+
+        for (SseEmitter emitter : subscribers) {
+            try {
+                send(emitter, image);
+            } catch (Exception e) {
+                remove(image.sessionName(), emitter);
+            }
+        }
+    }
+
+    private void completeConnected(String sessionName) {
+        List<SseEmitter> subscribers = emitters.remove(sessionName);
+        tokens.remove(sessionName);
+        qrCodeCache.evict(sessionName);
+
+        if (subscribers == null) {
+            return;
+        }
+
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("connected")
+                        .data(Map.of("session", sessionName, "state", ProviderSessionState.CONNECTED)));
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, QrCodeImage image) throws IOException {
+        emitter.send(SseEmitter.event()
+                .name("qrcode")
+                .id(image.etag())
+                .data(Map.of(
+                        "format", "png",
+                        "encoding", "base64",
+                        "data", Base64.getEncoder().encodeToString(image.png()),
+                        "etag", image.etag())));
+    }
+
+    private void remove(String sessionName, SseEmitter emitter) {
+        List<SseEmitter> subscribers = emitters.get(sessionName);
+        if (subscribers == null) {
+            return;
+        }
+
+        subscribers.remove(emitter);
+        if (subscribers.isEmpty()) {
+            emitters.remove(sessionName, subscribers);
+            tokens.remove(sessionName);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.heureca.wppgateway.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.model.QuotaKind;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Daily quotas spent from blocks leased out of MySQL.
+ *
+ * A replica leases {@code block-size} units of a counter at a time
+ * ({@link QuotaLedger}) and spends them in memory, so a counter row is
+ * written once per block instead of once per request, and replicas
+ * together never exceed the limit. Units left over go back after
+ * {@code idle-return-ms} without use, at the day change and on shutdown.
+ * A crashed replica strands at most one block per counter until midnight.
+ *
+ * {@code block-size: 1} is exact accounting with one write per unit.
+ */
+@Service
+public class QuotaLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuotaLeaseService.class);
+
+    // 🔹 Deadlock / lock wait timeout no lease: tentativas antes de virar erro no envio
+    private static final int LEASE_ATTEMPTS = 3;
+
+    private static final class Lease {
+        final QuotaKind kind;
+        final String id;
+        LocalDate day;
+        long remaining;
+        long exhaustedUntil;
+        long lastUsed;
+        boolean retired;
+
+        Lease(QuotaKind kind, String id) {
+            this.kind = kind;
+            this.id = id;
+        }
+    }
+
+    private final QuotaLedger ledger;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    @Value("${gateway.quota.block-size:20}")
+    private long blockSize;
+    @Value("${gateway.quota.idle-return-ms:30000}")
+    private long idleReturnMs;
+    @Value("${gateway.quota.exhausted-recheck-ms:5000}")
+    private long exhaustedRecheckMs;
+
+    public QuotaLeaseService(QuotaLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    /**
+     * Spends one unit if the quota allows it.
+     */
+    public boolean tryConsume(QuotaKind kind, String id, Long limit) {
+        while (true) {
+            Lease lease = lease(kind, id);
+            synchronized (lease) {
+                if (lease.retired) {
+                    continue;
+                }
+                if (!refill(lease, limit)) {
+                    return false;
+                }
+                lease.remaining--;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Whether one more unit is available, without spending it.
+     */
+    public boolean available(QuotaKind kind, String id, Long limit) {
+        while (true) {
+            Lease lease = lease(kind, id);
+            synchronized (lease) {
+                if (!lease.retired) {
+                    return refill(lease, limit);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records one unit of work already done: from the lease when possible,
+     * otherwise straight on the counter, even past the limit.
+     */
+    public void consume(QuotaKind kind, String id, Long limit) {
+        while (true) {
+            Lease lease = lease(kind, id);
+            synchronized (lease) {
+                if (lease.retired) {
+                    continue;
+                }
+                if (refill(lease, limit)) {
+                    lease.remaining--;
+                } else {
+                    ledger.overdraw(kind, id, lease.day, 1);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Units used today across replicas: the counter minus what this replica
+     * still holds (other replicas' unused blocks still count as used).
+     */
+    public long usedToday(QuotaKind kind, String id) {
+        LocalDate today = LocalDate.now();
+        long held = 0;
+
+        Lease lease = leases.get(key(kind, id));
+        if (lease != null) {
+            synchronized (lease) {
+                held = today.equals(lease.day) ? lease.remaining : 0;
+            }
+        }
+        return Math.max(0, ledger.count(kind, id, today) - held);
+    }
+
+    private Lease lease(QuotaKind kind, String id) {
+        return leases.computeIfAbsent(key(kind, id), k -> new Lease(kind, id));
+    }
+
+    private static String key(QuotaKind kind, String id) {
+        return kind.name() + ":" + id;
+    }
+
+    /**
+     * Makes sure the lease holds a unit of today's quota; false when the
+     * limit is reached. Caller holds the lease monitor.
+     */
+    private boolean refill(Lease lease, Long limit) {
+        LocalDate today = LocalDate.now();
+        long now = System.currentTimeMillis();
+        lease.lastUsed = now;
+
+        if (!today.equals(lease.day)) {
+            giveBack(lease);
+            lease.day = today;
+            lease.exhaustedUntil = 0;
+        }
+
+        if (lease.remaining > 0) {
+            return true;
+        }
+        // 🔹 Limite batido há pouco: não consulta o banco a cada request
+        if (now < lease.exhaustedUntil) {
+            return false;
+        }
+
+        long granted = leaseFromLedger(lease, today, limit);
+
+        if (granted == 0) {
+            lease.exhaustedUntil = now + exhaustedRecheckMs;
+            return false;
+        }
+        lease.remaining = granted;
+        return true;
+    }
+
+    /**
+     * InnoDB can still pick the lease as a deadlock victim (e.g. against a
+     * give-back of another replica); the transaction was rolled back, so it
+     * is simply run again.
+     */
+    private long leaseFromLedger(Lease lease, LocalDate day, Long limit) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return ledger.lease(lease.kind, lease.id, day, blockSize, limit);
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= LEASE_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Quota lease retry | {}:{} attempt={} cause={}",
+                        lease.kind, lease.id, attempt, e.getMessage());
+            }
+        }
+    }
+
+    private void giveBack(Lease lease) {
+        if (lease.day == null || lease.remaining == 0) {
+            return;
+        }
+        try {
+            ledger.giveBack(lease.kind, lease.id, lease.day, lease.remaining);
+        } catch (Exception e) {
+            logger.warn("Quota give-back failed | {}:{} units={} cause={}",
+                    lease.kind, lease.id, lease.remaining, e.getMessage());
+        }
+        lease.remaining = 0;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.quota.sweep-ms:10000}")
+    public void returnIdle() {
+        long cutoff = System.currentTimeMillis() - idleReturnMs;
+
+        leases.values().forEach(lease -> {
+            synchronized (lease) {
+                if (lease.lastUsed < cutoff) {
+                    giveBack(lease);
+                    lease.retired = true;
+                    leases.remove(key(lease.kind, lease.id), lease);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops every lease without returning it. For harnesses that wipe the
+     * usage tables between runs.
+     */
+    public void clear() {
+        leases.values().forEach(lease -> {
+            synchronized (lease) {
+                lease.retired = true;
+            }
+        });
+        leases.clear();
+    }
+
+    @PreDestroy
+    void returnAll() {
+        leases.values().forEach(lease -> {
+            synchronized (lease) {
+                giveBack(lease);
+                lease.retired = true;
+            }
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.heureca.wppgateway.service;
+
+import java.time.LocalDate;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.heureca.wppgateway.model.QuotaKind;
+import com.heureca.wppgateway.repository.ApiClientJdbcRepository;
+import com.heureca.wppgateway.repository.UsageCounterJdbcRepository;
+import com.heureca.wppgateway.repository.UsageCounterJdbcRepository.Counter;
+
+/**
+ * The MySQL side of quota leasing: the daily counter rows, changed under
+ * a row lock. A counter holds units used plus units leased and not yet
+ * returned, so it never lets replicas together go past the limit.
+ *
+ * Runs on every block lease, so it goes through the JDBC repositories
+ * rather than loading entities.
+ */
+@Component
+public class QuotaLedger {
+
+    private final ApiClientJdbcRepository clients;
+    private final UsageCounterJdbcRepository counters;
+
+    public QuotaLedger(ApiClientJdbcRepository clients, UsageCounterJdbcRepository counters) {
+        this.clients = clients;
+        this.counters = counters;
+    }
+
+    /**
+     * Takes up to {@code want} units of the day's quota; returns how many
+     * were granted (0 = limit reached). {@code limit} null = unlimited, the
+     * counter still moves.
+     */
+    @Transactional
+    public long lease(QuotaKind kind, String id, LocalDate day, long want, Long limit) {
+        if (kind == QuotaKind.CLIENT_REQUESTS) {
+            OptionalLong locked = clients.lockDailyUsage(id, day);
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            long granted = grant(want, limit, locked.getAsLong());
+            if (granted > 0) {
+                clients.setDailyUsage(id, day, locked.getAsLong() + granted);
+            }
+            return granted;
+        }
+
+        Counter counter = counterOf(kind);
+        // 🔹 Linha do dia criada antes do lock: FOR UPDATE trava só a linha, sem gap lock
+        counters.ensure(counter, id, day);
+        OptionalInt locked = counters.lock(counter, id, day);
+        long granted = grant(want, limit, locked.orElse(0));
+        if (granted > 0) {
+            counters.add(counter, id, day, (int) granted);
+        }
+        return granted;
+    }
+
+    /**
+     * Hands unused leased units back, so other replicas can take them.
+     */
+    @Transactional
+    public void giveBack(QuotaKind kind, String id, LocalDate day, long units) {
+        if (kind == QuotaKind.CLIENT_REQUESTS) {
+            clients.addDailyUsage(id, day, -units);
+        } else {
+            counters.add(counterOf(kind), id, day, (int) -units);
+        }
+    }
+
+    /**
+     * Counts usage past the limit: the message already went out (the
+     * check passed, then concurrent sends took the last units).
+     */
+    @Transactional
+    public void overdraw(QuotaKind kind, String id, LocalDate day, int units) {
+        if (kind == QuotaKind.CLIENT_REQUESTS) {
+            OptionalLong locked = clients.lockDailyUsage(id, day);
+            if (locked.isPresent()) {
+                clients.setDailyUsage(id, day, locked.getAsLong() + units);
+            }
+            return;
+        }
+
+        Counter counter = counterOf(kind);
+        counters.ensure(counter, id, day);
+        counters.add(counter, id, day, units);
+    }
+
+    /**
+     * Counter as stored: used plus leased-but-unused units of every replica.
+     */
+    public long count(QuotaKind kind, String id, LocalDate day) {
+        return kind == QuotaKind.CLIENT_REQUESTS
+                ? clients.countDailyUsage(id, day)
+                : counters.count(counterOf(kind), id, day);
+    }
+
+    private static Counter counterOf(QuotaKind kind) {
+        return switch (kind) {
+            case CLIENT_MESSAGES -> Counter.MESSAGE_USAGE;
+            case SESSION_MESSAGES -> Counter.SESSION_USAGE;
+            case CLIENT_REQUESTS -> throw new IllegalArgumentException(kind.name());
+        };
+    }
+
+    /**
+     * Blocks shrink to half of what is left near the limit, so the last
+     * units are not all parked on one replica.
+     */
+    static long grant(long want, Long limit, long used) {
+        if (limit == null) {
+            return want;
+        }
+        long left = limit - used;
+        if (left <= 0) {
+            return 0;
+        }
+        return Math.min(want, Math.max(1, left / 2));
+    }
+}
@@ -0,0 +1,58 @@
+package com.heureca.wppgateway.service;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.heureca.wppgateway.util.RequestTrace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * First filter in the chain: assigns the request id (or accepts a sane
+ * {@code X-Request-Id} from the caller), puts it in the logging MDC and on
+ * the response, and starts the {@link RequestTrace} for phase timings.
+ */
+@Component
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{8,64}");
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String incoming = request.getHeader(RequestTrace.HEADER);
+        String requestId = incoming != null && VALID_ID.matcher(incoming).matches()
+                ? incoming
+                : UUID.randomUUID().toString();
+
+        RequestTrace trace = new RequestTrace(requestId);
+        request.setAttribute(RequestTrace.ATTRIBUTE, trace);
+        response.setHeader(RequestTrace.HEADER, requestId);
+        MDC.put(RequestTrace.MDC_KEY, requestId);
+
+        try {
+            filterChain.doFilter(request, response);
+
+            // 🔹 Respostas sem corpo não passam pelo ServerTimingAdvice
+            if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+                response.setHeader(SERVER_TIMING, trace.serverTiming());
+            }
+        } finally {
+            MDC.remove(RequestTrace.MDC_KEY);
+        }
+    }
+}
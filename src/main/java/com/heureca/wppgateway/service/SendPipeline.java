@@ -0,0 +1,188 @@
+package com.heureca.wppgateway.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.dto.SendRequest;
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.model.SessionRoute;
+import com.heureca.wppgateway.model.WppBackend;
+
+/**
+ * The path every send endpoint takes: resolve the session, authorize the
+ * client on it, check quotas, dispatch to WPPConnect and account the usage.
+ *
+ * Session lookups go through {@link SessionDirectory} and quotas through
+ * the in-memory leases, so a send reads the database at most once (cold
+ * session cache) and not at all when warm; a quota block refill or a
+ * rejection that reports usage are the exceptions.
+ *
+ * A send WPPConnect rejects with 401 is retried once with a renewed token
+ * ({@link SessionTokenRefresher}).
+ *
+ * Usage is counted only for sends WPPConnect accepted (2xx): a
+ * short-circuited call (breaker open, bulkhead full) or a provider error
+ * spends no quota. Read receipts ({@link #receipt}) are outside the
+ * client and session limits.
+ */
+@Service
+public class SendPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(SendPipeline.class);
+
+    /**
+     * Everything resolved for one send; built once, after every check passed.
+     */
+    public record Context<T extends SendRequest>(
+            ApiClient client,
+            String session,
+            String token,
+            WppBackend backend,
+            T body) {
+    }
+
+    private final SessionDirectory sessions;
+    private final WppBackendRegistry backendRegistry;
+    private final SessionConnectionGate connectionGate;
+    private final UsageService usageService;
+    private final SessionUsageService sessionUsageService;
+    private final GatewayMetrics metrics;
+    private final SessionTokenRefresher tokenRefresher;
+
+    public SendPipeline(
+            SessionDirectory sessions,
+            WppBackendRegistry backendRegistry,
+            SessionConnectionGate connectionGate,
+            UsageService usageService,
+            SessionUsageService sessionUsageService,
+            GatewayMetrics metrics,
+            SessionTokenRefresher tokenRefresher) {
+        this.sessions = sessions;
+        this.backendRegistry = backendRegistry;
+        this.connectionGate = connectionGate;
+        this.usageService = usageService;
+        this.sessionUsageService = sessionUsageService;
+        this.metrics = metrics;
+        this.tokenRefresher = tokenRefresher;
+    }
+
+    public <T extends SendRequest> ResponseEntity<?> send(
+            ApiClient client,
+            T body,
+            Function<Context<T>, ResponseEntity<?>> dispatch) {
+        return run(client, body, true, dispatch);
+    }
+
+    /**
+     * Same path for calls that are not messages (send-seen): no quota check
+     * and no usage counted.
+     */
+    public <T extends SendRequest> ResponseEntity<?> receipt(
+            ApiClient client,
+            T body,
+            Function<Context<T>, ResponseEntity<?>> dispatch) {
+        return run(client, body, false, dispatch);
+    }
+
+    private <T extends SendRequest> ResponseEntity<?> run(
+            ApiClient client,
+            T body,
+            boolean metered,
+            Function<Context<T>, ResponseEntity<?>> dispatch) {
+
+        String sessionName = body.session();
+
+        // 🔹 resolve
+        Optional<SessionRoute> found = sessions.find(sessionName);
+        if (found.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "session not found",
+                    "session", sessionName));
+        }
+        SessionRoute session = found.get();
+
+        // 🔹 authorize
+        if (!client.getApiKey().equals(session.clientApiKey())) {
+            return ResponseEntity.status(403).body(Map.of(
+                    "error", "session does not belong to client",
+                    "session", sessionName));
+        }
+
+        if (session.wppToken() == null) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", "wpp token missing for session",
+                    "session", sessionName));
+        }
+
+        Optional<ResponseEntity<?>> notConnected = connectionGate.check(sessionName);
+        if (notConnected.isPresent()) {
+            return notConnected.get();
+        }
+
+        // 🔹 quota
+        if (metered && !usageService.canSend(client)) {
+            metrics.rejected("client_daily_limit");
+            return ResponseEntity.status(429).body(Map.of(
+                    "error", "client daily limit exceeded",
+                    "limit", client.getDailyLimit(),
+                    "used", usageService.getUsageToday(client.getApiKey())));
+        }
+
+        if (metered && !sessionUsageService.canSendMessage(sessionName)) {
+            metrics.rejected("session_daily_limit");
+            return ResponseEntity.status(429).body(Map.of(
+                    "error", "session daily limit exceeded (anti-block protection)",
+                    "limit", SessionUsageService.SESSION_DAILY_LIMIT,
+                    "used", sessionUsageService.getUsageToday(sessionName),
+                    "session", sessionName));
+        }
+
+        // 🔹 dispatch
+        Context<T> context = new Context<>(
+                client,
+                sessionName,
+                session.wppToken(),
+                backendRegistry.backendFor(sessionName),
+                body);
+
+        ResponseEntity<?> response = dispatch.apply(context);
+
+        // 🔹 401 do provider = token recusado: renova (uma vez por sessão) e repete o envio
+        if (providerStatus(response) == 401) {
+            Optional<String> token = tokenRefresher.refresh(sessionName, context.token());
+
+            if (token.isPresent()) {
+                context = new Context<>(client, sessionName, token.get(), context.backend(), body);
+                response = dispatch.apply(context);
+            }
+        }
+
+        // 🔹 account: só o que o provider aceitou
+        int status = providerStatus(response);
+        if (metered && status >= 200 && status < 300) {
+            usageService.increment(client, 1);
+            sessionUsageService.recordUsage(sessionName);
+        }
+
+        logger.debug("SEND | client={} | session={} | backend={} | status={}",
+                client.getId(), sessionName, context.backend().id(), status);
+
+        return response;
+    }
+
+    /**
+     * Status WPPConnect answered with; some endpoints wrap the provider
+     * response in a 200 of their own.
+     */
+    private static int providerStatus(ResponseEntity<?> response) {
+        return response.getBody() instanceof ResponseEntity<?> inner
+                ? inner.getStatusCode().value()
+                : response.getStatusCode().value();
+    }
+}
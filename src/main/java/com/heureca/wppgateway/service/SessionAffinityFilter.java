@@ -0,0 +1,295 @@
+package com.heureca.wppgateway.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.heureca.wppgateway.model.GatewayNode;
+import com.heureca.wppgateway.util.RequestSessions;
+import com.heureca.wppgateway.util.RequestTrace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Hands requests for a session owned by another replica (see
+ * {@link GatewayMembership}) over to that replica, before authentication,
+ * so rate limits, usage and provider calls are counted once, by the owner.
+ *
+ * {@code gateway.cluster.mode=forward} proxies the request and streams the
+ * answer back (SSE included); {@code redirect} answers 307 to the owner's
+ * address, for clients that can reach the replicas directly.
+ *
+ * A forwarded request carries {@value #FORWARDED_BY} and is always served
+ * where it lands, so replicas that briefly disagree on membership never
+ * bounce it back and forth. If the owner refuses the connection the
+ * request is served locally instead.
+ *
+ * The header is {@code <node id>;<epoch ms>;<hex HMAC-SHA256>} over node
+ * id, timestamp, method and path, keyed by {@code gateway.cluster.secret}.
+ * One that does not verify, or is older than
+ * {@code gateway.cluster.forward-max-skew-ms}, is ignored: a client cannot
+ * pick the replica that serves its session.
+ */
+@Component
+public class SessionAffinityFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionAffinityFilter.class);
+
+    public static final String FORWARDED_BY = "X-Gateway-Forwarded-By";
+
+    // 🔹 Hop-by-hop, ou definidos pelo próprio HttpClient
+    private static final Set<String> SKIP_REQUEST_HEADERS = Set.of(
+            "host", "connection", "content-length", "expect", "upgrade", "keep-alive",
+            "transfer-encoding", "te", "trailer", "proxy-connection", "http2-settings");
+    private static final Set<String> SKIP_RESPONSE_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "trailer", "upgrade", ":status");
+
+    private final GatewayMembership membership;
+    private final GatewayMetrics metrics;
+    private final HttpClient http;
+    private final SecretKeySpec forwardKey;
+
+    @Value("${gateway.cluster.mode:forward}")
+    private String mode;
+    @Value("${gateway.cluster.forward-timeout-ms:90000}")
+    private long forwardTimeoutMs;
+    @Value("${gateway.cluster.forward-max-skew-ms:30000}")
+    private long forwardMaxSkewMs;
+
+    public SessionAffinityFilter(
+            GatewayMembership membership,
+            GatewayMetrics metrics,
+            @Value("${gateway.cluster.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${gateway.cluster.enabled:false}") boolean clusterEnabled,
+            @Value("${gateway.cluster.secret:}") String clusterSecret) {
+        if (clusterEnabled && clusterSecret.isBlank()) {
+            throw new IllegalStateException(
+                    "gateway.cluster.secret is required when gateway.cluster.enabled=true");
+        }
+        this.membership = membership;
+        this.metrics = metrics;
+        this.forwardKey = clusterSecret.isBlank()
+                ? null
+                : new SecretKeySpec(clusterSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+
+        return !membership.isClustered()
+                || isSignedForward(request)
+                || path.startsWith("/api/start-session")
+                || !(path.startsWith("/api/") || path.startsWith("/webhooks/"));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        CachedBodyHttpServletRequest req = new CachedBodyHttpServletRequest(request);
+
+        String session = RequestSessions.fromPath(request.getRequestURI());
+        if (session == null && req.getBody().length > 0 && isJson(request)) {
+            session = RequestSessions.fromJson(req.getBody());
+        }
+
+        Optional<GatewayNode> owner = session != null ? membership.remoteOwnerOf(session) : Optional.empty();
+        if (owner.isEmpty()) {
+            filterChain.doFilter(req, response);
+            return;
+        }
+
+        String target = owner.get().getAddress() + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+
+        if ("redirect".equalsIgnoreCase(mode)) {
+            metrics.sessionAffinity("redirected");
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, target);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            forward(req, response, target);
+            metrics.sessionAffinity("forwarded");
+
+        } catch (ConnectException | HttpConnectTimeoutException e) {
+            // 🔹 Dono fora do ar (ainda no anel até o heartbeat expirar): atende aqui
+            metrics.sessionAffinity("served_locally");
+            logger.warn("SESSION OWNER UNREACHABLE | session={} owner={} cause={}",
+                    session, owner.get().getNodeId(), e.toString());
+            filterChain.doFilter(req, response);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            metrics.sessionAffinity("failed");
+            if (!response.isCommitted()) {
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Interrupted while forwarding");
+            }
+
+        } catch (IOException e) {
+            metrics.sessionAffinity("failed");
+            logger.warn("SESSION FORWARD FAILED | session={} owner={} cause={}",
+                    session, owner.get().getNodeId(), e.toString());
+            if (!response.isCommitted()) {
+                response.sendError(HttpStatus.BAD_GATEWAY.value(), "Session owner replica did not answer");
+            }
+        } finally {
+            RequestTrace.add("forward", System.nanoTime() - start);
+        }
+    }
+
+    private void forward(CachedBodyHttpServletRequest request, HttpServletResponse response, String target)
+            throws IOException, InterruptedException {
+
+        byte[] body = request.getBody();
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target))
+                .timeout(Duration.ofMillis(forwardTimeoutMs))
+                .method(request.getMethod(), body.length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (SKIP_REQUEST_HEADERS.contains(name.toLowerCase(Locale.ROOT))
+                    || FORWARDED_BY.equalsIgnoreCase(name)) {
+                continue;
+            }
+            for (String value : Collections.list(request.getHeaders(name))) {
+                builder.header(name, value);
+            }
+        }
+
+        // 🔹 Mesmo requestId nos logs das duas réplicas
+        if (request.getHeader(RequestTrace.HEADER) == null
+                && request.getAttribute(RequestTrace.ATTRIBUTE) instanceof RequestTrace trace) {
+            builder.header(RequestTrace.HEADER, trace.getRequestId());
+        }
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        builder.header(FORWARDED_BY, membership.nodeId() + ";" + timestamp + ";"
+                + sign(membership.nodeId(), timestamp, request.getMethod(), request.getRequestURI()));
+
+        HttpResponse<InputStream> upstream = http.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+
+        response.setStatus(upstream.statusCode());
+        for (Map.Entry<String, List<String>> header : upstream.headers().map().entrySet()) {
+            if (SKIP_RESPONSE_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            boolean first = true;
+            for (String value : header.getValue()) {
+                if (first) {
+                    response.setHeader(header.getKey(), value);
+                    first = false;
+                } else {
+                    response.addHeader(header.getKey(), value);
+                }
+            }
+        }
+
+        // 🔹 SSE (qrcode/stream): flush a cada evento, senão o cliente só vê o fim
+        boolean eventStream = upstream.headers().firstValue(HttpHeaders.CONTENT_TYPE)
+                .map(ct -> ct.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE))
+                .orElse(false);
+
+        try (InputStream in = upstream.body()) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+                if (eventStream) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        }
+    }
+
+    private boolean isSignedForward(HttpServletRequest request) {
+        String header = request.getHeader(FORWARDED_BY);
+        if (header == null || forwardKey == null) {
+            return false;
+        }
+
+        String[] parts = header.split(";", 3);
+        if (parts.length != 3) {
+            return false;
+        }
+
+        long timestamp;
+        try {
+            timestamp = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        if (Math.abs(System.currentTimeMillis() - timestamp) > forwardMaxSkewMs) {
+            return false;
+        }
+
+        String expected = sign(parts[0], parts[1], request.getMethod(), request.getRequestURI());
+        return MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8),
+                parts[2].getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String sign(String nodeId, String timestamp, String method, String path) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(forwardKey);
+            byte[] hash = mac.doFinal((nodeId + "\n" + timestamp + "\n" + method + "\n" + path)
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isJson(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json");
+    }
+}
@@ -0,0 +1,68 @@
+package com.heureca.wppgateway.service;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.model.ProviderSessionState;
+import com.heureca.wppgateway.model.SessionStatusSnapshot;
+
+/**
+ * Rejects sends to sessions whose cached provider state says they cannot
+ * deliver, before any call reaches WPPConnect.
+ *
+ * Fails open: no snapshot, an UNKNOWN state or a snapshot older than
+ * {@code gateway.send-gate.max-age-ms} lets the send through.
+ */
+@Service
+public class SessionConnectionGate {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionConnectionGate.class);
+
+    private final SessionStatusCache statusCache;
+    private final GatewayMetrics metrics;
+
+    @Value("${gateway.send-gate.enabled:true}")
+    private boolean enabled;
+    @Value("${gateway.send-gate.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    public SessionConnectionGate(SessionStatusCache statusCache, GatewayMetrics metrics) {
+        this.statusCache = statusCache;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns a 409 response when the session is known not to be CONNECTED.
+     */
+    public Optional<ResponseEntity<?>> check(String sessionName) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Optional<SessionStatusSnapshot> blocking = statusCache.get(sessionName)
+                .filter(s -> s.state() != ProviderSessionState.CONNECTED)
+                .filter(s -> s.state() != ProviderSessionState.UNKNOWN)
+                .filter(s -> s.ageMillis() <= maxAgeMs);
+
+        if (blocking.isEmpty()) {
+            return Optional.empty();
+        }
+
+        SessionStatusSnapshot snapshot = blocking.get();
+        logger.debug("SEND REJECTED | session={} | state={}", sessionName, snapshot.state());
+        metrics.rejected("session_not_connected");
+
+        return Optional.of(ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "error", "session not connected",
+                "session", sessionName,
+                "state", snapshot.state(),
+                "checkedAt", snapshot.checkedAt().toString())));
+    }
+}
@@ -0,0 +1,68 @@
+package com.heureca.wppgateway.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.model.SessionRoute;
+import com.heureca.wppgateway.repository.SessionRouteJdbcRepository;
+import com.heureca.wppgateway.util.RequestTrace;
+
+/**
+ * Owner, token and backend of each session for the send path, cached so a
+ * send does not read the session row every time.
+ *
+ * An entry is reloaded after {@code gateway.session-cache.ttl-ms}; writers
+ * on this replica (start-session, delete, drain) evict it right away, and a
+ * change made by another replica is picked up on reload. Missing sessions
+ * are not cached: a session created elsewhere is visible on the next send.
+ */
+@Service
+public class SessionDirectory {
+
+    private record Entry(SessionRoute route, long loadedAt) {
+    }
+
+    private final SessionRouteJdbcRepository sessionRoutes;
+    private final WppBackendRegistry backendRegistry;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${gateway.session-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    public SessionDirectory(SessionRouteJdbcRepository sessionRoutes, WppBackendRegistry backendRegistry) {
+        this.sessionRoutes = sessionRoutes;
+        this.backendRegistry = backendRegistry;
+    }
+
+    public Optional<SessionRoute> find(String sessionName) {
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(sessionName);
+
+        if (cached != null && now - cached.loadedAt() < ttlMs) {
+            return Optional.of(cached.route());
+        }
+
+        Optional<SessionRoute> loaded = RequestTrace.time("session",
+                () -> sessionRoutes.findBySessionName(sessionName));
+
+        if (loaded.isEmpty()) {
+            entries.remove(sessionName);
+            return Optional.empty();
+        }
+
+        // 🔹 Mesma linha serve o registry: backendFor(sessionName) não relê o banco
+        backendRegistry.remember(loaded.get());
+
+        SessionRoute route = loaded.get();
+        entries.put(sessionName, new Entry(route, now));
+        return Optional.of(route);
+    }
+
+    public void evict(String sessionName) {
+        entries.remove(sessionName);
+    }
+}
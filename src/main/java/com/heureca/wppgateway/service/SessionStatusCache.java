@@ -0,0 +1,48 @@
+package com.heureca.wppgateway.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.model.ProviderSessionState;
+import com.heureca.wppgateway.model.SessionStatusSnapshot;
+
+/**
+ * In-memory view of the provider state of every known session.
+ * Filled by {@link SessionStatusReconciler}; read by the status endpoints.
+ */
+@Service
+public class SessionStatusCache {
+
+    private final Map<String, SessionStatusSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public Optional<SessionStatusSnapshot> get(String sessionName) {
+        return Optional.ofNullable(snapshots.get(sessionName));
+    }
+
+    public SessionStatusSnapshot put(String sessionName, ProviderSessionState state, Map<?, ?> providerStatus) {
+        SessionStatusSnapshot snapshot = new SessionStatusSnapshot(
+                sessionName,
+                state,
+                providerStatus != null ? providerStatus : Map.of(),
+                Instant.now());
+
+        snapshots.put(sessionName, snapshot);
+        return snapshot;
+    }
+
+    public void evict(String sessionName) {
+        snapshots.remove(sessionName);
+    }
+
+    /**
+     * Drops snapshots of sessions that no longer exist in the database.
+     */
+    public void retainOnly(Set<String> sessionNames) {
+        snapshots.keySet().retainAll(sessionNames);
+    }
+}
@@ -0,0 +1,173 @@
+package com.heureca.wppgateway.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.heureca.wppgateway.model.ProviderSessionState;
+import com.heureca.wppgateway.model.SessionEntity;
+import com.heureca.wppgateway.model.SessionStatusSnapshot;
+import com.heureca.wppgateway.repository.SessionRepository;
+import com.heureca.wppgateway.util.Workload;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Polls WPPConnect {@code status-session} for every session in the background
+ * and keeps {@link SessionStatusCache} and {@code sessions.status} up to date.
+ *
+ * Sessions are polled on an interval that depends on their last known state:
+ * pairing sessions change every few seconds, connected ones rarely do.
+ * With several gateway replicas each one polls only the sessions it owns
+ * ({@link GatewayMembership}).
+ */
+@Component
+public class SessionStatusReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStatusReconciler.class);
+
+    private final SessionRepository sessionRepository;
+    private final SessionStatusCache statusCache;
+    private final WppService wppService;
+    private final GatewayMembership membership;
+    private final ExecutorService executor;
+
+    @Value("${gateway.reconciler.enabled:true}")
+    private boolean enabled;
+    @Value("${gateway.reconciler.interval.pairing-ms:5000}")
+    private long pairingIntervalMs;
+    @Value("${gateway.reconciler.interval.connected-ms:60000}")
+    private long connectedIntervalMs;
+    @Value("${gateway.reconciler.interval.disconnected-ms:120000}")
+    private long disconnectedIntervalMs;
+    @Value("${gateway.reconciler.interval.not-found-ms:300000}")
+    private long notFoundIntervalMs;
+    @Value("${gateway.reconciler.interval.unknown-ms:15000}")
+    private long unknownIntervalMs;
+
+    public SessionStatusReconciler(
+            SessionRepository sessionRepository,
+            SessionStatusCache statusCache,
+            WppService wppService,
+            GatewayMembership membership,
+            GatewayMetrics metrics,
+            @Value("${gateway.reconciler.max-concurrency:4}") int maxConcurrency,
+            @Value("${gateway.reconciler.queue-size:1000}") int queueSize) {
+        this.sessionRepository = sessionRepository;
+        this.statusCache = statusCache;
+        this.wppService = wppService;
+        this.membership = membership;
+        this.executor = metrics.boundedExecutor("session-reconciler", Workload.BACKGROUND, maxConcurrency, queueSize);
+    }
+
+    @Scheduled(
+            initialDelayString = "${gateway.reconciler.initial-delay-ms:10000}",
+            fixedDelayString = "${gateway.reconciler.tick-ms:5000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+
+        // 🔹 Com várias réplicas, cada uma consulta só as sessões que possui
+        List<SessionEntity> sessions = sessionRepository.findAll().stream()
+                .filter(s -> membership.owns(s.getSessionName()))
+                .toList();
+
+        Set<String> names = sessions.stream()
+                .map(SessionEntity::getSessionName)
+                .collect(Collectors.toSet());
+        statusCache.retainOnly(names);
+
+        List<Future<?>> pending = new ArrayList<>();
+
+        for (SessionEntity session : sessions) {
+            if (session.getWppToken() == null || !isDue(session.getSessionName())) {
+                continue;
+            }
+            try {
+                pending.add(executor.submit(() -> refresh(session)));
+            } catch (RejectedExecutionException e) {
+                // 🔹 Fila cheia: o resto continua vencido e entra no próximo tick
+                logger.debug("Reconciler queue full, {} sessions left for the next tick", sessions.size() - pending.size());
+                break;
+            }
+        }
+
+        // 🔹 Wait for this round so ticks never overlap
+        for (Future<?> f : pending) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.debug("Session reconciliation task failed: {}", e.getMessage());
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            logger.debug("RECONCILED {} of {} sessions", pending.size(), sessions.size());
+        }
+    }
+
+    /**
+     * Returns the cached state of a session, fetching it from the provider
+     * only when nothing has been cached yet.
+     */
+    public SessionStatusSnapshot current(SessionEntity session) {
+        return statusCache.get(session.getSessionName())
+                .orElseGet(() -> refresh(session));
+    }
+
+    /**
+     * Fetches the provider state of a single session right now and stores it.
+     */
+    public SessionStatusSnapshot refresh(SessionEntity session) {
+        String sessionName = session.getSessionName();
+
+        Map<?, ?> providerStatus = wppService.getSessionStatus(sessionName, session.getWppToken());
+        ProviderSessionState state = ProviderSessionState.fromProviderStatus(providerStatus);
+
+        SessionStatusSnapshot snapshot = statusCache.put(sessionName, state, providerStatus);
+
+        if (!state.name().equals(session.getStatus())) {
+            sessionRepository.updateStatus(sessionName, state.name());
+            session.setStatus(state.name());
+            logger.debug("SESSION STATE CHANGED | session={} | state={}", sessionName, state);
+        }
+
+        return snapshot;
+    }
+
+    private boolean isDue(String sessionName) {
+        return statusCache.get(sessionName)
+                .map(s -> s.ageMillis() >= intervalFor(s.state()))
+                .orElse(true);
+    }
+
+    private long intervalFor(ProviderSessionState state) {
+        return switch (state) {
+            case INITIALIZING, QRCODE -> pairingIntervalMs;
+            case CONNECTED -> connectedIntervalMs;
+            case DISCONNECTED -> disconnectedIntervalMs;
+            case NOT_FOUND -> notFoundIntervalMs;
+            case UNKNOWN -> unknownIntervalMs;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,144 @@
+package com.heureca.wppgateway.service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.model.SessionRoute;
+import com.heureca.wppgateway.repository.SessionRouteJdbcRepository;
+
+/**
+ * Renews a session's WPPConnect token when the provider rejects it (401),
+ * e.g. after the WPPConnect secret changed.
+ *
+ * Single-flight per session: the first request that sees the 401 calls
+ * generate-token, the others that arrive meanwhile wait for its result. The
+ * row is updated only if it still holds the rejected token, so a request
+ * that arrives later, or another replica, just rereads the token already
+ * renewed instead of generating one more.
+ *
+ * A renewed token also replaces the one held by open QR streams
+ * ({@link QrCodePushService}), and the session's cached QR code is dropped,
+ * so the next fetch goes out with the new token.
+ */
+@Service
+public class SessionTokenRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionTokenRefresher.class);
+
+    private final WppService wppService;
+    private final SessionDirectory sessions;
+    private final SessionRouteJdbcRepository sessionRoutes;
+    private final GatewayMetrics metrics;
+    private final QrCodePushService qrCodePush;
+    private final QrCodeCache qrCodeCache;
+    private final Map<String, CompletableFuture<Optional<String>>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${gateway.provider.token-refresh.enabled:true}")
+    private boolean enabled;
+
+    public SessionTokenRefresher(
+            WppService wppService,
+            SessionDirectory sessions,
+            SessionRouteJdbcRepository sessionRoutes,
+            GatewayMetrics metrics,
+            QrCodePushService qrCodePush,
+            QrCodeCache qrCodeCache) {
+        this.wppService = wppService;
+        this.sessions = sessions;
+        this.sessionRoutes = sessionRoutes;
+        this.metrics = metrics;
+        this.qrCodePush = qrCodePush;
+        this.qrCodeCache = qrCodeCache;
+    }
+
+    /**
+     * @param rejected the token WPPConnect answered 401 to
+     * @return the token to retry with; empty when there is none (refresh
+     *         disabled, session gone, generate-token failed)
+     */
+    public Optional<String> refresh(String sessionName, String rejected) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        CompletableFuture<Optional<String>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<String>> running = inFlight.putIfAbsent(sessionName, mine);
+
+        if (running != null) {
+            metrics.tokenRefresh("joined");
+            return running.join();
+        }
+
+        try {
+            Optional<String> token = renew(sessionName, rejected);
+            token.ifPresent(t -> renewed(sessionName, t));
+            mine.complete(token);
+            return token;
+
+        } catch (RuntimeException e) {
+            mine.complete(Optional.empty());
+            throw e;
+
+        } finally {
+            inFlight.remove(sessionName, mine);
+        }
+    }
+
+    private void renewed(String sessionName, String token) {
+        qrCodePush.tokenRefreshed(sessionName, token);
+        qrCodeCache.evict(sessionName);
+    }
+
+    private Optional<String> renew(String sessionName, String rejected) {
+        // 🔹 Relê a linha: outro request ou réplica pode já ter renovado
+        sessions.evict(sessionName);
+        Optional<SessionRoute> route = sessions.find(sessionName);
+
+        if (route.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String current = route.get().wppToken();
+        if (current != null && !current.equals(rejected)) {
+            metrics.tokenRefresh("reloaded");
+            return Optional.of(current);
+        }
+
+        String token;
+        try {
+            Map<?, ?> tokenResp = wppService.generateWppToken(sessionName);
+            token = Objects.toString(tokenResp == null ? null : tokenResp.get("token"), null);
+        } catch (RuntimeException e) {
+            logger.warn("TOKEN REFRESH FAILED | session={} cause={}", sessionName, e.getMessage());
+            metrics.tokenRefresh("failed");
+            return Optional.empty();
+        }
+
+        if (token == null || token.isBlank()) {
+            logger.warn("TOKEN REFRESH FAILED | session={} cause=no token in generate-token response", sessionName);
+            metrics.tokenRefresh("failed");
+            return Optional.empty();
+        }
+
+        if (sessionRoutes.updateToken(sessionName, rejected, token) == 0) {
+            // 🔹 Outra réplica gravou antes: vale o token dela
+            sessions.evict(sessionName);
+            Optional<String> stored = sessions.find(sessionName).map(SessionRoute::wppToken);
+            metrics.tokenRefresh("reloaded");
+            return stored;
+        }
+
+        sessions.evict(sessionName);
+        metrics.tokenRefresh("refreshed");
+        logger.info("TOKEN REFRESHED | session={}", sessionName);
+        return Optional.of(token);
+    }
+}
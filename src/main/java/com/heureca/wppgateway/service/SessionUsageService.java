@@ -2,54 +2,42 @@ package com.heureca.wppgateway.service;
 
 import org.springframework.stereotype.Service;
 
-import com.heureca.wppgateway.model.SessionUsage;
-import com.heureca.wppgateway.repository.SessionUsageRepository;
+import com.heureca.wppgateway.model.QuotaKind;
+import com.heureca.wppgateway.util.RequestTrace;
 
-import java.time.LocalDate;
 import java.util.Optional;
 
 @Service
 public class SessionUsageService {
 
-    private final SessionUsageRepository sessionUsageRepository;
-    private static final int SESSION_DAILY_LIMIT = 450;
+    private final QuotaLeaseService quota;
+    public static final long SESSION_DAILY_LIMIT = 450;
 
-    public SessionUsageService(SessionUsageRepository sessionUsageRepository) {
-        this.sessionUsageRepository = sessionUsageRepository;
+    public SessionUsageService(QuotaLeaseService quota) {
+        this.quota = quota;
     }
 
     /**
      * Verifica se a sessão pode enviar mais mensagens hoje
      */
     public boolean canSendMessage(String sessionName) {
-        Integer count = sessionUsageRepository.countTodayBySession(sessionName, LocalDate.now());
-        return count == null || count < SESSION_DAILY_LIMIT;
+        return RequestTrace.time("limits",
+                () -> quota.available(QuotaKind.SESSION_MESSAGES, sessionName, SESSION_DAILY_LIMIT));
     }
 
     /**
-     * Registra uso da sessão (incrementa contador)
+     * Registra uso da sessão (consome do bloco de cota já concedido)
      */
     public void recordUsage(String sessionName) {
-        Optional<SessionUsage> usageOpt = sessionUsageRepository
-                .findBySessionNameAndDate(sessionName, LocalDate.now());
-
-        if (usageOpt.isPresent()) {
-            // Se já existe registro, incrementa
-            sessionUsageRepository.incrementCount(sessionName, LocalDate.now());
-        } else {
-            // Se não existe, cria novo
-            SessionUsage usage = new SessionUsage(sessionName);
-            usage.setCount(1);
-            sessionUsageRepository.save(usage);
-        }
+        RequestTrace.time("usage",
+                () -> quota.consume(QuotaKind.SESSION_MESSAGES, sessionName, SESSION_DAILY_LIMIT));
     }
 
     /**
      * Obtém contagem de uso da sessão hoje
      */
     public int getUsageToday(String sessionName) {
-        Integer count = sessionUsageRepository.countTodayBySession(sessionName, LocalDate.now());
-        return count != null ? count : 0;
+        return (int) quota.usedToday(QuotaKind.SESSION_MESSAGES, sessionName);
     }
 
     /**
@@ -64,4 +52,4 @@ public class SessionUsageService {
         }
         return Optional.empty();
     }
-}
\ No newline at end of file
+}
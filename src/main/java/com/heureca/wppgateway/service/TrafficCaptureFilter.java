@@ -0,0 +1,189 @@
+package com.heureca.wppgateway.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.util.RequestSessions;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Samples requests and records their sanitized shape for replay.
+ *
+ * Only the route template, sizes, timing, status and a few header flags
+ * are kept. Sessions and clients become stable pseudonyms (truncated
+ * HMAC-SHA256), so a replay keeps per-session skew without carrying names,
+ * keys, phones or message content.
+ */
+@Component
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private final TrafficCaptureWriter writer;
+
+    @Value("${gateway.capture.enabled:false}")
+    private boolean enabled;
+    @Value("${gateway.capture.sample-rate:0.01}")
+    private double sampleRate;
+    @Value("${gateway.capture.max-parse-bytes:65536}")
+    private int maxParseBytes;
+
+    private final SecretKeySpec pseudonymKey;
+
+    public TrafficCaptureFilter(
+            TrafficCaptureWriter writer,
+            @Value("${gateway.capture.pseudonym-key:}") String pseudonymKey) {
+        this.writer = writer;
+
+        // 🔹 Sem chave configurada: aleatória por processo (pseudônimos estáveis só nesta execução)
+        byte[] key = pseudonymKey.isBlank() ? randomKey() : pseudonymKey.getBytes(StandardCharsets.UTF_8);
+        this.pseudonymKey = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    private static byte[] randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+
+        return !enabled
+                || path.startsWith("/actuator")
+                || path.startsWith("/swagger-ui")
+                || path.startsWith("/v3/api-docs")
+                || ThreadLocalRandom.current().nextDouble() >= sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+
+        // 🔹 Body pequeno em JSON: guardamos para achar o "session" depois
+        HttpServletRequest req = request;
+        long length = request.getContentLengthLong();
+        if (length > 0 && length <= maxParseBytes && isJson(request)) {
+            req = new CachedBodyHttpServletRequest(request);
+        }
+
+        try {
+            filterChain.doFilter(req, response);
+        } finally {
+            writer.submit(describe(req, response, startMillis, System.nanoTime() - start, length));
+        }
+    }
+
+    private Map<String, Object> describe(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            long startMillis,
+            long elapsedNanos,
+            long requestBytes) {
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        ApiClient client = (ApiClient) request.getAttribute("apiClient");
+
+        Map<String, Object> r = new LinkedHashMap<>();
+        r.put("ts", startMillis);
+        r.put("method", request.getMethod());
+        r.put("route", pattern != null ? pattern.toString() : "(unmatched)");
+        r.put("session", pseudonym(sessionOf(request)));
+        r.put("client", client != null ? pseudonym(client.getApiKey()) : null);
+        r.put("query", queryKeys(request));
+        r.put("requestBytes", requestBytes);
+        r.put("contentType", request.getContentType());
+        r.put("auth", authKind(request));
+        r.put("idempotencyKey", request.getHeader(IdempotencyFilter.HEADER) != null);
+        r.put("ifNoneMatch", request.getHeader(HttpHeaders.IF_NONE_MATCH) != null);
+        r.put("status", response.getStatus());
+        r.put("durationMs", elapsedNanos / 1_000_000.0);
+        return r;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String sessionOf(HttpServletRequest request) {
+        Object vars = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (vars instanceof Map<?, ?> m && m.get("session") != null) {
+            return ((Map<String, String>) m).get("session");
+        }
+
+        if (request instanceof CachedBodyHttpServletRequest cached) {
+            return RequestSessions.fromJson(cached.getBody());
+        }
+        return null;
+    }
+
+    private static List<String> queryKeys(HttpServletRequest request) {
+        String query = request.getQueryString();
+        if (query == null || query.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(query.split("&"))
+                .map(pair -> pair.split("=", 2)[0])
+                .filter(key -> !key.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private static String authKind(HttpServletRequest request) {
+        if (request.getHeader("X-RapidAPI-User") != null) {
+            return "rapidapi";
+        }
+        if (request.getHeader("X-Api-Key") != null) {
+            return "api-key";
+        }
+        return "none";
+    }
+
+    private static boolean isJson(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().contains("json");
+    }
+
+    /**
+     * HMAC, not a plain hash: session names embed phone numbers, which are
+     * cheap to brute-force from an unkeyed digest.
+     */
+    private String pseudonym(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(pseudonymKey);
+            byte[] hash = mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 6);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.heureca.wppgateway.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Appends captured request shapes to rotating JSONL files
+ * ({@code capture-yyyyMMdd-HHmmss.jsonl}) from a single background thread.
+ *
+ * Request threads only enqueue; when the queue is full the record is
+ * dropped (and counted) rather than slowing the request down.
+ */
+@Service
+public class TrafficCaptureWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficCaptureWriter.class);
+
+    private static final DateTimeFormatter FILE_TS = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<String> queue;
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Value("${gateway.capture.enabled:false}")
+    private boolean enabled;
+    @Value("${gateway.capture.directory:./capture}")
+    private Path directory;
+    @Value("${gateway.capture.max-file-bytes:67108864}")
+    private long maxFileBytes;
+    @Value("${gateway.capture.max-files:10}")
+    private int maxFiles;
+
+    private Thread worker;
+    private volatile boolean running;
+    private BufferedWriter out;
+    private long written;
+
+    public TrafficCaptureWriter(
+            ObjectMapper objectMapper,
+            @Value("${gateway.capture.queue-size:10000}") int queueSize) {
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("traffic-capture").start(this::drain);
+        logger.info("Traffic capture enabled | dir={}", directory.toAbsolutePath());
+    }
+
+    public void submit(Map<String, Object> record) {
+        if (!running) {
+            return;
+        }
+        try {
+            if (!queue.offer(objectMapper.writeValueAsString(record))) {
+                dropped.incrementAndGet();
+            }
+        } catch (JsonProcessingException e) {
+            logger.debug("Capture record not serializable: {}", e.getMessage());
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void drain() {
+        List<String> batch = new ArrayList<>();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                String first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 511);
+
+                for (String line : batch) {
+                    write(line);
+                }
+                out.flush();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException e) {
+                logger.warn("Traffic capture write failed: {}", e.getMessage());
+                closeQuietly();
+            } finally {
+                batch.clear();
+            }
+        }
+
+        closeQuietly();
+    }
+
+    private void write(String line) throws IOException {
+        if (out == null || written >= maxFileBytes) {
+            rotate();
+        }
+        out.write(line);
+        out.newLine();
+        written += line.length() + 1;
+    }
+
+    private void rotate() throws IOException {
+        closeQuietly();
+        Files.createDirectories(directory);
+
+        Path file = directory.resolve("capture-" + LocalDateTime.now().format(FILE_TS) + ".jsonl");
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        written = Files.size(file);
+
+        pruneOldFiles();
+    }
+
+    private void pruneOldFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> captures = files
+                    .filter(p -> p.getFileName().toString().startsWith("capture-"))
+                    .sorted()
+                    .toList();
+
+            for (int i = 0; i < captures.size() - maxFiles; i++) {
+                Files.deleteIfExists(captures.get(i));
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // nada a fazer: o próximo write abre um arquivo novo
+        }
+        out = null;
+    }
+}
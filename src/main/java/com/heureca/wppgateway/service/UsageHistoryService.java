@@ -0,0 +1,141 @@
+package com.heureca.wppgateway.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.heureca.wppgateway.repository.UsageCounterJdbcRepository.Counter;
+import com.heureca.wppgateway.repository.UsageHistoryJdbcRepository;
+
+/**
+ * Keeps the daily usage tables bounded and their history cheap to read.
+ *
+ * Every {@code gateway.usage.rollup-ms} the current and previous month are
+ * recomputed into the {@code *_monthly} tables (days already closed do
+ * not change, so older months stay as they are). Once a day the monthly
+ * partitions are kept {@code gateway.usage.partitions-ahead} months ahead
+ * and months past {@code gateway.usage.retention-months} are rolled up and
+ * dropped with {@code DROP PARTITION} (a DELETE where the tables are not
+ * partitioned).
+ *
+ * Every replica runs it; all steps are idempotent, and DDL that another
+ * replica got to first only logs a warning.
+ */
+@Service
+public class UsageHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsageHistoryService.class);
+
+    private final UsageHistoryJdbcRepository history;
+
+    @Value("${gateway.usage.retention-months:13}")
+    private int retentionMonths;
+
+    @Value("${gateway.usage.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    public UsageHistoryService(UsageHistoryJdbcRepository history) {
+        this.history = history;
+    }
+
+    @Scheduled(
+            initialDelayString = "${gateway.usage.rollup-initial-delay-ms:60000}",
+            fixedDelayString = "${gateway.usage.rollup-ms:300000}")
+    public void rollup() {
+        LocalDate today = LocalDate.now();
+        YearMonth previous = YearMonth.from(today.minusDays(1));
+        YearMonth current = YearMonth.from(today);
+
+        for (Counter counter : Counter.values()) {
+            try {
+                // 🔹 Logo após a virada do mês: fecha o anterior com os ajustes do último dia
+                if (!previous.equals(current)) {
+                    history.rollupMonth(counter, previous);
+                }
+                history.rollupMonth(counter, current);
+            } catch (DataAccessException e) {
+                logger.warn("Usage rollup failed for {}: {}", counter.table(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${gateway.usage.maintenance-cron:0 30 3 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        YearMonth oldestKept = current.minusMonths(Math.max(1, retentionMonths) - 1L);
+        boolean partitioned;
+        try {
+            partitioned = history.partitioned();
+        } catch (DataAccessException e) {
+            logger.warn("Usage maintenance skipped: {}", e.getMessage());
+            return;
+        }
+
+        for (Counter counter : Counter.values()) {
+            try {
+                List<YearMonth> partitions = partitioned ? history.partitions(counter) : List.of();
+
+                // 🔹 Particionada: o mês mais antigo vem do catálogo, sem MIN(date) na tabela toda
+                YearMonth oldest = partitions.isEmpty()
+                        ? history.oldestDay(counter).map(YearMonth::from).orElse(current)
+                        : partitions.get(0);
+                backfillRollups(counter, oldest, current.minusMonths(1));
+
+                if (partitions.isEmpty()) {
+                    int removed = history.deleteBefore(counter, oldestKept.atDay(1));
+                    if (removed > 0) {
+                        logger.info("USAGE RETENTION | table={} deleted={}", counter.table(), removed);
+                    }
+                    continue;
+                }
+
+                YearMonth last = partitions.get(partitions.size() - 1);
+                for (YearMonth m = last.plusMonths(1); !m.isAfter(current.plusMonths(partitionsAhead)); m = m.plusMonths(1)) {
+                    history.addPartition(counter, m);
+                    logger.info("USAGE PARTITION | table={} added={}", counter.table(), m);
+                }
+
+                for (YearMonth m : partitions) {
+                    if (m.isBefore(oldestKept)) {
+                        history.dropPartition(counter, m);
+                        logger.info("USAGE RETENTION | table={} dropped={}", counter.table(), m);
+                    }
+                }
+            } catch (DataAccessException e) {
+                logger.warn("Usage maintenance failed for {}: {}", counter.table(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Monthly totals of one client ({@code message_usage}) or session
+     * ({@code session_usage}) for the last {@code months} months, the
+     * current one included (as of the last rollup). Read-only: served by
+     * the read replica when there is one.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> monthly(Counter counter, String key, int months) {
+        return history.monthly(counter, key, YearMonth.now().minusMonths(Math.max(1, months) - 1L));
+    }
+
+    /**
+     * Months with daily rows and no rollup yet: history that predates the
+     * rollup tables. Done before any of it can be dropped.
+     */
+    private void backfillRollups(Counter counter, YearMonth first, YearMonth until) {
+        for (YearMonth m = first; !m.isAfter(until); m = m.plusMonths(1)) {
+            if (!history.hasRollup(counter, m)) {
+                history.rollupMonth(counter, m);
+            }
+        }
+    }
+}
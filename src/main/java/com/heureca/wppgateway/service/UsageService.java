@@ -2,32 +2,39 @@ package com.heureca.wppgateway.service;
 
 import org.springframework.stereotype.Service;
 
-import com.heureca.wppgateway.model.MessageUsage;
-import com.heureca.wppgateway.repository.MessageUsageRepository;
-
-import java.time.LocalDate;
+import com.heureca.wppgateway.model.ApiClient;
+import com.heureca.wppgateway.model.QuotaKind;
+import com.heureca.wppgateway.util.RequestTrace;
 
 @Service
 public class UsageService {
-    private final MessageUsageRepository repo;
+    private final QuotaLeaseService quota;
 
-    public UsageService(MessageUsageRepository repo) {
-        this.repo = repo;
+    public UsageService(QuotaLeaseService quota) {
+        this.quota = quota;
     }
 
     public int getUsageToday(String apiKey) {
-        return repo.findByClientApiKeyAndDate(apiKey, LocalDate.now()).map(MessageUsage::getCount).orElse(0);
+        return (int) quota.usedToday(QuotaKind.CLIENT_MESSAGES, apiKey);
+    }
+
+    /**
+     * Mensagens do cliente hoje abaixo do daily_limit (null = sem limite).
+     */
+    public boolean canSend(ApiClient client) {
+        return RequestTrace.time("limits",
+                () -> quota.available(QuotaKind.CLIENT_MESSAGES, client.getApiKey(), client.getDailyLimit()));
     }
 
-    public void increment(String apiKey, int delta) {
-        MessageUsage mu = repo.findByClientApiKeyAndDate(apiKey, LocalDate.now()).orElseGet(() -> {
-            MessageUsage m = new MessageUsage();
-            m.setClientApiKey(apiKey);
-            m.setDate(LocalDate.now());
-            m.setCount(0);
-            return m;
+    /**
+     * Consome do bloco de cota já concedido; message_usage só é escrito a
+     * cada bloco (QuotaLeaseService).
+     */
+    public void increment(ApiClient client, int delta) {
+        RequestTrace.time("usage", () -> {
+            for (int i = 0; i < delta; i++) {
+                quota.consume(QuotaKind.CLIENT_MESSAGES, client.getApiKey(), client.getDailyLimit());
+            }
         });
-        mu.setCount(mu.getCount() + delta);
-        repo.save(mu);
     }
 }
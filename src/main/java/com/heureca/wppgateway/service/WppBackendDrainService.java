@@ -0,0 +1,272 @@
+package com.heureca.wppgateway.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.heureca.wppgateway.model.ProviderSessionState;
+import com.heureca.wppgateway.model.SessionEntity;
+import com.heureca.wppgateway.model.WppBackend;
+import com.heureca.wppgateway.repository.SessionRepository;
+import com.heureca.wppgateway.util.Workload;
+
+/**
+ * Moves every session off a WPPConnect backend so it can be taken down.
+ *
+ * The backend stops receiving new sessions, then its sessions are moved in
+ * batches: close on the old backend, reassign, start on the least-loaded
+ * accepting backend. The next batch begins once the current one is
+ * CONNECTED again (or {@code batch-timeout-ms} expires), so only a batch
+ * worth of sessions is ever offline.
+ *
+ * Sessions come back without QR pairing only if the backends share the
+ * WPPConnect token store; otherwise they end up waiting for a new QR code.
+ */
+@Service
+public class WppBackendDrainService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WppBackendDrainService.class);
+
+    public enum Phase { RUNNING, CANCELLED, COMPLETED }
+
+    /**
+     * Progress of one drain; read by the admin endpoint while it runs.
+     */
+    public static final class Drain {
+        private final String backend;
+        private final int batchSize;
+        private final Instant startedAt = Instant.now();
+        private final Map<String, String> moved = new ConcurrentHashMap<>();
+        private final Map<String, String> failed = new ConcurrentHashMap<>();
+        private volatile Phase phase = Phase.RUNNING;
+        private volatile int total;
+        private volatile int batch;
+        private volatile List<String> notConnected = List.of();
+        private volatile Instant finishedAt;
+
+        Drain(String backend, int batchSize) {
+            this.backend = backend;
+            this.batchSize = batchSize;
+        }
+
+        public Map<String, Object> snapshot() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("backend", backend);
+            m.put("phase", phase);
+            m.put("batchSize", batchSize);
+            m.put("batch", batch);
+            m.put("total", total);
+            m.put("moved", moved.size());
+            m.put("failed", failed);
+            m.put("notConnectedAfterBatchTimeout", notConnected);
+            m.put("startedAt", startedAt.toString());
+            m.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+            return m;
+        }
+    }
+
+    private final WppBackendRegistry registry;
+    private final WppService wppService;
+    private final SessionRepository sessionRepository;
+    private final SessionStatusCache statusCache;
+    private final QrCodeCache qrCodeCache;
+    private final ProviderResilience resilience;
+    private final SessionDirectory sessionDirectory;
+    private final Map<String, Drain> drains = new ConcurrentHashMap<>();
+
+    @Value("${gateway.backend-drain.batch-timeout-ms:120000}")
+    private long batchTimeoutMs;
+    @Value("${gateway.backend-drain.poll-ms:3000}")
+    private long pollMs;
+    @Value("${gateway.backend-drain.pause-ms:5000}")
+    private long pauseMs;
+
+    public WppBackendDrainService(
+            WppBackendRegistry registry,
+            WppService wppService,
+            SessionRepository sessionRepository,
+            SessionStatusCache statusCache,
+            QrCodeCache qrCodeCache,
+            ProviderResilience resilience,
+            SessionDirectory sessionDirectory) {
+        this.registry = registry;
+        this.wppService = wppService;
+        this.sessionRepository = sessionRepository;
+        this.statusCache = statusCache;
+        this.qrCodeCache = qrCodeCache;
+        this.resilience = resilience;
+        this.sessionDirectory = sessionDirectory;
+    }
+
+    /**
+     * Starts draining the backend in the background. Returns the running
+     * drain when one is already in progress.
+     */
+    public synchronized Drain start(WppBackend backend, int batchSize) {
+        Drain current = drains.get(backend.id());
+        if (current != null && current.phase == Phase.RUNNING) {
+            return current;
+        }
+
+        Drain drain = new Drain(backend.id(), Math.max(1, batchSize));
+        drains.put(backend.id(), drain);
+        registry.markDraining(backend.id());
+
+        Thread.ofPlatform().daemon().name("backend-drain-" + backend.id())
+                .start(Workload.BACKGROUND.wrap(() -> run(backend, drain)));
+        return drain;
+    }
+
+    public Optional<Drain> get(String backendId) {
+        return Optional.ofNullable(drains.get(backendId));
+    }
+
+    /**
+     * Stops after the current batch and lets the backend take new sessions
+     * again. Sessions already moved stay where they are.
+     */
+    public Optional<Drain> cancel(String backendId) {
+        Drain drain = drains.get(backendId);
+        if (drain != null && drain.phase == Phase.RUNNING) {
+            drain.phase = Phase.CANCELLED;
+        }
+        registry.stopDraining(backendId);
+        return Optional.ofNullable(drain);
+    }
+
+    private void run(WppBackend source, Drain drain) {
+        List<SessionEntity> sessions = registry.activeSessionsOn(source);
+        drain.total = sessions.size();
+
+        logger.info("BACKEND DRAIN STARTED | backend={} sessions={} batchSize={}",
+                source.id(), sessions.size(), drain.batchSize);
+
+        try {
+            for (int from = 0; from < sessions.size() && drain.phase == Phase.RUNNING; from += drain.batchSize) {
+                List<SessionEntity> batch = sessions.subList(from, Math.min(from + drain.batchSize, sessions.size()));
+                drain.batch++;
+
+                List<SessionEntity> started = new ArrayList<>();
+                for (SessionEntity session : batch) {
+                    if (move(session, source, drain)) {
+                        started.add(session);
+                    }
+                }
+
+                drain.notConnected = awaitConnected(started);
+                sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drain.phase = Phase.CANCELLED;
+        } finally {
+            if (drain.phase == Phase.RUNNING) {
+                drain.phase = Phase.COMPLETED;
+            }
+            drain.finishedAt = Instant.now();
+
+            logger.info("BACKEND DRAIN {} | backend={} moved={} failed={}",
+                    drain.phase, source.id(), drain.moved.size(), drain.failed.size());
+        }
+    }
+
+    private boolean move(SessionEntity session, WppBackend source, Drain drain) {
+        String name = session.getSessionName();
+
+        Optional<WppBackend> target = registry.choose();
+        if (target.isEmpty()) {
+            drain.failed.put(name, "no backend accepting sessions");
+            return false;
+        }
+
+        // 🔹 Fecha no backend antigo (pode estar fora do ar: segue mesmo assim)
+        try {
+            wppService.closeSession(name, session.getWppToken());
+        } catch (Exception e) {
+            logger.warn("DRAIN close failed | session={} backend={} cause={}", name, source.id(), e.getMessage());
+        }
+
+        registry.assign(name, target.get());
+        resilience.forget(name);
+        qrCodeCache.evict(name);
+
+        try {
+            Map<?, ?> tokenResp = wppService.generateWppToken(name);
+            String token = Objects.toString(tokenResp.get("token"), session.getWppToken());
+            session.setWppToken(token);
+
+            ResponseEntity<?> resp = wppService.startSession(name, token, new HashMap<>());
+
+            ProviderSessionState state = resp.getStatusCode().is2xxSuccessful()
+                    ? ProviderSessionState.INITIALIZING
+                    : ProviderSessionState.UNKNOWN;
+
+            session.setBackend(target.get().id());
+            session.setStatus(state.name());
+            sessionRepository.save(session);
+            statusCache.put(name, state, null);
+            // 🔹 Token novo: os envios deste nó releem a sessão
+            sessionDirectory.evict(name);
+
+            if (!resp.getStatusCode().is2xxSuccessful()) {
+                drain.failed.put(name, "start-session " + resp.getStatusCode().value() + " on " + target.get().id());
+                return false;
+            }
+
+            drain.moved.put(name, target.get().id());
+            logger.info("DRAIN moved | session={} {} -> {}", name, source.id(), target.get().id());
+            return true;
+
+        } catch (Exception e) {
+            drain.failed.put(name, e.getMessage());
+            logger.warn("DRAIN start failed | session={} target={} cause={}", name, target.get().id(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Polls the provider until every session is CONNECTED or the batch
+     * timeout expires; returns the ones still not connected.
+     */
+    private List<String> awaitConnected(List<SessionEntity> sessions) throws InterruptedException {
+        List<SessionEntity> pending = new ArrayList<>(sessions);
+        long deadline = System.currentTimeMillis() + batchTimeoutMs;
+
+        while (!pending.isEmpty() && System.currentTimeMillis() < deadline) {
+            pending.removeIf(s -> {
+                try {
+                    ProviderSessionState state = wppService.getProviderSessionState(s.getSessionName(), s.getWppToken());
+                    statusCache.put(s.getSessionName(), state, null);
+                    return state == ProviderSessionState.CONNECTED;
+                } catch (Exception e) {
+                    return false; // tenta de novo no próximo poll
+                }
+            });
+
+            if (!pending.isEmpty()) {
+                sleep(pollMs);
+            }
+        }
+
+        return pending.stream().map(SessionEntity::getSessionName).toList();
+    }
+
+    private static void sleep(long ms) throws InterruptedException {
+        if (ms > 0) {
+            TimeUnit.MILLISECONDS.sleep(ms);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.heureca.wppgateway.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+
+import com.heureca.wppgateway.model.WppBackend;
+import com.heureca.wppgateway.util.Workload;
+
+import io.micrometer.core.instrument.Gauge;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Active health checks of every WPPConnect backend.
+ *
+ * Each tick probes {@code /healthz} (latency) and
+ * {@code /api/{secret}/show-all-sessions} (session count), and folds in the
+ * backend failure rate seen by real traffic since the previous tick. A
+ * backend failing {@code unhealthy-after} ticks in a row is marked
+ * unhealthy and gets no new sessions until it passes
+ * {@code healthy-after} ticks in a row. Existing sessions are untouched:
+ * their calls are governed by the per-backend circuit breaker.
+ */
+@Component
+public class WppBackendHealth {
+
+    private static final Logger logger = LoggerFactory.getLogger(WppBackendHealth.class);
+
+    private static final class State {
+        volatile boolean healthy = true;
+        volatile int consecutiveFailures;
+        volatile int consecutiveSuccesses;
+        volatile Long latencyMs;
+        volatile Integer providerSessions;
+        volatile Double errorRate;
+        volatile String lastError;
+        volatile Instant checkedAt;
+        final LongAdder calls = new LongAdder();
+        final LongAdder failures = new LongAdder();
+    }
+
+    private final WppBackendRegistry registry;
+    private final RestTemplate probe;
+    private final ExecutorService executor;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    @Value("${wpp.secret-key}")
+    private String wppSecretKey;
+    @Value("${gateway.backend-health.enabled:true}")
+    private boolean enabled;
+    @Value("${gateway.backend-health.max-latency-ms:2000}")
+    private long maxLatencyMs;
+    @Value("${gateway.backend-health.max-error-rate:0.5}")
+    private double maxErrorRate;
+    @Value("${gateway.backend-health.min-calls:20}")
+    private long minCalls;
+    @Value("${gateway.backend-health.unhealthy-after:3}")
+    private int unhealthyAfter;
+    @Value("${gateway.backend-health.healthy-after:2}")
+    private int healthyAfter;
+
+    public WppBackendHealth(
+            WppBackendRegistry registry,
+            RestTemplateBuilder restTemplateBuilder,
+            GatewayMetrics metrics,
+            @Value("${gateway.backend-health.timeout-ms:3000}") long timeoutMs) {
+        this.registry = registry;
+
+        // 🔹 Timeout curto e próprio: o RestTemplate principal espera até 60 s
+        this.probe = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(timeoutMs))
+                .setReadTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+
+        // 🔹 Uma sonda por backend em paralelo; check() espera todas antes do próximo ciclo
+        int backends = registry.all().size();
+        this.executor = metrics.boundedExecutor("backend-health", Workload.BACKGROUND, backends, backends);
+
+        for (WppBackend backend : registry.all()) {
+            State state = new State();
+            states.put(backend.id(), state);
+
+            Gauge.builder("wpp.backend.healthy", state, st -> st.healthy ? 1 : 0)
+                    .description("WPPConnect backend health (1 healthy, 0 unhealthy)")
+                    .tag("backend", backend.id())
+                    .register(metrics.registry());
+            Gauge.builder("wpp.backend.sessions", state,
+                            st -> st.providerSessions != null ? st.providerSessions : Double.NaN)
+                    .description("Sessions reported by the WPPConnect backend")
+                    .tag("backend", backend.id())
+                    .register(metrics.registry());
+        }
+    }
+
+    /**
+     * Outcome of a real provider call; {@code backendFailure} as in
+     * {@link ProviderResilience.Outcome#BACKEND_FAILURE}.
+     */
+    public void recordCall(String backendId, boolean backendFailure) {
+        State state = states.get(backendId);
+        if (state == null) {
+            return;
+        }
+        state.calls.increment();
+        if (backendFailure) {
+            state.failures.increment();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${gateway.backend-health.initial-delay-ms:5000}",
+            fixedDelayString = "${gateway.backend-health.interval-ms:10000}")
+    public void check() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Future<?>> probes = new ArrayList<>();
+        for (WppBackend backend : registry.all()) {
+            probes.add(executor.submit(() -> check(backend)));
+        }
+
+        for (Future<?> f : probes) {
+            try {
+                f.get();
+            } catch (Exception e) {
+                logger.warn("Backend health check failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void check(WppBackend backend) {
+        State state = states.get(backend.id());
+
+        long calls = state.calls.sumThenReset();
+        long failures = state.failures.sumThenReset();
+        state.errorRate = calls > 0 ? (double) failures / calls : null;
+
+        String problem = null;
+
+        long start = System.nanoTime();
+        try {
+            probe.getForEntity(backend.baseUrl() + "/healthz", String.class);
+            state.latencyMs = (System.nanoTime() - start) / 1_000_000;
+
+            if (state.latencyMs > maxLatencyMs) {
+                problem = "slow healthz: " + state.latencyMs + "ms";
+            }
+        } catch (Exception e) {
+            state.latencyMs = null;
+            problem = "healthz: " + e.getMessage();
+        }
+
+        state.providerSessions = countSessions(backend);
+
+        if (problem == null && calls >= minCalls && state.errorRate > maxErrorRate) {
+            problem = String.format("error rate %.0f%% over %d calls", state.errorRate * 100, calls);
+        }
+
+        state.checkedAt = Instant.now();
+        state.lastError = problem;
+        update(backend, state, problem == null);
+    }
+
+    private void update(WppBackend backend, State state, boolean ok) {
+        if (ok) {
+            state.consecutiveFailures = 0;
+            state.consecutiveSuccesses++;
+
+            if (!state.healthy && state.consecutiveSuccesses >= healthyAfter) {
+                state.healthy = true;
+                registry.markHealthy(backend.id());
+                logger.info("WPPCONNECT BACKEND HEALTHY | backend={}", backend.id());
+            }
+            return;
+        }
+
+        state.consecutiveSuccesses = 0;
+        state.consecutiveFailures++;
+
+        if (state.healthy && state.consecutiveFailures >= unhealthyAfter) {
+            state.healthy = false;
+            registry.markUnhealthy(backend.id());
+            logger.warn("WPPCONNECT BACKEND UNHEALTHY | backend={} cause={}", backend.id(), state.lastError);
+        }
+    }
+
+    /**
+     * Sessions WPPConnect holds in memory; null when the endpoint fails
+     * (older servers or a wrong secret), which is not a health failure.
+     */
+    private Integer countSessions(WppBackend backend) {
+        try {
+            Map<?, ?> body = probe.getForObject(
+                    backend.baseUrl() + "/api/" + wppSecretKey + "/show-all-sessions", Map.class);
+            Object sessions = body != null ? body.get("response") : null;
+            return sessions instanceof List<?> list ? list.size() : null;
+        } catch (Exception e) {
+            logger.debug("show-all-sessions failed | backend={} cause={}", backend.id(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Admin view: health, probe results and placement state per backend.
+     * Read-only: the session counts come from the read replica when there
+     * is one.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> snapshot() {
+        Map<String, Long> assigned = registry.sessionCounts();
+        Map<String, Object> m = new LinkedHashMap<>();
+
+        for (WppBackend backend : registry.all()) {
+            State state = states.get(backend.id());
+
+            Map<String, Object> b = new LinkedHashMap<>();
+            b.put("baseUrl", backend.baseUrl());
+            b.put("healthy", state.healthy);
+            b.put("acceptingSessions", registry.isAccepting(backend.id()));
+            b.put("notAcceptingReason", registry.notAcceptingReason(backend.id()));
+            b.put("assignedSessions", assigned.get(backend.id()));
+            b.put("providerSessions", state.providerSessions);
+            b.put("latencyMs", state.latencyMs);
+            b.put("errorRate", state.errorRate);
+            b.put("consecutiveFailures", state.consecutiveFailures);
+            b.put("lastError", state.lastError);
+            b.put("checkedAt", state.checkedAt != null ? state.checkedAt.toString() : null);
+            m.put(backend.id(), b);
+        }
+        return m;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
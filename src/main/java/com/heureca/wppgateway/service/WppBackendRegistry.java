@@ -0,0 +1,289 @@
+package com.heureca.wppgateway.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.heureca.wppgateway.model.ProviderSessionState;
+import com.heureca.wppgateway.model.SessionEntity;
+import com.heureca.wppgateway.model.SessionRoute;
+import com.heureca.wppgateway.model.WppBackend;
+import com.heureca.wppgateway.repository.SessionRepository;
+import com.heureca.wppgateway.repository.SessionRouteJdbcRepository;
+
+/**
+ * WPPConnect instances the gateway spreads sessions over, and which one
+ * hosts each session.
+ *
+ * {@code wpp.backends} is a comma-separated {@code id=url} list; when empty
+ * the single {@code wpp.base-url} becomes backend {@value #DEFAULT_ID}. The
+ * first backend is the default: sessions created before placement existed
+ * ({@code wpp_backend} null) live there.
+ *
+ * A backend marked {@value #UNHEALTHY} (by {@link WppBackendHealth}) or
+ * {@value #DRAINING} (by {@link WppBackendDrainService}) keeps serving its
+ * sessions but receives no new ones.
+ */
+@Service
+public class WppBackendRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(WppBackendRegistry.class);
+
+    public static final String DEFAULT_ID = "default";
+
+    public static final String UNHEALTHY = "UNHEALTHY";
+    public static final String DRAINING = "DRAINING";
+
+    /** Estados em que o WPPConnect não mantém browser para a sessão. */
+    private static final List<String> INACTIVE_STATES = List.of(
+            ProviderSessionState.DISCONNECTED.name(),
+            ProviderSessionState.NOT_FOUND.name());
+
+    private record Assignment(WppBackend backend, long loadedAt) {
+    }
+
+    private final SessionRepository sessionRepository;
+    private final SessionRouteJdbcRepository sessionRoutes;
+    private final Map<String, WppBackend> backends;
+    private final WppBackend defaultBackend;
+    private final Map<String, Assignment> assignments = new ConcurrentHashMap<>();
+    // backend id → motivo de não receber sessões novas (DRAINING prevalece sobre UNHEALTHY)
+    private final Map<String, String> notAccepting = new ConcurrentHashMap<>();
+    // sessão → backend: escolhido por place() e ainda não salvo (não aparece no COUNT)
+    private final Map<String, String> pendingPlacements = new ConcurrentHashMap<>();
+
+    @Value("${wpp.backend.max-sessions:0}")
+    private long maxSessionsPerBackend;
+    @Value("${wpp.backend.assignment-ttl-ms:60000}")
+    private long assignmentTtlMs;
+
+    public WppBackendRegistry(
+            SessionRepository sessionRepository,
+            SessionRouteJdbcRepository sessionRoutes,
+            @Value("${wpp.backends:}") String backendsSpec,
+            @Value("${wpp.base-url}") String baseUrl) {
+        this.sessionRepository = sessionRepository;
+        this.sessionRoutes = sessionRoutes;
+        this.backends = parse(backendsSpec, baseUrl);
+        this.defaultBackend = backends.values().iterator().next();
+
+        logger.info("WPPConnect backends: {}", backends.values());
+    }
+
+    public Collection<WppBackend> all() {
+        return backends.values();
+    }
+
+    public Optional<WppBackend> get(String id) {
+        return Optional.ofNullable(backends.get(id));
+    }
+
+    public WppBackend defaultBackend() {
+        return defaultBackend;
+    }
+
+    /**
+     * Backend hosting the session. Cached per session; the cache entry is
+     * reloaded from the database after {@code wpp.backend.assignment-ttl-ms}
+     * so a move done by another replica is eventually picked up.
+     */
+    public WppBackend backendFor(String sessionName) {
+        long now = System.currentTimeMillis();
+        Assignment cached = assignments.get(sessionName);
+
+        if (cached != null && now - cached.loadedAt() < assignmentTtlMs) {
+            return cached.backend();
+        }
+
+        WppBackend backend = sessionRoutes.findBySessionName(sessionName)
+                .map(s -> resolve(s.backend(), sessionName))
+                .orElse(defaultBackend);
+
+        assignments.put(sessionName, new Assignment(backend, now));
+        return backend;
+    }
+
+    /**
+     * Picks the least-loaded backend (active sessions, then declaration
+     * order) among those accepting sessions and below
+     * {@code wpp.backend.max-sessions}, and sets it on the (not yet saved)
+     * session. Empty when no backend can take it. Counts come from the
+     * primary: a lagging replica would let a burst pass max-sessions.
+     *
+     * The caller saves the session after the lock is released, so a
+     * placement counts as pending until {@link #placementSaved(String)};
+     * concurrent start-sessions see each other's choices.
+     */
+    @Transactional
+    public synchronized Optional<WppBackend> place(SessionEntity session) {
+        Map<String, Long> load = loadWithPending();
+        Optional<WppBackend> chosen = leastLoaded(load);
+
+        chosen.ifPresent(b -> {
+            pendingPlacements.put(session.getSessionName(), b.id());
+            session.setBackend(b.id());
+            assignments.put(session.getSessionName(), new Assignment(b, System.currentTimeMillis()));
+            logger.info("SESSION PLACED | session={} backend={} load={}", session.getSessionName(), b.id(), load);
+        });
+
+        return chosen;
+    }
+
+    /**
+     * Ends the pending placement once the session row is saved (or the save
+     * failed).
+     */
+    public void placementSaved(String sessionName) {
+        pendingPlacements.remove(sessionName);
+    }
+
+    /**
+     * Moves an existing session to another backend.
+     */
+    public void assign(String sessionName, WppBackend backend) {
+        sessionRepository.updateBackend(sessionName, backend.id());
+        assignments.put(sessionName, new Assignment(backend, System.currentTimeMillis()));
+    }
+
+    /**
+     * Caches the assignment of a session row the caller already loaded, so
+     * {@link #backendFor(String)} does not read it again.
+     */
+    public WppBackend remember(SessionRoute session) {
+        WppBackend backend = resolve(session.backend(), session.sessionName());
+        assignments.put(session.sessionName(), new Assignment(backend, System.currentTimeMillis()));
+        return backend;
+    }
+
+    public void forget(String sessionName) {
+        assignments.remove(sessionName);
+    }
+
+    /**
+     * Where {@link #place} would put a session right now.
+     */
+    public Optional<WppBackend> choose() {
+        return leastLoaded(loadWithPending());
+    }
+
+    public boolean isAccepting(String id) {
+        return !notAccepting.containsKey(id);
+    }
+
+    /**
+     * Why the backend takes no new sessions, or null.
+     */
+    public String notAcceptingReason(String id) {
+        return notAccepting.get(id);
+    }
+
+    public void markUnhealthy(String id) {
+        notAccepting.putIfAbsent(id, UNHEALTHY);
+    }
+
+    public void markHealthy(String id) {
+        notAccepting.remove(id, UNHEALTHY);
+    }
+
+    public void markDraining(String id) {
+        notAccepting.put(id, DRAINING);
+    }
+
+    public void stopDraining(String id) {
+        notAccepting.remove(id, DRAINING);
+    }
+
+    /**
+     * Sessions currently assigned to the backend that still hold a browser
+     * there. Read from the primary: the drain saves them back.
+     */
+    @Transactional
+    public List<SessionEntity> activeSessionsOn(WppBackend backend) {
+        return sessionRepository.findAll().stream()
+                .filter(s -> resolve(s.getBackend(), s.getSessionName()).equals(backend))
+                .filter(s -> s.getStatus() == null || !INACTIVE_STATES.contains(s.getStatus()))
+                .toList();
+    }
+
+    /**
+     * Active sessions per backend id (every configured backend present).
+     * Read wherever the caller's transaction reads: the primary for
+     * placement, the replica for the admin view.
+     */
+    public Map<String, Long> sessionCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        backends.keySet().forEach(id -> counts.put(id, 0L));
+
+        for (Object[] row : sessionRepository.countByBackend(INACTIVE_STATES)) {
+            String id = resolve((String) row[0], null).id();
+            counts.merge(id, (Long) row[1], Long::sum);
+        }
+        return counts;
+    }
+
+    private Map<String, Long> loadWithPending() {
+        Map<String, Long> load = sessionCounts();
+        pendingPlacements.values().forEach(id -> load.merge(id, 1L, Long::sum));
+        return load;
+    }
+
+    private Optional<WppBackend> leastLoaded(Map<String, Long> load) {
+        return backends.values().stream()
+                .filter(b -> isAccepting(b.id()))
+                .filter(b -> maxSessionsPerBackend <= 0 || load.get(b.id()) < maxSessionsPerBackend)
+                .min((a, b) -> Long.compare(load.get(a.id()), load.get(b.id())));
+    }
+
+    private WppBackend resolve(String backendId, String sessionName) {
+        if (backendId == null) {
+            return defaultBackend;
+        }
+
+        WppBackend backend = backends.get(backendId);
+        if (backend == null) {
+            // 🔹 Backend removido da config: melhor tentar o default do que falhar sempre
+            logger.warn("Unknown WPPConnect backend '{}' (session={}); using {}",
+                    backendId, sessionName, defaultBackend.id());
+            return defaultBackend;
+        }
+        return backend;
+    }
+
+    private static Map<String, WppBackend> parse(String spec, String baseUrl) {
+        Map<String, WppBackend> m = new LinkedHashMap<>();
+
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int eq = entry.indexOf('=');
+            if (eq <= 0 || eq == entry.length() - 1) {
+                throw new IllegalArgumentException("wpp.backends entry must be id=url: '" + entry.trim() + "'");
+            }
+
+            String id = entry.substring(0, eq).trim();
+            String url = stripTrailingSlash(entry.substring(eq + 1).trim());
+            if (m.putIfAbsent(id, new WppBackend(id, url)) != null) {
+                throw new IllegalArgumentException("Duplicate wpp.backends id: " + id);
+            }
+        }
+
+        if (m.isEmpty()) {
+            m.put(DEFAULT_ID, new WppBackend(DEFAULT_ID, stripTrailingSlash(baseUrl)));
+        }
+        return m;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -1,8 +1,12 @@
 package com.heureca.wppgateway.service;
 
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,9 +21,22 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.heureca.wppgateway.dto.SendFileRequest;
+import com.heureca.wppgateway.dto.SendImageRequest;
+import com.heureca.wppgateway.dto.SendListRequest;
+import com.heureca.wppgateway.dto.SendMessageRequest;
+import com.heureca.wppgateway.dto.SendPollRequest;
+import com.heureca.wppgateway.dto.SendSeenRequest;
+import com.heureca.wppgateway.dto.SendStickerGifRequest;
+import com.heureca.wppgateway.exception.ProviderUnavailableException;
 import com.heureca.wppgateway.model.ProviderSessionState;
+import com.heureca.wppgateway.model.SessionStatusSnapshot;
+import com.heureca.wppgateway.model.WppBackend;
+import com.heureca.wppgateway.util.RequestTrace;
 
 @Service
 public class WppService {
@@ -27,16 +44,41 @@ public class WppService {
     private static final Logger logger = LoggerFactory.getLogger(WppService.class);
 
     private final RestTemplate rest;
-    @Value("${wpp.base-url}")
-    private String wppBaseUrl;
+    private final SessionStatusCache statusCache;
+    private final ObjectMapper objectMapper;
+    private final ProviderResilience resilience;
+    private final GatewayMetrics metrics;
+    private final WppBackendRegistry backends;
+    private final WppBackendHealth backendHealth;
     @Value("${wpp.secret-key}")
     private String wppSecretKey;
-
-    public WppService(RestTemplate rest) {
+    @Value("${gateway.provider.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+    @Value("${gateway.provider.retry.base-delay-ms:200}")
+    private long retryBaseDelayMs;
+    @Value("${gateway.provider.retry.max-delay-ms:2000}")
+    private long retryMaxDelayMs;
+
+    public WppService(
+            RestTemplate rest,
+            SessionStatusCache statusCache,
+            ObjectMapper objectMapper,
+            ProviderResilience resilience,
+            GatewayMetrics metrics,
+            WppBackendRegistry backends,
+            WppBackendHealth backendHealth) {
         this.rest = rest;
+        this.statusCache = statusCache;
+        this.objectMapper = objectMapper;
+        this.resilience = resilience;
+        this.metrics = metrics;
+        this.backends = backends;
+        this.backendHealth = backendHealth;
     }
 
     private ResponseEntity<?> forwardToWppConnect(
+            WppBackend backend,
+            String sessionName,
             String token,
             String url, HttpMethod method,
             Object body,
@@ -47,12 +89,36 @@ public class WppService {
 
         HttpEntity<?> request = new HttpEntity<>(body, headers);
 
+        try {
+            resilience.acquire(backend.id(), sessionName);
+        } catch (ProviderUnavailableException e) {
+            logger.debug("SHORT-CIRCUIT WPPCONNECT ({}): session={} reason={}", logName, sessionName, e.getReason());
+            metrics.rejected(e.getReason().toLowerCase());
+
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfterMs() / 1000)))
+                    .body(Map.of(
+                            "error", e.getReason(),
+                            "message", e.getMessage(),
+                            "session", sessionName,
+                            "backend", backend.id()));
+        }
+
+        ProviderResilience.Outcome outcome = ProviderResilience.Outcome.BACKEND_FAILURE;
+
         logger.debug("REQUEST WPPCONNECT ({}): {}", logName, url);
 
         try {
-            ResponseEntity<String> response = rest.exchange(url, method, request, String.class);
+            ResponseEntity<String> response = exchangeWithRetry(backend, url, method, request, logName);
 
             logger.debug("RESPONSE WPPCONNECT ({}): status={}", logName, response.getStatusCode());
+            outcome = ProviderResilience.Outcome.SUCCESS;
+
+            // 🔹 Envio aceito = sessão conectada
+            if (logName.startsWith("send-")) {
+                markConnected(sessionName);
+            }
 
             return ResponseEntity
                     .status(response.getStatusCode())
@@ -67,6 +133,9 @@ public class WppService {
                     e.getStatusCode(),
                     e.getResponseBodyAsString());
 
+            outcome = ProviderResilience.outcomeOf(e.getStatusCode().value());
+            observeProviderError(sessionName, e.getResponseBodyAsString());
+
             return ResponseEntity
                     .status(e.getStatusCode())
                     .body(e.getResponseBodyAsString());
@@ -80,15 +149,152 @@ public class WppService {
                     .body(Map.of(
                             "error", "WPP_CONNECT_UNAVAILABLE",
                             "message", e.getMessage()));
+        } finally {
+            resilience.release(backend.id(), sessionName, outcome);
+        }
+    }
+
+    /**
+     * Every WPPConnect round-trip goes through here so it is timed as
+     * {@code wpp.provider.requests{backend,operation,status}}.
+     */
+    private <T> ResponseEntity<T> exchange(
+            WppBackend backend,
+            String operation,
+            String url,
+            HttpMethod method,
+            HttpEntity<?> request,
+            Class<T> responseType) {
+
+        metrics.providerCallStarted();
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+
+        try {
+            ResponseEntity<T> response = rest.exchange(url, method, request, responseType);
+            status = String.valueOf(response.getStatusCode().value());
+            return response;
+
+        } catch (HttpStatusCodeException e) {
+            status = String.valueOf(e.getStatusCode().value());
+            throw e;
+
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            metrics.providerCallFinished(backend.id(), operation, status, elapsed);
+            backendHealth.recordCall(backend.id(), isBackendFailure(status));
+            RequestTrace.add("wpp", elapsed);
+        }
+    }
+
+    /**
+     * Retries only failures where the request never reached WPPConnect
+     * (connection refused, DNS, connect timeout), with exponential backoff and
+     * jitter. Read timeouts are not retried: the message may have been sent,
+     * and clients should retry with an Idempotency-Key instead.
+     */
+    private ResponseEntity<String> exchangeWithRetry(
+            WppBackend backend,
+            String url,
+            HttpMethod method,
+            HttpEntity<?> request,
+            String logName) {
+
+        int attempt = 1;
+
+        while (true) {
+            try {
+                return exchange(backend, logName, url, method, request, String.class);
+
+            } catch (ResourceAccessException e) {
+                if (attempt >= retryMaxAttempts || !isConnectionFailure(e)) {
+                    throw e;
+                }
+
+                long delay = backoffDelay(attempt);
+                logger.debug("RETRY WPPCONNECT ({}): attempt={} delay={}ms cause={}",
+                        logName, attempt, delay, e.getMessage());
+
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    private static boolean isBackendFailure(String status) {
+        return switch (status) {
+            case "IO_ERROR", "502", "503", "504" -> true;
+            default -> false;
+        };
+    }
+
+    private long backoffDelay(int attempt) {
+        long exp = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempt - 1, 20));
+        long half = exp / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private static boolean isConnectionFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException
+                    || t instanceof NoRouteToHostException
+                    || t instanceof UnknownHostException) {
+                return true;
+            }
+            if (t instanceof SocketTimeoutException
+                    && t.getMessage() != null
+                    && t.getMessage().toLowerCase().contains("connect")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markConnected(String sessionName) {
+        boolean alreadyConnected = statusCache.get(sessionName)
+                .map(snapshot -> snapshot.state() == ProviderSessionState.CONNECTED)
+                .orElse(false);
+
+        if (!alreadyConnected) {
+            statusCache.put(sessionName, ProviderSessionState.CONNECTED, null);
+        }
+    }
+
+    /**
+     * WPPConnect answers calls to an inactive session with a body like
+     * {"status":"Disconnected","message":"A sessão do WhatsApp não está ativa."}.
+     * Record it so the next send is rejected without reaching the provider.
+     */
+    private void observeProviderError(String sessionName, String responseBody) {
+        if (responseBody == null || responseBody.isBlank()) {
+            return;
+        }
+
+        try {
+            Map<?, ?> parsed = objectMapper.readValue(responseBody, Map.class);
+            ProviderSessionState state = ProviderSessionState.fromProviderStatus(parsed);
+
+            if (state == ProviderSessionState.DISCONNECTED || state == ProviderSessionState.NOT_FOUND) {
+                statusCache.put(sessionName, state, parsed);
+                logger.debug("SESSION MARKED {} BY PROVIDER ERROR | session={}", state, sessionName);
+            }
+        } catch (Exception ignored) {
+            // corpo não-JSON: nada a aprender
         }
     }
 
     public Map<?, ?> generateWppToken(String sessionName) {
-        String url = String.format("%s/api/%s/%s/generate-token", wppBaseUrl, sessionName, wppSecretKey);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, wppSecretKey + "/generate-token");
         logger.debug("REQUEST WPPCONNECT: {}", url);
 
         try {
-            ResponseEntity<Map> r = rest.postForEntity(url, null, Map.class);
+            ResponseEntity<Map> r = exchange(backend, "generate-token", url, HttpMethod.POST, HttpEntity.EMPTY, Map.class);
             return r.getBody();
 
         } catch (HttpClientErrorException e) {
@@ -107,23 +313,29 @@ public class WppService {
     }
 
     public ResponseEntity<?> startSession(String sessionName, String token, Map<String, Object> body) {
-        String url = String.format("%s/api/%s/start-session", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "start-session");
         return forwardToWppConnect(
+                backend,
+                sessionName,
                 token,
                 url,
                 HttpMethod.POST,
                 body,
-                "send-message");
+                "start-session");
 
     }
 
     public ResponseEntity<?> sendMessage(
             String session,
             String token,
-            Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-message", wppBaseUrl, session);
+            SendMessageRequest body) {
+        WppBackend backend = backends.backendFor(session);
+        String url = backend.url(session, "send-message");
 
         return forwardToWppConnect(
+                backend,
+                session,
                 token,
                 url,
                 HttpMethod.POST,
@@ -133,10 +345,13 @@ public class WppService {
     public ResponseEntity<?> sendSeen(
             String session,
             String token,
-            Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-seen", wppBaseUrl, session);
+            SendSeenRequest body) {
+        WppBackend backend = backends.backendFor(session);
+        String url = backend.url(session, "send-seen");
 
         return forwardToWppConnect(
+                backend,
+                session,
                 token,
                 url,
                 HttpMethod.POST,
@@ -144,18 +359,13 @@ public class WppService {
                 "send-seen");
     }
 
-    // Adicionar este método
-    public String getWppBaseUrl() {
-        return this.wppBaseUrl;
-    }
-
     /**
      * GET /api/{session}/all-messages-in-chat/{phone} Obtém todas as mensagens
      * de um chat específico
      */
     public Map<?, ?> getAllMessagesInChat(String sessionName, String token, String phone) {
-        String url = String.format("%s/api/%s/all-messages-in-chat/%s",
-                wppBaseUrl, sessionName, phone);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "all-messages-in-chat/" + phone);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -164,7 +374,7 @@ public class WppService {
         HttpEntity<Void> request = new HttpEntity<>(headers);
         logger.debug("REQUEST WPPCONNECT GET: {}", url);
 
-        ResponseEntity<Map> response = rest.exchange(url, HttpMethod.GET, request, Map.class);
+        ResponseEntity<Map> response = exchange(backend, "all-messages-in-chat", url, HttpMethod.GET, request, Map.class);
         return response.getBody();
     }
 
@@ -172,7 +382,8 @@ public class WppService {
      * GET /api/{session}/all-unread-messages Obtém todas as mensagens não lidas
      */
     public Map<?, ?> getAllUnreadMessages(String sessionName, String token) {
-        String url = String.format("%s/api/%s/all-unread-messages", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "all-unread-messages");
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -181,7 +392,7 @@ public class WppService {
         HttpEntity<Void> request = new HttpEntity<>(headers);
         logger.debug("REQUEST WPPCONNECT GET: {}", url);
 
-        ResponseEntity<Map> response = rest.exchange(url, HttpMethod.GET, request, Map.class);
+        ResponseEntity<Map> response = exchange(backend, "all-unread-messages", url, HttpMethod.GET, request, Map.class);
         return response.getBody();
     }
     // No seu WppService.java existente, adicione estes métodos:
@@ -189,10 +400,13 @@ public class WppService {
     /**
      * POST /api/{session}/send-image Envia imagem via base64
      */
-    public ResponseEntity<?> sendImageBase64(String sessionName, String token, Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-image", wppBaseUrl, sessionName);
+    public ResponseEntity<?> sendImageBase64(String sessionName, String token, SendImageRequest body) {
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "send-image");
 
         return forwardToWppConnect(
+                backend,
+                sessionName,
                 token,
                 url,
                 HttpMethod.POST,
@@ -204,9 +418,12 @@ public class WppService {
      * POST /api/{session}/send-file Envia documento via base64
      */
     public ResponseEntity<?> sendFile(String sessionName, String token, Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-file", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "send-file");
 
         return forwardToWppConnect(
+                backend,
+                sessionName,
                 token,
                 url,
                 HttpMethod.POST,
@@ -214,10 +431,13 @@ public class WppService {
                 "send-file");
     }
 
-    public ResponseEntity<?> sendFileBase64(String session, String token, Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-file-base64", wppBaseUrl, session);
+    public ResponseEntity<?> sendFileBase64(String session, String token, SendFileRequest body) {
+        WppBackend backend = backends.backendFor(session);
+        String url = backend.url(session, "send-file-base64");
 
         return forwardToWppConnect(
+                backend,
+                session,
                 token,
                 url,
                 HttpMethod.POST,
@@ -229,9 +449,12 @@ public class WppService {
      * POST /api/{session}/send-voice Envia áudio via base64
      */
     public ResponseEntity<?> sendVoice(String sessionName, String token, Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-voice", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "send-voice");
 
         return forwardToWppConnect(
+                backend,
+                sessionName,
                 token,
                 url,
                 HttpMethod.POST,
@@ -243,9 +466,12 @@ public class WppService {
      * POST /api/{session}/send-voice-base64 Envia áudio via base64
      */
     public ResponseEntity<?> sendVoiceBase64(String sessionName, String token, Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-voice-base64", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "send-voice-base64");
 
         return forwardToWppConnect(
+                backend,
+                sessionName,
                 token,
                 url,
                 HttpMethod.POST,
@@ -257,9 +483,12 @@ public class WppService {
      * POST /api/{session}/send-sticker Envia sticker (imagem convertida)
      */
     public ResponseEntity<?> sendSticker(String sessionName, String token, Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-sticker", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "send-sticker");
 
         return forwardToWppConnect(
+                backend,
+                sessionName,
                 token,
                 url,
                 HttpMethod.POST,
@@ -270,10 +499,13 @@ public class WppService {
     /**
      * POST /api/{session}/send-sticker-gif Envia sticker (imagem convertida)
      */
-    public ResponseEntity<?> sendStickerGif(String sessionName, String token, Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-sticker-gif", wppBaseUrl, sessionName);
+    public ResponseEntity<?> sendStickerGif(String sessionName, String token, SendStickerGifRequest body) {
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "send-sticker-gif");
 
         return forwardToWppConnect(
+                backend,
+                sessionName,
                 token,
                 url,
                 HttpMethod.POST,
@@ -285,10 +517,13 @@ public class WppService {
     /**
      * POST /api/{session}/send-list-message Envia lista interativa de opções
      */
-    public ResponseEntity<?> sendListMessage(String sessionName, String token, Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-list-message", wppBaseUrl, sessionName);
+    public ResponseEntity<?> sendListMessage(String sessionName, String token, SendListRequest body) {
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "send-list-message");
 
         return forwardToWppConnect(
+                backend,
+                sessionName,
                 token,
                 url,
                 HttpMethod.POST,
@@ -299,10 +534,13 @@ public class WppService {
     /**
      * POST /api/{session}/send-poll-message Envia enquete interativa
      */
-    public ResponseEntity<?> sendPollMessage(String sessionName, String token, Map<String, Object> body) {
-        String url = String.format("%s/api/%s/send-poll-message", wppBaseUrl, sessionName);
+    public ResponseEntity<?> sendPollMessage(String sessionName, String token, SendPollRequest body) {
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "send-poll-message");
 
         return forwardToWppConnect(
+                backend,
+                sessionName,
                 token,
                 url,
                 HttpMethod.POST,
@@ -314,7 +552,8 @@ public class WppService {
      * GET /api/{session}/check-connection-session
      */
     public boolean isSessionConnected(String sessionName, String token) {
-        String url = String.format("%s/api/%s/check-connection-session", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "check-connection-session");
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -325,7 +564,7 @@ public class WppService {
         HttpEntity<Void> req = new HttpEntity<>(headers);
 
         try {
-            ResponseEntity<Map> resp = rest.exchange(url, HttpMethod.GET, req, Map.class);
+            ResponseEntity<Map> resp = exchange(backend, "check-connection-session", url, HttpMethod.GET, req, Map.class);
             Object status = resp.getBody().get("status");
             return Boolean.TRUE.equals(status);
         } catch (Exception e) {
@@ -338,7 +577,8 @@ public class WppService {
      * POST /api/{session}/logout-session
      */
     public void logoutSession(String sessionName, String token) {
-        String url = String.format("%s/api/%s/logout-session", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "logout-session");
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -347,14 +587,15 @@ public class WppService {
         }
 
         HttpEntity<Void> req = new HttpEntity<>(headers);
-        rest.exchange(url, HttpMethod.POST, req, Void.class);
+        exchange(backend, "logout-session", url, HttpMethod.POST, req, Void.class);
     }
 
     /**
      * POST /api/{session}/close-session
      */
     public void closeSession(String sessionName, String token) {
-        String url = String.format("%s/api/%s/close-session", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "close-session");
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -363,7 +604,7 @@ public class WppService {
         }
 
         HttpEntity<Void> req = new HttpEntity<>(headers);
-        rest.exchange(url, HttpMethod.POST, req, Void.class);
+        exchange(backend, "close-session", url, HttpMethod.POST, req, Void.class);
     }
 
     /**
@@ -374,14 +615,18 @@ public class WppService {
     public boolean safeLogoutAndClose(String sessionName, String token) {
 
         try {
-            ProviderSessionState state = getProviderSessionState(sessionName, token);
+            // 🔹 Estado em cache evita um status-session extra
+            ProviderSessionState state = statusCache.get(sessionName)
+                    .map(SessionStatusSnapshot::state)
+                    .orElseGet(() -> getProviderSessionState(sessionName, token));
 
             if (state == ProviderSessionState.CONNECTED) {
                 logoutSession(sessionName, token);
             }
 
-            // Verificação final
+            // Verificação final (sempre no provider)
             ProviderSessionState after = getProviderSessionState(sessionName, token);
+            statusCache.put(sessionName, after, null);
 
             return after == ProviderSessionState.NOT_FOUND
                     || after == ProviderSessionState.DISCONNECTED;
@@ -397,16 +642,7 @@ public class WppService {
             String token) {
 
         try {
-            Map<?, ?> status = getSessionStatus(sessionName, token);
-            String s = Objects.toString(status.get("status"), "").toLowerCase();
-
-            return switch (s) {
-                case "initializing" -> ProviderSessionState.INITIALIZING;
-                case "qrcode" -> ProviderSessionState.QRCODE;
-                case "connected" -> ProviderSessionState.CONNECTED;
-                case "disconnected" -> ProviderSessionState.DISCONNECTED;
-                default -> ProviderSessionState.UNKNOWN;
-            };
+            return ProviderSessionState.fromProviderStatus(getSessionStatus(sessionName, token));
 
         } catch (HttpClientErrorException.NotFound e) {
             return ProviderSessionState.NOT_FOUND;
@@ -415,7 +651,8 @@ public class WppService {
 
     public byte[] fetchQrCodeImage(String sessionName, String token) {
 
-        String url = String.format("%s/api/%s/qrcode-session", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "qrcode-session");
 
         HttpHeaders headers = new HttpHeaders();
         headers.setAccept(List.of(MediaType.IMAGE_PNG));
@@ -427,7 +664,7 @@ public class WppService {
 
         logger.debug("REQUEST WPPCONNECT QR: {} headers={}", url, headers);
 
-        ResponseEntity<byte[]> response = rest.exchange(url, HttpMethod.GET, request, byte[].class);
+        ResponseEntity<byte[]> response = exchange(backend, "qrcode-session", url, HttpMethod.GET, request, byte[].class);
 
         if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
             throw new IllegalStateException(
@@ -441,7 +678,8 @@ public class WppService {
 
     public Map<?, ?> getSessionStatus(String sessionName, String token) {
 
-        String url = String.format("%s/api/%s/status-session", wppBaseUrl, sessionName);
+        WppBackend backend = backends.backendFor(sessionName);
+        String url = backend.url(sessionName, "status-session");
 
         HttpHeaders headers = new HttpHeaders();
         headers.setAccept(List.of(MediaType.ALL));
@@ -455,7 +693,7 @@ public class WppService {
         logger.debug("REQUEST WPPCONNECT STATUS: {} :: {}", url, headers);
 
         try {
-            ResponseEntity<Map> resp = rest.exchange(
+            ResponseEntity<Map> resp = exchange(backend, "status-session", 
                     url,
                     HttpMethod.GET,
                     req,
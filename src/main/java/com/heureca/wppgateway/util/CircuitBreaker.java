@@ -0,0 +1,134 @@
+package com.heureca.wppgateway.util;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal consecutive-failure circuit breaker.
+ *
+ * CLOSED lets every call through; {@code failureThreshold} consecutive
+ * failures open it. OPEN rejects calls for {@code openDurationMs}, then
+ * HALF_OPEN admits up to {@code halfOpenMaxCalls} trial calls: one success
+ * closes the breaker, one failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final int halfOpenMaxCalls;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int halfOpenInFlight;
+    private long openedAtMs;
+    private long totalFailures;
+    private long totalRejected;
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMs, int halfOpenMaxCalls) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenMaxCalls = halfOpenMaxCalls;
+    }
+
+    /**
+     * Returns true when a call may proceed. Every admitted call must be
+     * followed by {@link #onSuccess()}, {@link #onFailure()} or
+     * {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAtMs < openDurationMs) {
+                totalRejected++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenInFlight = 0;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenMaxCalls) {
+                totalRejected++;
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            halfOpenInFlight = 0;
+        }
+    }
+
+    public synchronized void onFailure() {
+        totalFailures++;
+        consecutiveFailures++;
+
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtMs = System.currentTimeMillis();
+            halfOpenInFlight = 0;
+        }
+    }
+
+    /**
+     * Releases an admitted call that never reached the provider.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized void reset() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        halfOpenInFlight = 0;
+    }
+
+    public synchronized State getState() {
+        // 🔹 OPEN vencido é reportado como HALF_OPEN (próxima chamada testa)
+        if (state == State.OPEN && System.currentTimeMillis() - openedAtMs >= openDurationMs) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public synchronized long remainingOpenMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openDurationMs - (System.currentTimeMillis() - openedAtMs));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("name", name);
+        m.put("state", getState());
+        m.put("consecutiveFailures", consecutiveFailures);
+        m.put("totalFailures", totalFailures);
+        m.put("totalRejected", totalRejected);
+        if (state == State.OPEN) {
+            m.put("openedAt", Instant.ofEpochMilli(openedAtMs).toString());
+            m.put("retryAfterMs", remainingOpenMillis());
+        }
+        return m;
+    }
+}
@@ -0,0 +1,64 @@
+package com.heureca.wppgateway.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring of node ids.
+ *
+ * Each node is placed at {@code virtualNodes} points; a key belongs to the
+ * first point at or after its own hash. Adding or removing one node moves
+ * only the keys between its points, about 1/N of them.
+ *
+ * Hashes are the first 8 bytes of MD5, so every replica (any JVM) builds
+ * the same ring from the same member set.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final Set<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        this.nodes = Set.copyOf(nodeIds);
+
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    public Set<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * Node that owns the key; null when the ring is empty.
+     */
+    public String owner(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> e = points.ceilingEntry(hash(key));
+        return e != null ? e.getValue() : points.firstEntry().getValue();
+    }
+
+    static long hash(String value) {
+        try {
+            byte[] d = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (d[i] & 0xFF);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
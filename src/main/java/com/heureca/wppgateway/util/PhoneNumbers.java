@@ -0,0 +1,23 @@
+package com.heureca.wppgateway.util;
+
+public final class PhoneNumbers {
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * Keeps only ASCII digits ({@code "+55 (11) 99999-9999"} → {@code "5511999999999"}).
+     * Same result as {@code replaceAll("\\D", "")} without compiling a regex per call.
+     */
+    public static String digitsOnly(String raw) {
+        StringBuilder sb = new StringBuilder(raw.length());
+
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.heureca.wppgateway.util;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Finds the session a request is about before Spring MVC has matched it
+ * (filters run ahead of the handler mapping, so there are no path
+ * variables yet).
+ */
+public final class RequestSessions {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private RequestSessions() {
+    }
+
+    /**
+     * Session in the URI for the session-scoped routes:
+     * {@code /api/{session}/...}, {@code /api/session/{session}/...} and
+     * {@code /api/receive/{session}/...}. Null for every other path,
+     * including the send routes, which carry it in the body.
+     */
+    public static String fromPath(String uri) {
+        if (!uri.startsWith("/api/")) {
+            return null;
+        }
+        String[] segments = uri.substring("/api/".length()).split("/");
+        if (segments.length < 2 || segments[1].isEmpty()) {
+            return null;
+        }
+
+        return switch (segments[0]) {
+            case "session", "receive" -> segments[1];
+            case "messages", "media", "interactive", "start-session" -> null;
+            default -> segments[0];
+        };
+    }
+
+    /**
+     * Streams the JSON until the top-level {@code session} field, without
+     * building a tree.
+     */
+    public static String fromJson(byte[] body) {
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("session".equals(field) && value == JsonToken.VALUE_STRING) {
+                    return parser.getText();
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException ignored) {
+            // body inválido: o controller responde 400, aqui só não há sessão
+        }
+        return null;
+    }
+}
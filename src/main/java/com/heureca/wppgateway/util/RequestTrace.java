@@ -0,0 +1,90 @@
+package com.heureca.wppgateway.util;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Per-request phase timings, exposed to clients as {@code Server-Timing}.
+ *
+ * Created by the trace filter and stored as a request attribute; code on
+ * the request thread records phases through the static helpers, which are
+ * no-ops outside a request (schedulers, reconciler threads).
+ */
+public final class RequestTrace {
+
+    public static final String ATTRIBUTE = RequestTrace.class.getName();
+    public static final String MDC_KEY = "requestId";
+    public static final String HEADER = "X-Request-Id";
+
+    private final String requestId;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    public RequestTrace(String requestId) {
+        this.requestId = requestId;
+    }
+
+    public static Optional<RequestTrace> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(
+                (RequestTrace) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    /**
+     * Adds {@code elapsedNanos} to the phase of the current request, if any.
+     */
+    public static void add(String phase, long elapsedNanos) {
+        current().ifPresent(t -> t.record(phase, elapsedNanos));
+    }
+
+    public static <T> T time(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            add(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void time(String phase, Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            add(phase, System.nanoTime() - start);
+        }
+    }
+
+    public synchronized void record(String phase, long elapsedNanos) {
+        phases.merge(phase, elapsedNanos, Long::sum);
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * {@code auth;dur=1.2, wpp;dur=240.7, total;dur=251.3} (milliseconds).
+     */
+    public synchronized String serverTiming() {
+        StringBuilder sb = new StringBuilder();
+
+        phases.forEach((phase, nanos) -> sb.append(phase).append(";dur=").append(millis(nanos)).append(", "));
+
+        sb.append("total;dur=").append(millis(System.nanoTime() - startNanos));
+        return sb.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
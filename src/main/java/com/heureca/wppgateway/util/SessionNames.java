@@ -0,0 +1,27 @@
+package com.heureca.wppgateway.util;
+
+import java.util.UUID;
+
+public final class SessionNames {
+
+    private SessionNames() {
+    }
+
+    /**
+     * {@code wpp_<client hash>_<phone>_<8 random hex>}: stable prefix per
+     * client and phone, unique suffix per session.
+     */
+    public static String build(String clientApiKey, String cleanPhone) {
+
+        String clientPrefix = Integer.toHexString(
+                Math.abs(clientApiKey.hashCode()));
+
+        // 🔥 sufixo único por sessão
+        String sessionId = UUID.randomUUID()
+                .toString()
+                .replace("-", "")
+                .substring(0, 8);
+
+        return "wpp_" + clientPrefix + "_" + cleanPhone + "_" + sessionId;
+    }
+}
@@ -0,0 +1,64 @@
+package com.heureca.wppgateway.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Which kind of work the current thread is doing, so it draws on its own
+ * resources: the database pool it gets (see the routing DataSource in
+ * config/DataSourceConfig) and the executor it runs on.
+ *
+ * <ul>
+ * <li>{@link #REQUEST} — API traffic on the servlet threads (the default)</li>
+ * <li>{@link #BACKGROUND} — schedulers, reconciler, health probes, drains</li>
+ * <li>{@link #ADMIN} — {@code /admin/**} requests</li>
+ * </ul>
+ *
+ * Background threads are marked once, by their thread factory; request
+ * threads are marked per request and cleared afterwards.
+ */
+public enum Workload {
+
+    REQUEST, BACKGROUND, ADMIN;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : REQUEST;
+    }
+
+    /**
+     * Marks the calling thread until {@link #clear()}.
+     */
+    public void enter() {
+        CURRENT.set(this);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Daemon threads named {@code prefix-N} that run in this workload.
+     */
+    public ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(wrap(r), prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    public Runnable wrap(Runnable work) {
+        return () -> {
+            enter();
+            try {
+                work.run();
+            } finally {
+                clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+-- Esquema do gateway como as entidades o descrevem hoje.
+-- IF NOT EXISTS: bancos criados à mão / pelo Hibernate antes do Flyway
+-- (baseline-version 0) passam por aqui sem mudança; colunas e índices que
+-- faltarem neles são acrescentados por V2 (config/V2__HotPathIndexes).
+
+CREATE TABLE IF NOT EXISTS api_client (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    api_key     VARCHAR(255) NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    daily_limit BIGINT       NULL,
+    daily_usage BIGINT       NULL,
+    source      VARCHAR(32)  NOT NULL,
+    created_at  DATETIME(6)  NULL,
+    last_reset  DATE         NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS sessions (
+    id             BIGINT        NOT NULL AUTO_INCREMENT,
+    session_name   VARCHAR(255)  NOT NULL,
+    client_api_key VARCHAR(255)  NOT NULL,
+    phone          VARCHAR(255)  NOT NULL,
+    description    VARCHAR(255)  NULL,
+    status         VARCHAR(255)  NULL,
+    wpp_token      VARCHAR(2000) NULL,
+    wpp_backend    VARCHAR(64)   NULL,
+    created_at     DATETIME(6)   NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS message_usage (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    client_api_key VARCHAR(255) NULL,
+    date           DATE         NULL,
+    count          INT          NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS session_usage (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    session_name VARCHAR(255) NOT NULL,
+    count        INT          NOT NULL,
+    date         DATE         NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    client_api_key  VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status_code     INT          NOT NULL,
+    content_type    VARCHAR(255) NULL,
+    response_body   LONGBLOB     NULL,
+    created_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS gateway_node (
+    node_id      VARCHAR(64)  NOT NULL,
+    address      VARCHAR(255) NOT NULL,
+    started_at   DATETIME(6)  NOT NULL,
+    heartbeat_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (node_id)
+);
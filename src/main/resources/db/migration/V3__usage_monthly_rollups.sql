@@ -0,0 +1,17 @@
+-- Totais mensais dos contadores diários, mantidos por UsageHistoryService
+-- (recalcula o mês corrente e o anterior; meses fechados não mudam mais).
+-- Ficam além da retenção das tabelas diárias.
+
+CREATE TABLE IF NOT EXISTS message_usage_monthly (
+    client_api_key VARCHAR(255) NOT NULL,
+    month_start    DATE         NOT NULL,
+    count          BIGINT       NOT NULL,
+    PRIMARY KEY (client_api_key, month_start)
+);
+
+CREATE TABLE IF NOT EXISTS session_usage_monthly (
+    session_name VARCHAR(255) NOT NULL,
+    month_start  DATE         NOT NULL,
+    count        BIGINT       NOT NULL,
+    PRIMARY KEY (session_name, month_start)
+);
@@ -0,0 +1,10 @@
+-- Medida de atraso da réplica de leitura (config/ReplicaLagMonitor): o gateway
+-- grava a hora atual aqui no primário e lê de volta na réplica.
+
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id      INT    NOT NULL,
+    beat_at BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, 0);